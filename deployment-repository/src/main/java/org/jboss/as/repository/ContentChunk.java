@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import java.util.Arrays;
+
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
+
+/**
+ * A content-defined chunk of a piece of deployment content, identified by the SHA-1 hash of its bytes.
+ */
+public final class ContentChunk {
+
+    private final byte[] hash;
+    private final long offset;
+    private final int length;
+
+    public ContentChunk(final byte[] hash, final long offset, final int length) {
+        if (hash == null) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.nullVar("hash");
+        }
+        this.hash = hash;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Gets the SHA-1 hash of the bytes of this chunk.
+     *
+     * @return the hash. Will not be {@code null}
+     */
+    public byte[] getHash() {
+        return hash.clone();
+    }
+
+    public String getHexHash() {
+        return HashUtil.bytesToHexString(hash);
+    }
+
+    /**
+     * Gets the position of the first byte of this chunk in the content.
+     *
+     * @return the offset
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the number of bytes in this chunk.
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    boolean hasHash(final byte[] other) {
+        return Arrays.equals(hash, other);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 7;
+        hashCode = 43 * hashCode + Arrays.hashCode(hash);
+        hashCode = 43 * hashCode + Long.hashCode(offset);
+        hashCode = 43 * hashCode + length;
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ContentChunk)) {
+            return false;
+        }
+        final ContentChunk other = (ContentChunk) obj;
+        return offset == other.offset && length == other.length && Arrays.equals(hash, other.hash);
+    }
+
+    @Override
+    public String toString() {
+        return "ContentChunk{" + "hash=" + getHexHash() + ", offset=" + offset + ", length=" + length + '}';
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
+
+/**
+ * The ordered list of {@link ContentChunk content-defined chunks} that make up a piece of content in the
+ * {@link ContentRepository}. Two versions of a deployment that share most of their bytes also share most of
+ * their chunks, which allows a repository to only store or transfer the chunks it does not already have.
+ */
+public final class ContentChunkIndex {
+
+    private static final int MAGIC = 0x57464349; // WFCI
+    private static final byte VERSION = 1;
+
+    private final byte[] contentHash;
+    private final long contentLength;
+    private final List<ContentChunk> chunks;
+
+    ContentChunkIndex(final byte[] contentHash, final List<ContentChunk> chunks) {
+        this.contentHash = contentHash;
+        this.chunks = Collections.unmodifiableList(chunks);
+        long length = 0;
+        for (ContentChunk chunk : chunks) {
+            length += chunk.getLength();
+        }
+        this.contentLength = length;
+    }
+
+    /**
+     * Gets the SHA-1 hash of the complete content.
+     *
+     * @return the hash. Will not be {@code null}
+     */
+    public byte[] getContentHash() {
+        return contentHash.clone();
+    }
+
+    public String getContentHexHash() {
+        return HashUtil.bytesToHexString(contentHash);
+    }
+
+    /**
+     * Gets the total number of bytes of the content.
+     *
+     * @return the content length
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Gets the chunks of the content, in content order.
+     *
+     * @return the chunks. Will not be {@code null}
+     */
+    public List<ContentChunk> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Writes this index in its binary form.
+     *
+     * @param output the output to write to. Cannot be {@code null}
+     * @throws IOException if the index cannot be written
+     */
+    public void writeTo(final DataOutput output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeByte(contentHash.length);
+        output.write(contentHash);
+        output.writeInt(chunks.size());
+        for (ContentChunk chunk : chunks) {
+            final byte[] hash = chunk.getHash();
+            output.writeByte(hash.length);
+            output.write(hash);
+            output.writeInt(chunk.getLength());
+        }
+    }
+
+    /**
+     * Reads an index previously written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input the input to read from. Cannot be {@code null}
+     * @return the index. Will not be {@code null}
+     * @throws IOException if the index cannot be read or is not valid
+     */
+    public static ContentChunkIndex readFrom(final DataInput input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidChunkIndex();
+        }
+        final byte version = input.readByte();
+        if (version != VERSION) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.unsupportedChunkIndexVersion(version);
+        }
+        final byte[] contentHash = new byte[input.readUnsignedByte()];
+        input.readFully(contentHash);
+        final int count = input.readInt();
+        if (count < 0) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidChunkIndex();
+        }
+        final List<ContentChunk> chunks = new ArrayList<ContentChunk>(count);
+        long offset = 0;
+        for (int i = 0; i < count; i++) {
+            final byte[] hash = new byte[input.readUnsignedByte()];
+            input.readFully(hash);
+            final int length = input.readInt();
+            if (length < 0) {
+                throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidChunkIndex();
+            }
+            chunks.add(new ContentChunk(hash, offset, length));
+            offset += length;
+        }
+        return new ContentChunkIndex(contentHash, chunks);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
+
+/**
+ * Splits a stream of bytes into content-defined chunks using a gear-based rolling hash. Chunk boundaries
+ * depend only on the bytes that precede them within a small window, so inserting or removing bytes in one
+ * place of a deployment archive only changes the chunks around that place, and every other chunk keeps its
+ * hash.
+ * <p>
+ * The gear table is derived from a fixed seed; every process must compute the same boundaries for the same
+ * content, so neither the seed nor the size parameters may change without changing the
+ * {@link ContentChunkIndex} format version.
+ */
+class ContentChunker {
+
+    static final int MIN_CHUNK_SIZE = 16 * 1024;
+    static final int MAX_CHUNK_SIZE = 256 * 1024;
+    /** A boundary is found on average every 64 KiB after the minimum chunk size */
+    private static final long BOUNDARY_MASK = 0xFFFFL << 48;
+    private static final long[] GEAR = new long[256];
+
+    static {
+        final Random random = new Random(0x5746434448554E4BL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final MessageDigest chunkDigest;
+    private final List<ContentChunk> chunks = new ArrayList<ContentChunk>();
+    private long offset;
+    private int chunkLength;
+    private long gearHash;
+
+    ContentChunker() {
+        try {
+            this.chunkDigest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+        }
+    }
+
+    /**
+     * Consumes the next bytes of the content.
+     */
+    void update(final byte[] bytes, final int off, final int len) {
+        int start = off;
+        final int end = off + len;
+        for (int i = off; i < end; i++) {
+            gearHash = (gearHash << 1) + GEAR[bytes[i] & 0xFF];
+            chunkLength++;
+            if ((chunkLength >= MIN_CHUNK_SIZE && (gearHash & BOUNDARY_MASK) == 0) || chunkLength >= MAX_CHUNK_SIZE) {
+                chunkDigest.update(bytes, start, i + 1 - start);
+                endChunk();
+                start = i + 1;
+            }
+        }
+        if (start < end) {
+            chunkDigest.update(bytes, start, end - start);
+        }
+    }
+
+    /**
+     * Completes the last chunk and returns the chunk index of the content.
+     *
+     * @param contentHash the SHA-1 hash of the complete content
+     * @return the index. Will not be {@code null}
+     */
+    ContentChunkIndex finish(final byte[] contentHash) {
+        if (chunkLength > 0) {
+            endChunk();
+        }
+        return new ContentChunkIndex(contentHash, new ArrayList<ContentChunk>(chunks));
+    }
+
+    private void endChunk() {
+        chunks.add(new ContentChunk(chunkDigest.digest(), offset, chunkLength));
+        offset += chunkLength;
+        chunkLength = 0;
+        gearHash = 0;
+    }
+}
@@ -26,21 +26,41 @@ import static java.lang.System.getSecurityManager;
 import static java.security.AccessController.doPrivileged;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
 import org.jboss.msc.service.Service;
@@ -71,6 +91,13 @@ public interface ContentRepository {
      */
     long OBSOLETE_CONTENT_TIMEOUT = getSecurityManager() == null ? getLong(Factory.UNSUPPORTED_PROPERTY, 300000L) : doPrivileged((PrivilegedAction<Long>) () -> getLong(Factory.UNSUPPORTED_PROPERTY, 300000L));
 
+    /**
+     * Minimum time between two full scans of the repository when cleaning obsolete content. Between full scans only
+     * the content that is known to have no reference is checked.
+     * Currently 24 hours.
+     */
+    long FULL_SCAN_INTERVAL = getSecurityManager() == null ? getLong(Factory.FULL_SCAN_PROPERTY, 86400000L) : doPrivileged((PrivilegedAction<Long>) () -> getLong(Factory.FULL_SCAN_PROPERTY, 86400000L));
+
     String DELETED_CONTENT = "deleted-contents";
     String MARKED_CONTENT = "marked-contents";
 
@@ -84,6 +111,37 @@ public interface ContentRepository {
      */
     byte[] addContent(InputStream stream) throws IOException;
 
+    /**
+     * Add content to the repository by assembling it from chunks. The chunks in {@code suppliedChunks} are read,
+     * in content order, from {@code suppliedData}; every other chunk of the index is copied from content already
+     * stored in the repository.
+     * <p>
+     * The default implementation does not keep track of chunks, which is consistent with the default
+     * {@link #getMissingChunks(ContentChunkIndex)}: it assembles the content from the supplied data alone, and fails
+     * if any chunk of the index is not supplied.
+     *
+     * @param index the chunk index of the content to add. Cannot be {@code null}
+     * @param suppliedChunks the chunks whose bytes are provided by {@code suppliedData}, typically the result of
+     *                       {@link #getMissingChunks(ContentChunkIndex)}. Cannot be {@code null}
+     * @param suppliedData stream from which the bytes of the supplied chunks can be read. Cannot be {@code null}
+     * @return the hash of the content. Will not be {@code null}
+     * @throws IOException if there is a problem reading the stream, a chunk is no longer available locally, or the
+     *                     assembled content does not match the index
+     */
+    default byte[] addContent(ContentChunkIndex index, List<ContentChunk> suppliedChunks, InputStream suppliedData) throws IOException {
+        final Set<ContentChunk> supplied = new HashSet<ContentChunk>(suppliedChunks);
+        for (ContentChunk chunk : index.getChunks()) {
+            if (!supplied.contains(chunk)) {
+                throw DeploymentRepositoryLogger.ROOT_LOGGER.chunkNotAvailable(chunk.getHexHash());
+            }
+        }
+        final byte[] hash = addContent(suppliedData);
+        if (!Arrays.equals(hash, index.getContentHash())) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.contentHashMismatch(HashUtil.bytesToHexString(hash), index.getContentHexHash());
+        }
+        return hash;
+    }
+
     /**
      * Adds a reference to the content.
      *
@@ -110,6 +168,41 @@ public interface ContentRepository {
      */
     boolean hasContent(byte[] hash);
 
+    /**
+     * Gets the content-defined chunks of the content with the given hash.
+     *
+     * @param hash the hash. Cannot be {@code null}
+     *
+     * @return the chunk index, or {@code null} if the repository does not have the content or does not support
+     * chunked content
+     */
+    default ContentChunkIndex getContentChunkIndex(byte[] hash) {
+        return null;
+    }
+
+    /**
+     * Gets the chunks of the given index whose bytes are not available in this repository.
+     *
+     * @param index the chunk index of some content. Cannot be {@code null}
+     *
+     * @return the missing chunks, in content order. Will not be {@code null}
+     */
+    default List<ContentChunk> getMissingChunks(ContentChunkIndex index) {
+        return index.getChunks();
+    }
+
+    /**
+     * Verifies that the stored content with the given hashes still matches its hash. Content which is not stored in
+     * the repository is ignored.
+     *
+     * @param hashes the hashes of the content to verify. Cannot be {@code null}
+     *
+     * @return the hex hashes of the content that does not match its hash. Will not be {@code null}
+     */
+    default Set<String> verifyContent(Collection<byte[]> hashes) {
+        return Collections.emptySet();
+    }
+
     /**
      * Synchronize content with the given reference. This may be used in favor of {@linkplain #hasContent(byte[])} to
      * explicitly allow additional operations to synchronize the local content with some external repository.
@@ -148,8 +241,9 @@ public interface ContentRepository {
          */
         @Deprecated
         private static final String UNSUPPORTED_PROPERTY = "org.wildfly.unsupported.content.repository.obsolescence";
+        private static final String FULL_SCAN_PROPERTY = "org.wildfly.content.repository.full-scan-interval";
         public static void addService(final ServiceTarget serviceTarget, final File repoRoot) {
-            ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot, OBSOLETE_CONTENT_TIMEOUT);
+            ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot, OBSOLETE_CONTENT_TIMEOUT, FULL_SCAN_INTERVAL);
             serviceTarget.addService(SERVICE_NAME, contentRepository).install();
         }
 
@@ -158,7 +252,11 @@ public interface ContentRepository {
         }
 
         static ContentRepository create(final File repoRoot, long timeout) {
-            return new ContentRepositoryImpl(repoRoot, timeout);
+            return create(repoRoot, timeout, FULL_SCAN_INTERVAL);
+        }
+
+        static ContentRepository create(final File repoRoot, long timeout, long fullScanInterval) {
+            return new ContentRepositoryImpl(repoRoot, timeout, fullScanInterval);
         }
 
         /**
@@ -169,13 +267,36 @@ public interface ContentRepository {
         private static class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
 
             protected static final String CONTENT = "content";
+            protected static final String CHUNK_INDEX = "chunk-index";
+            /** File in the repository root where the contents without any reference are persisted */
+            protected static final String OBSOLETE_CONTENTS = "obsolete-contents";
+            /** File in the repository root recording the size and modification time of the verified contents */
+            protected static final String VERIFIED_CONTENTS = "verified-contents";
+            private static final int VERIFIED_CONTENTS_VERSION = 1;
+            private static final int VERIFY_BUFFER_SIZE = 1 << 20;
+            private static final int OBSOLETE_CONTENTS_VERSION = 1;
             private final File repoRoot;
             protected final MessageDigest messageDigest;
             private final Map<String, Set<ContentReference>> contentHashReferences = new HashMap<String, Set<ContentReference>>();
-            private final Map<String, Long> obsoleteContents = new HashMap<String, Long>();
+            /** Where the bytes of each known chunk can be found, keyed by the hex hash of the chunk */
+            private final Map<String, ChunkLocation> chunkLocations = new HashMap<String, ChunkLocation>();
+            /** The hex hashes of the contents whose chunks are registered in {@code chunkLocations} */
+            private final Set<String> indexedContents = new HashSet<String>();
+            /**
+             * The referenced contents whose chunks are not registered yet, e.g. content copied from the domain
+             * controller, keyed by hex hash. Guarded by the chunkLocations lock
+             */
+            private final Map<String, byte[]> unindexedContents = new HashMap<String, byte[]>();
+            /** Whether the chunks of the contents stored before this repository was created are registered. Guarded by the chunkLocations lock */
+            private boolean chunkLocationsLoaded;
+            /** Contents without any reference, keyed by hex hash. Guarded by the contentHashReferences lock */
+            private final Map<String, ObsoleteContent> obsoleteContents;
             private final long obsolescenceTimeout;
+            private final long fullScanInterval;
+            /** Time of the last full scan of the repository, {@code 0} until the first clean. Guarded by the contentHashReferences lock */
+            private long lastFullScan;
 
-            protected ContentRepositoryImpl(final File repoRoot, long obsolescenceTimeout) {
+            protected ContentRepositoryImpl(final File repoRoot, long obsolescenceTimeout, long fullScanInterval) {
                 if (repoRoot == null) {
                     throw DeploymentRepositoryLogger.ROOT_LOGGER.nullVar("repoRoot");
                 }
@@ -190,6 +311,8 @@ public interface ContentRepository {
                 }
                 this.repoRoot = repoRoot;
                 this.obsolescenceTimeout = obsolescenceTimeout;
+                this.fullScanInterval = fullScanInterval;
+                this.obsoleteContents = readObsoleteContents();
                 try {
                     this.messageDigest = MessageDigest.getInstance("SHA-1");
                 } catch (NoSuchAlgorithmException e) {
@@ -202,6 +325,7 @@ public interface ContentRepository {
                 byte[] sha1Bytes;
                 Path tmp = Files.createTempFile(repoRoot.toPath(), CONTENT, ".tmp");
                 OutputStream fos = Files.newOutputStream(tmp);
+                final ContentChunker chunker = new ContentChunker();
                 synchronized (messageDigest) {
                     messageDigest.reset();
                     try {
@@ -211,6 +335,7 @@ public interface ContentRepository {
                         int read;
                         while ((read = bis.read(bytes)) > -1) {
                             dos.write(bytes, 0, read);
+                            chunker.update(bytes, 0, read);
                         }
                         fos.flush();
                         fos.close();
@@ -232,12 +357,234 @@ public interface ContentRepository {
                     DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", realFile.toAbsolutePath().toString());
                 } else {
                     moveTempToPermanent(tmp, realFile);
+                    storeChunkIndex(chunker.finish(sha1Bytes));
+                    markAsUnreferenced(sha1Bytes, realFile);
                     DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.toAbsolutePath().toString());
                 }
 
                 return sha1Bytes;
             }
 
+            @Override
+            public byte[] addContent(ContentChunkIndex index, List<ContentChunk> suppliedChunks, InputStream suppliedData) throws IOException {
+                final Set<ContentChunk> supplied = new HashSet<ContentChunk>(suppliedChunks);
+                final MessageDigest contentDigest = createDigest();
+                final MessageDigest chunkDigest = createDigest();
+                final byte[] buffer = new byte[8192];
+                final Path tmp = Files.createTempFile(repoRoot.toPath(), CONTENT, ".tmp");
+                try {
+                    try (OutputStream out = Files.newOutputStream(tmp)) {
+                        for (ContentChunk chunk : index.getChunks()) {
+                            if (supplied.contains(chunk)) {
+                                copyChunk(suppliedData, chunk, out, buffer, chunkDigest, contentDigest);
+                            } else {
+                                copyLocalChunk(chunk, out, buffer, chunkDigest, contentDigest);
+                            }
+                        }
+                    }
+                    final byte[] sha1Bytes = contentDigest.digest();
+                    if (!Arrays.equals(sha1Bytes, index.getContentHash())) {
+                        throw DeploymentRepositoryLogger.ROOT_LOGGER.contentHashMismatch(HashUtil.bytesToHexString(sha1Bytes), index.getContentHexHash());
+                    }
+                    final Path realFile = getDeploymentContentFile(sha1Bytes, true);
+                    if (hasContent(sha1Bytes)) {
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", realFile.toAbsolutePath().toString());
+                    } else {
+                        moveTempToPermanent(tmp, realFile);
+                        storeChunkIndex(index);
+                        markAsUnreferenced(sha1Bytes, realFile);
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Assembled content from %d chunks of which %d were supplied",
+                                index.getChunks().size(), supplied.size());
+                        DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.toAbsolutePath().toString());
+                    }
+                    return sha1Bytes;
+                } finally {
+                    try {
+                        Files.deleteIfExists(tmp);
+                    } catch (IOException ioex) {
+                        DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(ioex, tmp.toAbsolutePath().toString());
+                        tmp.toFile().deleteOnExit();
+                    }
+                }
+            }
+
+            @Override
+            public ContentChunkIndex getContentChunkIndex(byte[] hash) {
+                if (!hasContent(hash)) {
+                    return null;
+                }
+                final Path indexFile = getDeploymentHashDir(hash, false).resolve(CHUNK_INDEX);
+                if (Files.exists(indexFile)) {
+                    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+                        final ContentChunkIndex index = ContentChunkIndex.readFrom(input);
+                        registerChunks(index);
+                        return index;
+                    } catch (IOException ioex) {
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf(ioex, "Recomputing invalid chunk index %s", indexFile);
+                    }
+                }
+                // Content added before chunk indexes existed, or whose index was lost
+                final ContentChunker chunker = new ContentChunker();
+                try (InputStream input = Files.newInputStream(getDeploymentContentFile(hash))) {
+                    final byte[] bytes = new byte[8192];
+                    int read;
+                    while ((read = input.read(bytes)) > -1) {
+                        chunker.update(bytes, 0, read);
+                    }
+                } catch (IOException ioex) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.debugf(ioex, "Cannot compute the chunk index of content %s", HashUtil.bytesToHexString(hash));
+                    return null;
+                }
+                final ContentChunkIndex index = chunker.finish(hash);
+                storeChunkIndex(index);
+                return index;
+            }
+
+            @Override
+            public List<ContentChunk> getMissingChunks(ContentChunkIndex index) {
+                final List<byte[]> toIndex;
+                synchronized (chunkLocations) {
+                    if (!chunkLocationsLoaded) {
+                        loadChunkLocations();
+                        chunkLocationsLoaded = true;
+                        unindexedContents.keySet().removeAll(indexedContents);
+                    }
+                    toIndex = new ArrayList<byte[]>(unindexedContents.values());
+                    unindexedContents.clear();
+                }
+                for (byte[] hash : toIndex) {
+                    // Reads or computes the index, and registers its chunks
+                    getContentChunkIndex(hash);
+                }
+                final List<ContentChunk> missing = new ArrayList<ContentChunk>();
+                synchronized (chunkLocations) {
+                    for (ContentChunk chunk : index.getChunks()) {
+                        if (!chunkLocations.containsKey(chunk.getHexHash())) {
+                            missing.add(chunk);
+                        }
+                    }
+                }
+                return missing;
+            }
+
+            private void copyLocalChunk(final ContentChunk chunk, final OutputStream out, final byte[] buffer,
+                                        final MessageDigest chunkDigest, final MessageDigest contentDigest) throws IOException {
+                final ChunkLocation location;
+                synchronized (chunkLocations) {
+                    location = chunkLocations.get(chunk.getHexHash());
+                }
+                if (location == null || location.length != chunk.getLength()) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.chunkNotAvailable(chunk.getHexHash());
+                }
+                try (FileChannel channel = FileChannel.open(getDeploymentContentFile(location.contentHash), StandardOpenOption.READ)) {
+                    channel.position(location.offset);
+                    copyChunk(Channels.newInputStream(channel), chunk, out, buffer, chunkDigest, contentDigest);
+                } catch (NoSuchFileException | EOFException e) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.chunkNotAvailable(chunk.getHexHash());
+                }
+            }
+
+            private static void copyChunk(final InputStream in, final ContentChunk chunk, final OutputStream out, final byte[] buffer,
+                                          final MessageDigest chunkDigest, final MessageDigest contentDigest) throws IOException {
+                chunkDigest.reset();
+                int remaining = chunk.getLength();
+                while (remaining > 0) {
+                    final int read = in.read(buffer, 0, Math.min(remaining, buffer.length));
+                    if (read < 0) {
+                        throw new EOFException();
+                    }
+                    chunkDigest.update(buffer, 0, read);
+                    contentDigest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+                if (!chunk.hasHash(chunkDigest.digest())) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.chunkHashMismatch(chunk.getHexHash());
+                }
+            }
+
+            private void storeChunkIndex(final ContentChunkIndex index) {
+                final Path indexFile = getDeploymentHashDir(index.getContentHash(), true).resolve(CHUNK_INDEX);
+                try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+                    index.writeTo(output);
+                } catch (IOException ioex) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.cannotWriteChunkIndex(ioex, index.getContentHexHash());
+                    try {
+                        Files.deleteIfExists(indexFile);
+                    } catch (IOException ignored) {
+                        //
+                    }
+                }
+                registerChunks(index);
+            }
+
+            private void registerChunks(final ContentChunkIndex index) {
+                final String contentHexHash = index.getContentHexHash();
+                synchronized (chunkLocations) {
+                    if (indexedContents.add(contentHexHash)) {
+                        final byte[] contentHash = index.getContentHash();
+                        for (ContentChunk chunk : index.getChunks()) {
+                            final String chunkHexHash = chunk.getHexHash();
+                            if (!chunkLocations.containsKey(chunkHexHash)) {
+                                chunkLocations.put(chunkHexHash, new ChunkLocation(contentHexHash, contentHash, chunk.getOffset(), chunk.getLength()));
+                            }
+                        }
+                    }
+                }
+            }
+
+            private void unregisterChunks(final String contentHexHash) {
+                synchronized (chunkLocations) {
+                    unindexedContents.remove(contentHexHash);
+                    if (indexedContents.remove(contentHexHash)) {
+                        chunkLocations.values().removeIf(location -> location.contentHexHash.equals(contentHexHash));
+                    }
+                }
+            }
+
+            /**
+             * Registers the chunks of the content stored before this repository was created, from their index files.
+             * This is only done once, after which {@code chunkLocations} is kept up to date as content is added and
+             * removed. Must be called while holding the chunkLocations lock.
+             */
+            private void loadChunkLocations() {
+                final File[] rootHashes = repoRoot.listFiles();
+                if (rootHashes == null) {
+                    return;
+                }
+                for (File rootHash : rootHashes) {
+                    final File[] complementaryHashes = rootHash.isDirectory() ? rootHash.listFiles() : null;
+                    if (complementaryHashes == null) {
+                        continue;
+                    }
+                    for (File complementaryHash : complementaryHashes) {
+                        final String hexHash = rootHash.getName() + complementaryHash.getName();
+                        if (indexedContents.contains(hexHash)) {
+                            continue;
+                        }
+                        final File indexFile = new File(complementaryHash, CHUNK_INDEX);
+                        if (indexFile.isFile() && new File(complementaryHash, CONTENT).isFile()) {
+                            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile.toPath())))) {
+                                final ContentChunkIndex index = ContentChunkIndex.readFrom(input);
+                                if (hexHash.equals(index.getContentHexHash())) {
+                                    registerChunks(index);
+                                }
+                            } catch (IOException ioex) {
+                                DeploymentRepositoryLogger.ROOT_LOGGER.debugf(ioex, "Ignoring invalid chunk index %s", indexFile);
+                            }
+                        }
+                    }
+                }
+            }
+
+            private static MessageDigest createDigest() {
+                try {
+                    return MessageDigest.getInstance("SHA-1");
+                } catch (NoSuchAlgorithmException e) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+                }
+            }
+
             @Override
             public void addContentReference(ContentReference reference) {
                 synchronized (contentHashReferences) {
@@ -247,6 +594,15 @@ public interface ContentRepository {
                         contentHashReferences.put(reference.getHexHash(), references);
                     }
                     references.add(reference);
+                    if (obsoleteContents.remove(reference.getHexHash()) != null) {
+                        storeObsoleteContents();
+                    }
+                }
+                synchronized (chunkLocations) {
+                    if (!indexedContents.contains(reference.getHexHash())) {
+                        // Possibly copied into the repository directly, its chunks are registered when first needed
+                        unindexedContents.put(reference.getHexHash(), reference.getHash());
+                    }
                 }
             }
 
@@ -263,6 +619,138 @@ public interface ContentRepository {
                 return hasContent(reference.getHash());
             }
 
+            /**
+             * Hashes the contents in parallel, one task per content. Content whose size and modification time did
+             * not change since it was last verified is not read again.
+             */
+            @Override
+            public Set<String> verifyContent(Collection<byte[]> hashes) {
+                final long start = System.nanoTime();
+                final Map<String, VerifiedContent> previous = readVerifiedContents();
+                final Map<String, VerifiedContent> verified = new HashMap<String, VerifiedContent>();
+                final Map<String, Future<VerifiedContent>> pending = new HashMap<String, Future<VerifiedContent>>();
+                final Set<String> failed = new HashSet<String>();
+                ExecutorService executor = null;
+                try {
+                    for (byte[] hash : hashes) {
+                        final String hexHash = HashUtil.bytesToHexString(hash);
+                        if (verified.containsKey(hexHash) || pending.containsKey(hexHash)) {
+                            continue;
+                        }
+                        final Path file = getDeploymentContentFile(hash);
+                        final VerifiedContent current;
+                        try {
+                            current = new VerifiedContent(Files.size(file), Files.getLastModifiedTime(file).toMillis());
+                        } catch (NoSuchFileException e) {
+                            continue;
+                        } catch (IOException ioex) {
+                            DeploymentRepositoryLogger.ROOT_LOGGER.cannotVerifyContent(ioex, file.toString());
+                            failed.add(hexHash);
+                            continue;
+                        }
+                        if (current.equals(previous.get(hexHash))) {
+                            verified.put(hexHash, current);
+                        } else {
+                            if (executor == null) {
+                                executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+                                    final Thread thread = new Thread(task, "Content verification");
+                                    thread.setDaemon(true);
+                                    return thread;
+                                });
+                            }
+                            pending.put(hexHash, executor.submit(() -> matchesHash(file, hash) ? current : null));
+                        }
+                    }
+                    for (Map.Entry<String, Future<VerifiedContent>> entry : pending.entrySet()) {
+                        final String hexHash = entry.getKey();
+                        try {
+                            final VerifiedContent result = entry.getValue().get();
+                            if (result != null) {
+                                verified.put(hexHash, result);
+                            } else {
+                                DeploymentRepositoryLogger.ROOT_LOGGER.contentVerificationFailed(getDeploymentContentFile(HashUtil.hexStringToByteArray(hexHash)).toString());
+                                failed.add(hexHash);
+                            }
+                        } catch (ExecutionException e) {
+                            DeploymentRepositoryLogger.ROOT_LOGGER.cannotVerifyContent(e.getCause(), getDeploymentContentFile(HashUtil.hexStringToByteArray(hexHash)).toString());
+                            failed.add(hexHash);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            failed.add(hexHash);
+                        }
+                    }
+                } finally {
+                    if (executor != null) {
+                        executor.shutdownNow();
+                    }
+                }
+                if (!pending.isEmpty() || !verified.keySet().equals(previous.keySet())) {
+                    storeVerifiedContents(verified);
+                }
+                DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Verified %d contents, %d of which were hashed, in %d ms",
+                        verified.size() + failed.size(), pending.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return failed;
+            }
+
+            private static boolean matchesHash(final Path file, final byte[] expected) throws IOException {
+                final MessageDigest digest = createDigest();
+                final ByteBuffer buffer = ByteBuffer.allocateDirect(VERIFY_BUFFER_SIZE);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    while (channel.read(buffer) >= 0) {
+                        buffer.flip();
+                        digest.update(buffer);
+                        buffer.clear();
+                    }
+                }
+                return Arrays.equals(expected, digest.digest());
+            }
+
+            private Map<String, VerifiedContent> readVerifiedContents() {
+                final Map<String, VerifiedContent> result = new HashMap<String, VerifiedContent>();
+                final Path file = getRepoRoot().resolve(VERIFIED_CONTENTS);
+                if (Files.exists(file)) {
+                    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                        if (input.readInt() == VERIFIED_CONTENTS_VERSION) {
+                            final int size = input.readInt();
+                            for (int i = 0; i < size; i++) {
+                                final String hexHash = input.readUTF();
+                                result.put(hexHash, new VerifiedContent(input.readLong(), input.readLong()));
+                            }
+                        }
+                    } catch (IOException ioex) {
+                        // Everything gets hashed again
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf(ioex, "Ignoring invalid list of verified contents %s", file);
+                        result.clear();
+                    }
+                }
+                return result;
+            }
+
+            private void storeVerifiedContents(final Map<String, VerifiedContent> verified) {
+                final Path file = getRepoRoot().resolve(VERIFIED_CONTENTS);
+                final Path tmp = file.resolveSibling(VERIFIED_CONTENTS + ".tmp");
+                try {
+                    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                        output.writeInt(VERIFIED_CONTENTS_VERSION);
+                        output.writeInt(verified.size());
+                        for (Map.Entry<String, VerifiedContent> entry : verified.entrySet()) {
+                            output.writeUTF(entry.getKey());
+                            output.writeLong(entry.getValue().size);
+                            output.writeLong(entry.getValue().lastModified);
+                        }
+                    }
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException ioex) {
+                    // Only costs hashing the contents again on the next verification
+                    DeploymentRepositoryLogger.ROOT_LOGGER.debugf(ioex, "Cannot write the list of verified contents %s", file);
+                    try {
+                        Files.deleteIfExists(tmp);
+                    } catch (IOException ignored) {
+                        //
+                    }
+                }
+            }
+
             @Override
             public boolean hasContent(byte[] hash) {
                 return Files.exists(getDeploymentContentFile(hash));
@@ -361,8 +849,18 @@ public interface ContentRepository {
                         }
                         contentHashReferences.remove(reference.getHexHash());
                     }
+                    if (obsoleteContents.remove(reference.getHexHash()) != null) {
+                        storeObsoleteContents();
+                    }
                 }
                 Path file = getDeploymentContentFile(reference.getHash(), true);
+                unregisterChunks(reference.getHexHash());
+                Path indexFile = file.resolveSibling(CHUNK_INDEX);
+                try {
+                    Files.deleteIfExists(indexFile);
+                } catch (IOException ex) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, indexFile.toString());
+                }
                 try {
                     Files.deleteIfExists(file);
                 } catch (IOException ex) {
@@ -387,6 +885,10 @@ public interface ContentRepository {
              * Clean obsolete contents from the content repository.
              * It will first mark contents as obsolete then after some time if these contents are still obsolete they
              * will be removed.
+             * <p>
+             * Only the contents already known to have no reference are checked, unless no full scan of the repository
+             * was done for {@code fullScanInterval} ms. A full scan lists the repository without holding the lock used
+             * by content additions and removals, so it only competes with them for each content it checks.
              *
              * @return a map containing the list of marked contents and the list of deleted contents.
              */
@@ -395,42 +897,141 @@ public interface ContentRepository {
                 Map<String, Set<String>> cleanedContents = new HashMap<String, Set<String>>(2);
                 cleanedContents.put(MARKED_CONTENT, new HashSet<String>());
                 cleanedContents.put(DELETED_CONTENT, new HashSet<String>());
+                final Collection<ContentReference> candidates;
+                final boolean fullScan;
                 synchronized (contentHashReferences) {
-                    for (ContentReference fsContent : listLocalContents()) {
+                    final long now = System.currentTimeMillis();
+                    fullScan = lastFullScan == 0L || lastFullScan + fullScanInterval <= now;
+                    if (fullScan) {
+                        lastFullScan = now;
+                        candidates = null;
+                    } else {
+                        candidates = new ArrayList<ContentReference>(obsoleteContents.size());
+                        for (ObsoleteContent obsoleteContent : obsoleteContents.values()) {
+                            candidates.add(obsoleteContent.reference);
+                        }
+                    }
+                }
+                final Collection<ContentReference> contents = fullScan ? listLocalContents() : candidates;
+                boolean modified = false;
+                for (ContentReference fsContent : contents) {
+                    synchronized (contentHashReferences) {
                         if (!contentHashReferences.containsKey(fsContent.getHexHash())) { //We have no refrence to this content
-                            if(markAsObsolete(fsContent)) {
+                            final int previous = obsoleteContents.size();
+                            if (markAsObsolete(fsContent)) {
                                 cleanedContents.get(DELETED_CONTENT).add(fsContent.getContentIdentifier());
                             } else {
                                 cleanedContents.get(MARKED_CONTENT).add(fsContent.getContentIdentifier());
                             }
+                            modified |= previous != obsoleteContents.size();
                         } else {
-                            obsoleteContents.remove(fsContent.getHexHash()); //Remove existing references from obsoleteContents
+                            modified |= obsoleteContents.remove(fsContent.getHexHash()) != null; //Remove existing references from obsoleteContents
                         }
                     }
                 }
+                synchronized (contentHashReferences) {
+                    if (fullScan) {
+                        // Forget contents removed from the repository by other means
+                        final Set<String> localHashes = new HashSet<String>();
+                        for (ContentReference fsContent : contents) {
+                            localHashes.add(fsContent.getHexHash());
+                        }
+                        modified |= obsoleteContents.keySet().retainAll(localHashes);
+                    }
+                    if (modified) {
+                        storeObsoleteContents();
+                    }
+                }
                 return cleanedContents;
             }
 
             /**
              * Mark content as obsolete. If content was already marked for obsolescenceTimeout ms then it is removed.
+             * Must be called while holding the contentHashReferences lock.
              *
              * @param ref the content refrence to be marked as obsolete.
              *
              * @return true if the content refrence is removed, fale otherwise.
              */
             private boolean markAsObsolete(ContentReference ref) {
-                if (obsoleteContents.containsKey(ref.getHexHash())) { //This content is already marked as obsolete
-                    if (obsoleteContents.get(ref.getHexHash()) + obsolescenceTimeout < System.currentTimeMillis()) {
+                final ObsoleteContent obsoleteContent = obsoleteContents.get(ref.getHexHash());
+                if (obsoleteContent != null) { //This content is already marked as obsolete
+                    if (obsoleteContent.timestamp + obsolescenceTimeout < System.currentTimeMillis()) {
                         DeploymentRepositoryLogger.ROOT_LOGGER.obsoleteContentCleaned(ref.getContentIdentifier());
                         removeContent(ref);
+                        obsoleteContents.remove(ref.getHexHash());
                         return true;
                     }
                 } else {
-                    obsoleteContents.put(ref.getHexHash(), System.currentTimeMillis()); //Mark content as obsolete
+                    obsoleteContents.put(ref.getHexHash(), new ObsoleteContent(ref, System.currentTimeMillis())); //Mark content as obsolete
                 }
                 return false;
             }
 
+            /**
+             * Marks newly stored content as obsolete until a reference to it is added, so that content which is
+             * uploaded but never used is found without scanning the repository.
+             */
+            private void markAsUnreferenced(final byte[] hash, final Path contentFile) {
+                final ContentReference reference = new ContentReference(contentFile.getParent().toAbsolutePath().toString(), hash);
+                synchronized (contentHashReferences) {
+                    if (!contentHashReferences.containsKey(reference.getHexHash()) && !obsoleteContents.containsKey(reference.getHexHash())) {
+                        obsoleteContents.put(reference.getHexHash(), new ObsoleteContent(reference, System.currentTimeMillis()));
+                        storeObsoleteContents();
+                    }
+                }
+            }
+
+            private Map<String, ObsoleteContent> readObsoleteContents() {
+                final Map<String, ObsoleteContent> result = new HashMap<String, ObsoleteContent>();
+                final Path file = getRepoRoot().resolve(OBSOLETE_CONTENTS);
+                if (Files.exists(file)) {
+                    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                        if (input.readInt() == OBSOLETE_CONTENTS_VERSION) {
+                            final int size = input.readInt();
+                            for (int i = 0; i < size; i++) {
+                                final String hexHash = input.readUTF();
+                                final String identifier = input.readUTF();
+                                final long timestamp = input.readLong();
+                                result.put(hexHash, new ObsoleteContent(new ContentReference(identifier, hexHash), timestamp));
+                            }
+                        }
+                    } catch (IOException ioex) {
+                        // The next full scan finds these contents again
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf(ioex, "Ignoring invalid list of obsolete contents %s", file);
+                        result.clear();
+                    }
+                }
+                return result;
+            }
+
+            /**
+             * Persists the obsolete contents. Must be called while holding the contentHashReferences lock.
+             */
+            private void storeObsoleteContents() {
+                final Path file = getRepoRoot().resolve(OBSOLETE_CONTENTS);
+                final Path tmp = file.resolveSibling(OBSOLETE_CONTENTS + ".tmp");
+                try {
+                    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                        output.writeInt(OBSOLETE_CONTENTS_VERSION);
+                        output.writeInt(obsoleteContents.size());
+                        for (Map.Entry<String, ObsoleteContent> entry : obsoleteContents.entrySet()) {
+                            output.writeUTF(entry.getKey());
+                            output.writeUTF(entry.getValue().reference.getContentIdentifier());
+                            output.writeLong(entry.getValue().timestamp);
+                        }
+                    }
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException ioex) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.cannotWriteObsoleteContents(ioex, file.toString());
+                    try {
+                        Files.deleteIfExists(tmp);
+                    } catch (IOException ignored) {
+                        //
+                    }
+                }
+            }
+
             private Set<ContentReference> listLocalContents() {
                 Set<ContentReference> localReferences = new HashSet<>();
                 File[] rootHashes = repoRoot.listFiles();
@@ -462,6 +1063,60 @@ public interface ContentRepository {
                 }
             }
 
+            /**
+             * Size and modification time of a content file when its hash was last verified.
+             */
+            private static final class VerifiedContent {
+                private final long size;
+                private final long lastModified;
+
+                private VerifiedContent(final long size, final long lastModified) {
+                    this.size = size;
+                    this.lastModified = lastModified;
+                }
+
+                @Override
+                public boolean equals(final Object other) {
+                    return other instanceof VerifiedContent && ((VerifiedContent) other).size == size
+                            && ((VerifiedContent) other).lastModified == lastModified;
+                }
+
+                @Override
+                public int hashCode() {
+                    return 31 * Long.hashCode(size) + Long.hashCode(lastModified);
+                }
+            }
+
+            /**
+             * Content without any reference, along with the time it was first found to be unreferenced.
+             */
+            private static final class ObsoleteContent {
+                private final ContentReference reference;
+                private final long timestamp;
+
+                private ObsoleteContent(final ContentReference reference, final long timestamp) {
+                    this.reference = reference;
+                    this.timestamp = timestamp;
+                }
+            }
+
+            /**
+             * Location of the bytes of a chunk within a stored content file.
+             */
+            private static final class ChunkLocation {
+                private final String contentHexHash;
+                private final byte[] contentHash;
+                private final long offset;
+                private final int length;
+
+                private ChunkLocation(final String contentHexHash, final byte[] contentHash, final long offset, final int length) {
+                    this.contentHexHash = contentHexHash;
+                    this.contentHash = contentHash;
+                    this.offset = offset;
+                    this.length = length;
+                }
+            }
+
             @Override
             public void start(StartContext context) throws StartException {
                 DeploymentRepositoryLogger.ROOT_LOGGER.debugf("%s started", ContentRepository.class.getSimpleName());
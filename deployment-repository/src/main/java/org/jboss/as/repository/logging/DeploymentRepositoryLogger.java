@@ -26,6 +26,8 @@ import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
+import java.io.IOException;
+
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.LogMessage;
@@ -121,4 +123,69 @@ public interface DeploymentRepositoryLogger extends BasicLogger {
     @LogMessage(level = ERROR)
     @Message(id = 10, value = "Couldn't delete content %s")
     void contentDeletionError(@Cause Throwable cause, String name);
+
+    /**
+     * Creates an exception indicating that a chunk index could not be parsed.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 11, value = "Invalid content chunk index")
+    IOException invalidChunkIndex();
+
+    /**
+     * Creates an exception indicating that a chunk index was written in an unknown format version.
+     *
+     * @param version the version read.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 12, value = "Unsupported content chunk index version %d")
+    IOException unsupportedChunkIndexVersion(int version);
+
+    /**
+     * Creates an exception indicating that the bytes supplied for a chunk do not match the chunk hash.
+     *
+     * @param hash the expected chunk hash.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 13, value = "Content chunk %s does not match its hash")
+    IOException chunkHashMismatch(String hash);
+
+    /**
+     * Creates an exception indicating that content assembled from chunks does not match the expected hash.
+     *
+     * @param expected the expected content hash.
+     * @param actual the hash of the assembled content.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 14, value = "Assembled content has hash %s instead of the expected %s")
+    IOException contentHashMismatch(String actual, String expected);
+
+    @LogMessage(level = WARN)
+    @Message(id = 15, value = "Cannot write the chunk index of content %s")
+    void cannotWriteChunkIndex(@Cause Throwable cause, String path);
+
+    /**
+     * Creates an exception indicating that a chunk needed to assemble content is no longer available locally.
+     *
+     * @param hash the chunk hash.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 16, value = "Content chunk %s is not available in the repository")
+    IOException chunkNotAvailable(String hash);
+
+    @LogMessage(level = WARN)
+    @Message(id = 17, value = "Cannot write the list of obsolete contents %s")
+    void cannotWriteObsoleteContents(@Cause Throwable cause, String path);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 18, value = "Content %s does not match its hash")
+    void contentVerificationFailed(String path);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 19, value = "Cannot verify content %s")
+    void cannotVerifyContent(@Cause Throwable cause, String path);
 }
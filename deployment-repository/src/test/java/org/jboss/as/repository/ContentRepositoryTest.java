@@ -24,13 +24,20 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.junit.Assert.assertThat;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import org.jboss.vfs.VirtualFile;
 import org.junit.After;
@@ -243,4 +250,119 @@ public class ContentRepositoryTest {
         }
 
     }
+
+    /**
+     * Test that content added without reference is cleaned without a full scan of the repository, and that the
+     * obsolete contents survive a restart.
+     */
+    @Test
+    public void testCleanUnreferencedContentIncrementally() throws Exception {
+        repository = ContentRepository.Factory.create(rootDir, 0L, Long.MAX_VALUE);
+        // The first clean is always a full scan
+        Map<String, Set<String>> result = repository.cleanObsoleteContent();
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).size(), is(0));
+        byte[] unused;
+        byte[] used;
+        try (InputStream stream = this.getClass().getClassLoader().getResourceAsStream("overlay.xhtml")) {
+            unused = repository.addContent(stream);
+        }
+        used = repository.addContent(new ByteArrayInputStream("referenced".getBytes("UTF-8")));
+        repository.addContentReference(new ContentReference("referenced", used));
+        Thread.sleep(10);
+
+        // Restarting keeps the time the content was marked as obsolete
+        repository = ContentRepository.Factory.create(rootDir, 0L, Long.MAX_VALUE);
+        repository.addContentReference(new ContentReference("referenced", used));
+        result = repository.cleanObsoleteContent();
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).size(), is(0));
+        assertThat(result.get(ContentRepository.DELETED_CONTENT).size(), is(1));
+        assertThat(repository.hasContent(unused), is(false));
+        assertThat(repository.hasContent(used), is(true));
+
+        // Content created behind the back of the repository is only found by a full scan
+        File foreign = new File(rootDir, "ae");
+        foreign.mkdir();
+        Thread.sleep(10);
+        result = repository.cleanObsoleteContent();
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).size(), is(0));
+        assertThat(result.get(ContentRepository.DELETED_CONTENT).size(), is(0));
+        assertThat(foreign.exists(), is(true));
+    }
+
+    /**
+     * Test that corrupted content is detected, and that missing content is ignored.
+     */
+    @Test
+    public void testVerifyContent() throws Exception {
+        final byte[] first = repository.addContent(new ByteArrayInputStream("first".getBytes("UTF-8")));
+        final byte[] second = repository.addContent(new ByteArrayInputStream("second".getBytes("UTF-8")));
+        final byte[] missing = HashUtil.hexStringToByteArray("0c40ffacd15b0f66d5081a93407d3ff5e3c65a71");
+        assertThat(repository.verifyContent(Arrays.asList(first, second, missing)).isEmpty(), is(true));
+        // Verified again from the recorded size and modification time
+        assertThat(repository.verifyContent(Arrays.asList(first, second)).isEmpty(), is(true));
+
+        final String hexHash = HashUtil.bytesToHexString(second);
+        final Path content = rootDir.toPath().resolve(hexHash.substring(0, 2)).resolve(hexHash.substring(2)).resolve("content");
+        Files.write(content, "sec0nd".getBytes("UTF-8"));
+        Files.setLastModifiedTime(content, FileTime.fromMillis(Files.getLastModifiedTime(content).toMillis() + 1000L));
+        final Set<String> failed = repository.verifyContent(Arrays.asList(first, second));
+        assertThat(failed.size(), is(1));
+        assertThat(failed.contains(hexHash), is(true));
+    }
+
+    /**
+     * Test that a new version of some content can be assembled from the chunks of the previous version
+     * plus the few chunks that changed.
+     */
+    @Test
+    public void testAddContentFromChunks() throws Exception {
+        final byte[] original = new byte[2 * 1024 * 1024];
+        new Random(42).nextBytes(original);
+        final byte[] modified = new byte[original.length + 100];
+        System.arraycopy(original, 0, modified, 0, 1024 * 1024);
+        System.arraycopy(original, 1024 * 1024, modified, 1024 * 1024 + 100, original.length - 1024 * 1024);
+
+        final File otherRootDir = new File("target", "other-repository");
+        deleteRecursively(otherRootDir);
+        otherRootDir.mkdirs();
+        try {
+            ContentRepository other = ContentRepository.Factory.create(otherRootDir, 0L);
+            byte[] modifiedHash = other.addContent(new ByteArrayInputStream(modified));
+            ContentChunkIndex index = other.getContentChunkIndex(modifiedHash);
+            assertThat(index, is(notNullValue()));
+            assertThat(index.getContentLength(), is((long) modified.length));
+
+            repository.addContent(new ByteArrayInputStream(original));
+            List<ContentChunk> missing = repository.getMissingChunks(index);
+            assertThat(missing.isEmpty(), is(false));
+            assertThat(missing.size() < index.getChunks().size() / 2, is(true));
+
+            ByteArrayOutputStream supplied = new ByteArrayOutputStream();
+            for (ContentChunk chunk : missing) {
+                supplied.write(modified, (int) chunk.getOffset(), chunk.getLength());
+            }
+            byte[] result = repository.addContent(index, missing, new ByteArrayInputStream(supplied.toByteArray()));
+            assertThat(Arrays.equals(result, modifiedHash), is(true));
+            assertThat(Arrays.equals(Files.readAllBytes(repository.getContent(result).getPhysicalFile().toPath()), modified), is(true));
+            assertThat(repository.getMissingChunks(index).isEmpty(), is(true));
+        } finally {
+            deleteRecursively(otherRootDir);
+        }
+    }
+
+    /**
+     * Test that a chunk index survives being written and read back.
+     */
+    @Test
+    public void testChunkIndexRoundTrip() throws Exception {
+        try (InputStream stream = this.getClass().getClassLoader().getResourceAsStream("overlay.xhtml")) {
+            byte[] hash = repository.addContent(stream);
+            ContentChunkIndex index = repository.getContentChunkIndex(hash);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            index.writeTo(new DataOutputStream(out));
+            ContentChunkIndex read = ContentChunkIndex.readFrom(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+            assertThat(read.getContentHexHash(), is(index.getContentHexHash()));
+            assertThat(read.getChunks(), is(index.getChunks()));
+        }
+    }
 }
@@ -32,6 +32,7 @@ interface CommonAttributes {
     String AUTO_DEPLOY_XML = "auto-deploy-xml";
     String DEPLOYMENT_SCANNER = "deployment-scanner";
     String DEPLOYMENT_TIMEOUT = "deployment-timeout";
+    String INCREMENTAL_EXPLODED_REDEPLOY = "incremental-exploded-redeploy";
     String NAME = "name";
     String PATH = "path";
     String RELATIVE_TO = "relative-to";
@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Groups the deployments found by a scan, so that deployments referring to each other are deployed by the same
+ * operation while independent groups can be deployed by separate operations.
+ * <p>
+ * A deployment refers to another deployment of the scan through the {@code Class-Path} or the {@code Dependencies}
+ * header of its manifest, or through a {@code deployment.<name>} module of its {@code jboss-deployment-structure.xml}.
+ * The references of EE archives, whose modules can have manifests of their own, and of xml deployments are not
+ * inspected. Those deployments, and the tasks that do not deploy content, all end up in one shared group.
+ */
+final class DeploymentGroups {
+
+    private static final String MANIFEST = "META-INF/MANIFEST.MF";
+    private static final String[] DEPLOYMENT_STRUCTURES = {"META-INF/jboss-deployment-structure.xml", "WEB-INF/jboss-deployment-structure.xml"};
+    private static final String DEPLOYMENT_MODULE_PREFIX = "deployment.";
+    private static final String DEPENDENCIES = "Dependencies";
+    private static final Pattern DEPLOYMENT_MODULE_PATTERN = Pattern.compile("name\\s*=\\s*[\"']deployment\\.([^\"']+)[\"']");
+    private static final Pattern EE_ARCHIVE_PATTERN = Pattern.compile("^.*\\.[Ee][Aa][Rr]$");
+
+    private DeploymentGroups() {
+    }
+
+    /**
+     * Assign the deployments to at most {@code max} batches. A group is never split across batches, and the largest
+     * groups are assigned first, each to the batch with the fewest deployments so far.
+     *
+     * @param names the deployment names, in the order of the scan
+     * @param contents the content of each deployment, or {@code null} for a task that does not deploy content
+     * @param max the max number of batches
+     * @return the indexes of the deployments of each batch, each batch in the order of the scan
+     */
+    static List<List<Integer>> createBatches(final List<String> names, final List<File> contents, final int max) {
+        final int[] groups = group(names, contents);
+        final Map<Integer, List<Integer>> members = new LinkedHashMap<Integer, List<Integer>>();
+        for (int i = 0; i < groups.length; i++) {
+            List<Integer> group = members.get(groups[i]);
+            if (group == null) {
+                group = new ArrayList<Integer>();
+                members.put(groups[i], group);
+            }
+            group.add(i);
+        }
+        final List<List<Integer>> bySize = new ArrayList<List<Integer>>(members.values());
+        Collections.sort(bySize, new Comparator<List<Integer>>() {
+            @Override
+            public int compare(List<Integer> o1, List<Integer> o2) {
+                return o2.size() - o1.size();
+            }
+        });
+        final int batchCount = Math.max(1, Math.min(max, bySize.size()));
+        final List<List<Integer>> batches = new ArrayList<List<Integer>>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            batches.add(new ArrayList<Integer>());
+        }
+        for (List<Integer> group : bySize) {
+            List<Integer> smallest = batches.get(0);
+            for (List<Integer> batch : batches) {
+                if (batch.size() < smallest.size()) {
+                    smallest = batch;
+                }
+            }
+            smallest.addAll(group);
+        }
+        for (List<Integer> batch : batches) {
+            Collections.sort(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * Group the deployments referring to each other, directly or not.
+     *
+     * @param names the deployment names
+     * @param contents the content of each deployment, or {@code null} for a task that does not deploy content
+     * @return the group of each deployment, identified by the index of one of its members
+     */
+    static int[] group(final List<String> names, final List<File> contents) {
+        final int[] parents = new int[names.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+        int shared = -1;
+        for (int i = 0; i < parents.length; i++) {
+            final File content = contents.get(i);
+            final Set<String> references = content == null ? null : getReferences(names.get(i), content);
+            if (references == null) {
+                if (shared < 0) {
+                    shared = i;
+                } else {
+                    union(parents, shared, i);
+                }
+                continue;
+            }
+            for (String reference : references) {
+                for (int j = 0; j < parents.length; j++) {
+                    final String name = names.get(j);
+                    // deployment.<name>.<module> refers to a module of an EE archive
+                    if (j != i && (reference.equals(name) || reference.startsWith(name + "."))) {
+                        union(parents, i, j);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = find(parents, i);
+        }
+        return parents;
+    }
+
+    /**
+     * Get the names of the deployments the given deployment refers to.
+     *
+     * @param name the deployment name
+     * @param content the deployment content
+     * @return the names of the referenced deployments, or {@code null} if they cannot be determined
+     */
+    static Set<String> getReferences(final String name, final File content) {
+        if (!FileSystemDeploymentService.ARCHIVE_PATTERN.matcher(name).matches() || EE_ARCHIVE_PATTERN.matcher(name).matches()) {
+            return null;
+        }
+        final Set<String> references = new HashSet<String>();
+        try {
+            if (content.isDirectory()) {
+                final File manifest = new File(content, MANIFEST);
+                if (manifest.isFile()) {
+                    try (InputStream in = new FileInputStream(manifest)) {
+                        addManifestReferences(in, references);
+                    }
+                }
+                for (String path : DEPLOYMENT_STRUCTURES) {
+                    final File structure = new File(content, path);
+                    if (structure.isFile()) {
+                        try (InputStream in = new FileInputStream(structure)) {
+                            addDeploymentStructureReferences(in, references);
+                        }
+                    }
+                }
+            } else {
+                try (ZipFile zip = new ZipFile(content)) {
+                    final ZipEntry manifest = zip.getEntry(MANIFEST);
+                    if (manifest != null) {
+                        try (InputStream in = zip.getInputStream(manifest)) {
+                            addManifestReferences(in, references);
+                        }
+                    }
+                    for (String path : DEPLOYMENT_STRUCTURES) {
+                        final ZipEntry structure = zip.getEntry(path);
+                        if (structure != null) {
+                            try (InputStream in = zip.getInputStream(structure)) {
+                                addDeploymentStructureReferences(in, references);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return references;
+    }
+
+    private static void addManifestReferences(final InputStream in, final Set<String> references) throws IOException {
+        final Attributes attributes = new Manifest(in).getMainAttributes();
+        final String classPath = attributes.getValue(Attributes.Name.CLASS_PATH);
+        if (classPath != null) {
+            for (String entry : classPath.trim().split("\\s+")) {
+                // a relative URL, the referenced deployment is its last segment
+                references.add(entry.substring(entry.lastIndexOf('/') + 1));
+            }
+        }
+        final String dependencies = attributes.getValue(DEPENDENCIES);
+        if (dependencies != null) {
+            for (String dependency : dependencies.split(",")) {
+                final String module = dependency.trim().split("\\s+")[0];
+                if (module.startsWith(DEPLOYMENT_MODULE_PREFIX)) {
+                    references.add(module.substring(DEPLOYMENT_MODULE_PREFIX.length()));
+                }
+            }
+        }
+    }
+
+    private static void addDeploymentStructureReferences(final InputStream in, final Set<String> references) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        final Matcher matcher = DEPLOYMENT_MODULE_PATTERN.matcher(new String(out.toByteArray(), StandardCharsets.UTF_8));
+        while (matcher.find()) {
+            references.add(matcher.group(1));
+        }
+    }
+
+    private static int find(final int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    private static void union(final int[] parents, final int i, final int j) {
+        final int rootI = find(parents, i);
+        final int rootJ = find(parents, j);
+        if (rootI != rootJ) {
+            // keep the earliest deployment as the root, so groups are identified in the order of the scan
+            parents[Math.max(rootI, rootJ)] = Math.min(rootI, rootJ);
+        }
+    }
+}
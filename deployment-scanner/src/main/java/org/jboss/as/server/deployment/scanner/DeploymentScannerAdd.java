@@ -30,6 +30,7 @@ import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.AUTO_DEPLOY_XML;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.AUTO_DEPLOY_ZIPPED;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.DEPLOYMENT_TIMEOUT;
+import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.INCREMENTAL_EXPLODED_REDEPLOY;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.RELATIVE_TO;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.RUNTIME_FAILURE_CAUSES_ROLLBACK;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.SCAN_ENABLED;
@@ -109,6 +110,7 @@ class DeploymentScannerAdd implements OperationStepHandler {
             final boolean autoDeployXml = AUTO_DEPLOY_XML.resolveModelAttribute(context, operation).asBoolean();
             final long deploymentTimeout = DEPLOYMENT_TIMEOUT.resolveModelAttribute(context, operation).asLong();
             final int scanInterval = SCAN_INTERVAL.resolveModelAttribute(context, operation).asInt();
+            final boolean incrementalRedeploy = INCREMENTAL_EXPLODED_REDEPLOY.resolveModelAttribute(context, operation).asBoolean();
 
             final ScheduledExecutorService scheduledExecutorService = createScannerExecutorService();
 
@@ -127,6 +129,7 @@ class DeploymentScannerAdd implements OperationStepHandler {
                 bootTimeScanner.setAutoDeployXMLContent(autoDeployXml);
                 bootTimeScanner.setDeploymentTimeout(deploymentTimeout);
                 bootTimeScanner.setScanInterval(scanInterval);
+                bootTimeScanner.setIncrementalExplodedRedeploy(incrementalRedeploy);
             } else {
                 bootTimeScanner = null;
             }
@@ -230,9 +233,10 @@ class DeploymentScannerAdd implements OperationStepHandler {
         final Boolean autoDeployXml = AUTO_DEPLOY_XML.resolveModelAttribute(context, model).asBoolean();
         final Long deploymentTimeout = DEPLOYMENT_TIMEOUT.resolveModelAttribute(context, model).asLong();
         final Boolean rollback = RUNTIME_FAILURE_CAUSES_ROLLBACK.resolveModelAttribute(context, model).asBoolean();
+        final boolean incrementalRedeploy = INCREMENTAL_EXPLODED_REDEPLOY.resolveModelAttribute(context, model).asBoolean();
         final ServiceTarget serviceTarget = context.getServiceTarget();
         DeploymentScannerService.addService(serviceTarget, address, relativeTo, path, interval, TimeUnit.MILLISECONDS,
-                autoDeployZip, autoDeployExp, autoDeployXml, enabled, deploymentTimeout, rollback, bootTimeScanner, executorService);
+                autoDeployZip, autoDeployExp, autoDeployXml, enabled, deploymentTimeout, rollback, incrementalRedeploy, bootTimeScanner, executorService);
 
     }
 
@@ -113,7 +113,14 @@ public class DeploymentScannerDefinition extends SimpleResourceDefinition {
                     .setDefaultValue(new ModelNode().set(false))
                     .build();
 
-    protected static final SimpleAttributeDefinition[] ALL_ATTRIBUTES = {PATH,RELATIVE_TO,SCAN_ENABLED,SCAN_INTERVAL,AUTO_DEPLOY_EXPLODED,AUTO_DEPLOY_XML,AUTO_DEPLOY_ZIPPED,DEPLOYMENT_TIMEOUT,RUNTIME_FAILURE_CAUSES_ROLLBACK};
+    protected static final SimpleAttributeDefinition INCREMENTAL_EXPLODED_REDEPLOY =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.INCREMENTAL_EXPLODED_REDEPLOY, ModelType.BOOLEAN, true)
+                    .setXmlName(Attribute.INCREMENTAL_EXPLODED_REDEPLOY.getLocalName())
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode().set(false))
+                    .build();
+
+    protected static final SimpleAttributeDefinition[] ALL_ATTRIBUTES = {PATH,RELATIVE_TO,SCAN_ENABLED,SCAN_INTERVAL,AUTO_DEPLOY_EXPLODED,AUTO_DEPLOY_XML,AUTO_DEPLOY_ZIPPED,DEPLOYMENT_TIMEOUT,RUNTIME_FAILURE_CAUSES_ROLLBACK,INCREMENTAL_EXPLODED_REDEPLOY};
 
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
@@ -127,6 +134,7 @@ public class DeploymentScannerDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerReadWriteAttribute(AUTO_DEPLOY_XML, null, WriteAutoDeployXMLAttributeHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(DEPLOYMENT_TIMEOUT, null, WriteDeploymentTimeoutAttributeHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(RUNTIME_FAILURE_CAUSES_ROLLBACK, null, WriteRuntimeFailureCausesRollbackAttributeHandler.INSTANCE);
+        resourceRegistration.registerReadWriteAttribute(INCREMENTAL_EXPLODED_REDEPLOY, null, WriteIncrementalExplodedRedeployAttributeHandler.INSTANCE);
     }
 
     @Override
@@ -72,6 +72,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private final String relativeTo;
     private final String path;
     private final boolean rollbackOnRuntimeFailure;
+    private final boolean incrementalExplodedRedeploy;
     private static final NotificationFilter DEPLOYMENT_FILTER = (Notification notification) -> {
         if (DEPLOYMENT_UNDEPLOYED_NOTIFICATION.equals(notification.getType()) || DEPLOYMENT_DEPLOYED_NOTIFICATION.equals(notification.getType())) {
             ModelNode notificationData = notification.getData();
@@ -120,6 +121,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param scanEnabled       scan enabled
      * @param deploymentTimeout the deployment timeout
      * @param rollbackOnRuntimeFailure rollback on runtime failures
+     * @param incrementalExplodedRedeploy whether changes to static resources of exploded content skip the redeploy
      * @param bootTimeService   the deployment scanner used in the boot time scan
      * @param scheduledExecutorService executor to use for asynchronous tasks
      * @return the controller for the deployment scanner service
@@ -127,9 +129,10 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     public static ServiceController<DeploymentScanner> addService(final ServiceTarget serviceTarget, final PathAddress resourceAddress, final String relativeTo, final String path,
                                                                   final int scanInterval, TimeUnit unit, final boolean autoDeployZip,
                                                                   final boolean autoDeployExploded, final boolean autoDeployXml, final boolean scanEnabled, final long deploymentTimeout, boolean rollbackOnRuntimeFailure,
+                                                                  final boolean incrementalExplodedRedeploy,
                                                                   final FileSystemDeploymentService bootTimeService, final ScheduledExecutorService scheduledExecutorService) {
         final DeploymentScannerService service = new DeploymentScannerService(resourceAddress, relativeTo, path, scanInterval, unit, autoDeployZip,
-                autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, rollbackOnRuntimeFailure, bootTimeService);
+                autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, rollbackOnRuntimeFailure, incrementalExplodedRedeploy, bootTimeService);
         final ServiceName serviceName = getServiceName(resourceAddress.getLastElement().getValue());
 
         return serviceTarget.addService(serviceName, service)
@@ -144,7 +147,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
 
     private DeploymentScannerService(PathAddress resourceAddress, final String relativeTo, final String path, final int interval, final TimeUnit unit, final boolean autoDeployZipped,
                                      final boolean autoDeployExploded, final boolean autoDeployXml, final boolean enabled, final long deploymentTimeout,
-                                     final boolean rollbackOnRuntimeFailure, final FileSystemDeploymentService bootTimeService) {
+                                     final boolean rollbackOnRuntimeFailure,
+                                     final boolean incrementalExplodedRedeploy, final FileSystemDeploymentService bootTimeService) {
         this.resourceAddress = resourceAddress;
         this.relativeTo = relativeTo;
         this.path = path;
@@ -156,6 +160,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         this.enabled = enabled;
         this.rollbackOnRuntimeFailure = rollbackOnRuntimeFailure;
         this.deploymentTimeout = deploymentTimeout;
+        this.incrementalExplodedRedeploy = incrementalExplodedRedeploy;
         this.scanner = bootTimeService;
     }
 
@@ -192,6 +197,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
                 scanner.setAutoDeployZippedContent(autoDeployZipped);
                 scanner.setAutoDeployXMLContent(autoDeployXml);
                 scanner.setRuntimeFailureCausesRollback(rollbackOnRuntimeFailure);
+                scanner.setIncrementalExplodedRedeploy(incrementalExplodedRedeploy);
                 if (deploymentTimeout != null) {
                     scanner.setDeploymentTimeout(deploymentTimeout);
                 }
@@ -199,6 +205,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
             } else {
                 // The boot-time scanner should use our DeploymentOperations.Factory
                 this.scanner.setDeploymentOperationsFactory(factory);
+                this.scanner.setIncrementalExplodedRedeploy(incrementalExplodedRedeploy);
             }
             controllerValue.getValue().getNotificationRegistry().registerNotificationHandler(ANY_ADDRESS, scanner, DEPLOYMENT_FILTER);
             if (enabled) {
@@ -60,6 +60,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
@@ -91,6 +92,7 @@ import org.jboss.as.server.deployment.scanner.api.DeploymentScanner;
 import org.jboss.as.server.deployment.scanner.logging.DeploymentScannerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Service that monitors the filesystem for deployment content and if found deploys it.
@@ -101,6 +103,9 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
 
     static final Pattern ARCHIVE_PATTERN = Pattern.compile("^.*\\.(?:(?:[SsWwJjEeRr][Aa][Rr])|(?:[Ww][Aa][Bb])|(?:[Ee][Ss][Aa]))$");
 
+    /** JSP pages, fragments and tag files, which are compiled rather than served as they are */
+    private static final Pattern COMPILED_WEB_RESOURCE_PATTERN = Pattern.compile("^.*\\.(?:jspx?|jspf|tagx?)$", Pattern.CASE_INSENSITIVE);
+
     static final String DEPLOYED = ".deployed";
     static final String FAILED_DEPLOY = ".failed";
     static final String DO_DEPLOY = ".dodeploy";
@@ -123,6 +128,23 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
      */
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 600;
 
+    /**
+     * Max number of deployment operations a scan submits at once. The controller still executes write operations
+     * one at a time, but each operation then completes, fails or times out on its own.
+     */
+    private static final int MAX_CONCURRENT_DEPLOYMENTS;
+
+    static {
+        int max = -1;
+        try {
+            max = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("jboss.as.deployment-scanner.max-concurrent-deployments", "1"));
+        } catch (Exception e) {
+            // use the default
+        } finally {
+            MAX_CONCURRENT_DEPLOYMENTS = max > 0 ? max : 1;
+        }
+    }
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
@@ -152,6 +174,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
     private volatile long maxNoProgress = MAX_NO_PROGRESS;
     private volatile boolean rollbackOnRuntimeFailure;
     private volatile long deploymentTimeout = DEFAULT_DEPLOYMENT_TIMEOUT;
+    private volatile boolean incrementalExplodedRedeploy;
 
     private final ModelNode resourceAddress;
     private final String relativeTo;
@@ -378,6 +401,11 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         this.deploymentTimeout = deploymentTimeout;
     }
 
+    @Override
+    public void setIncrementalExplodedRedeploy(boolean incrementalExplodedRedeploy) {
+        this.incrementalExplodedRedeploy = incrementalExplodedRedeploy;
+    }
+
     @Override
     public synchronized void startScanner() {
         assert deploymentOperationsFactory != null : "deploymentOperationsFactory is null";
@@ -446,7 +474,9 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
                 final String deploymentName = fileName.substring(0, fileName.length() - DEPLOYED.length());
                 if (deploymentNames.contains(deploymentName)) {
                     File deployment = new File(dir, deploymentName);
-                    deployed.put(deploymentName, new DeploymentMarker(child.lastModified(), !deployment.isDirectory(), dir));
+                    final boolean archive = !deployment.isDirectory();
+                    final Map<String, Long> files = !archive && incrementalExplodedRedeploy ? getExplodedFiles(deployment) : null;
+                    deployed.put(deploymentName, new DeploymentMarker(child.lastModified(), archive, dir, files));
                 } else {
                     if (!child.delete()) {
                         ROOT_LOGGER.cannotRemoveDeploymentMarker(fileName);
@@ -467,7 +497,8 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         this.establishDeployedContentList(this.deploymentDir, deploymentOperations);
         if (acquireScanLock()) {
             try {
-                scan(true, deploymentOperations);
+                // The boot-time deployment operation is executed as a single step of the boot
+                scan(true, deploymentOperations, 1);
             } finally {
                 releaseScanLock();
             }
@@ -486,7 +517,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         if (acquireScanLock()) {
             ScanResult scanResult = null;
             try {
-                scanResult = scan(false, deploymentOperations);
+                scanResult = scan(false, deploymentOperations, MAX_CONCURRENT_DEPLOYMENTS);
             } finally {
                 try {
                     if (scanResult != null && scanResult.scheduleRescan) {
@@ -530,7 +561,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
                     scannerTasks.add(new UndeployTask(toUndeploy, deploymentDir, scanContext.scanStartTime, true));
                 }
                 try {
-                    executeScannerTasks(scannerTasks, deploymentOperations, true, new ScanResult());
+                    executeScannerTasks(scannerTasks, deploymentOperations, true, MAX_CONCURRENT_DEPLOYMENTS, new ScanResult());
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -558,7 +589,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         scanLock.unlock();
     }
 
-    private ScanResult scan(boolean oneOffScan, final DeploymentOperations deploymentOperations) {
+    private ScanResult scan(boolean oneOffScan, final DeploymentOperations deploymentOperations, final int parallelism) {
 
         ScanResult scanResult = new ScanResult();
 
@@ -620,7 +651,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
                 }
                 try {
                     scanResult.tasks = scannerTasks;
-                    executeScannerTasks(scannerTasks, deploymentOperations, oneOffScan, scanResult);
+                    executeScannerTasks(scannerTasks, deploymentOperations, oneOffScan, parallelism, scanResult);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -633,7 +664,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
     }
 
     private void executeScannerTasks(List<ScannerTask> scannerTasks, DeploymentOperations deploymentOperations,
-                                     boolean oneOffScan, ScanResult scanResult) throws InterruptedException {
+                                     boolean oneOffScan, int parallelism, ScanResult scanResult) throws InterruptedException {
         // Process the tasks
         if (scannerTasks.size() > 0) {
             List<ModelNode> updates = new ArrayList<ModelNode>(scannerTasks.size());
@@ -647,75 +678,103 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
                 updates.add(update);
             }
 
+            List<DeploymentBatch> batches = createDeploymentBatches(scannerTasks, updates, parallelism);
             boolean first = true;
-            while (!updates.isEmpty() && (first || !oneOffScan)) {
+            while (!batches.isEmpty() && (first || !oneOffScan)) {
                 first = false;
-                final ModelNode results;
-                try {
-                    final Future<ModelNode> futureResults = deploymentOperations.deploy(getCompositeUpdate(updates), scheduledExecutor);
+                // Submit every batch before waiting on any of them
+                final List<DeploymentBatch> submitted = new ArrayList<DeploymentBatch>(batches.size());
+                for (DeploymentBatch batch : batches) {
+                    if (batch.submit(deploymentOperations)) {
+                        submitted.add(batch);
+                    }
+                }
+                final List<DeploymentBatch> retryBatches = new ArrayList<DeploymentBatch>();
+                boolean resultsReceived = false;
+                boolean requireUndeploy = false;
+                for (int i = 0; i < submitted.size(); i++) {
+                    final DeploymentBatch batch = submitted.get(i);
+                    final ModelNode results;
                     try {
-                        results = futureResults.get(deploymentTimeout, TimeUnit.SECONDS);
-                    } catch (TimeoutException e) {
-                        futureResults.cancel(true);
-                        final ModelNode failure = new ModelNode();
-                        failure.get(OUTCOME).set(FAILED);
-                        failure.get(FAILURE_DESCRIPTION).set(DeploymentScannerLogger.ROOT_LOGGER.deploymentTimeout(deploymentTimeout));
-                        for (ScannerTask task : scannerTasks) {
-                            task.handleFailureResult(failure);
-                        }
-                        break;
+                        results = batch.awaitResults();
                     } catch (InterruptedException e) {
-                        futureResults.cancel(true);
-                        throw e;
-                    } catch (Exception e) {
-                        ROOT_LOGGER.fileSystemDeploymentFailed(e);
-                        futureResults.cancel(true);
-                        final ModelNode failure = new ModelNode();
-                        failure.get(OUTCOME).set(FAILED);
-                        failure.get(FAILURE_DESCRIPTION).set(e.getMessage());
-                        for (ScannerTask task : scannerTasks) {
-                            task.handleFailureResult(failure);
+                        for (int j = i + 1; j < submitted.size(); j++) {
+                            submitted.get(j).cancel();
                         }
-                        break;
+                        throw e;
                     }
-                } catch(RejectedExecutionException ex) { //The executor was closed and no task could be submitted.
-                    for (ScannerTask task : scannerTasks) {
-                        task.removeInProgressMarker();
+                    if (results == null) {
+                        // The batch has failed as a whole and its tasks were notified
+                        continue;
                     }
-                    break;
-                }
-                final List<ModelNode> toRetry = new ArrayList<ModelNode>();
-                final List<ScannerTask> retryTasks = new ArrayList<ScannerTask>();
-                if (results.hasDefined(RESULT)) {
-                    final List<Property> resultList = results.get(RESULT).asPropertyList();
-                    scanResult.requireUndeploy = false;
-                    for (int i = 0; i < resultList.size(); i++) {
-                        final ModelNode result = resultList.get(i).getValue();
-                        final ScannerTask task = scannerTasks.get(i);
-                        final ModelNode outcome = result.get(OUTCOME);
-                        StringBuilder failureDesc = new StringBuilder();
-                        if (outcome.isDefined() && SUCCESS.equals(outcome.asString()) && handleCompositeResult(result, failureDesc)){
-                            task.handleSuccessResult();
-                        } else if (outcome.isDefined() && CANCELLED.equals(outcome.asString())) {
-                            toRetry.add(updates.get(i));
-                            retryTasks.add(task);
-                        } else {
-                            if (failureDesc.length() > 0) {
-                                result.get(FAILURE_DESCRIPTION).set(failureDesc.toString());
-                                scanResult.requireUndeploy = true;
+                    final List<ModelNode> toRetry = new ArrayList<ModelNode>();
+                    final List<ScannerTask> retryTasks = new ArrayList<ScannerTask>();
+                    if (results.hasDefined(RESULT)) {
+                        final List<Property> resultList = results.get(RESULT).asPropertyList();
+                        resultsReceived = true;
+                        for (int k = 0; k < resultList.size(); k++) {
+                            final ModelNode result = resultList.get(k).getValue();
+                            final ScannerTask task = batch.tasks.get(k);
+                            final ModelNode outcome = result.get(OUTCOME);
+                            StringBuilder failureDesc = new StringBuilder();
+                            if (outcome.isDefined() && SUCCESS.equals(outcome.asString()) && handleCompositeResult(result, failureDesc)){
+                                task.handleSuccessResult();
+                            } else if (outcome.isDefined() && CANCELLED.equals(outcome.asString())) {
+                                toRetry.add(batch.updates.get(k));
+                                retryTasks.add(task);
+                            } else {
+                                if (failureDesc.length() > 0) {
+                                    result.get(FAILURE_DESCRIPTION).set(failureDesc.toString());
+                                    requireUndeploy = true;
+                                }
+                                task.handleFailureResult(result);
                             }
-                            task.handleFailureResult(result);
                         }
-                    }
-                    updates = toRetry;
-                    scannerTasks = retryTasks;
-                } else {
-                    for (ScannerTask current : scannerTasks) {
-                        current.handleFailureResult(results);
+                        if (!retryTasks.isEmpty()) {
+                            retryBatches.add(new DeploymentBatch(retryTasks, toRetry));
+                        }
+                    } else {
+                        for (ScannerTask current : batch.tasks) {
+                            current.handleFailureResult(results);
+                        }
                     }
                 }
+                if (resultsReceived) {
+                    scanResult.requireUndeploy = requireUndeploy;
+                }
+                batches = retryBatches;
+            }
+        }
+    }
+
+    /**
+     * Splits the scanner tasks into at most {@code parallelism} batches, each of which is executed as
+     * a separate composite operation. Deployments referring to each other are kept in the same batch,
+     * see {@link DeploymentGroups}, and each batch keeps the relative order in which its tasks were found.
+     */
+    private List<DeploymentBatch> createDeploymentBatches(List<ScannerTask> scannerTasks, List<ModelNode> updates, int parallelism) {
+        final List<DeploymentBatch> batches = new ArrayList<DeploymentBatch>();
+        if (parallelism <= 1 || scannerTasks.size() <= 1) {
+            batches.add(new DeploymentBatch(scannerTasks, updates));
+            return batches;
+        }
+        final List<String> names = new ArrayList<String>(scannerTasks.size());
+        final List<File> contents = new ArrayList<File>(scannerTasks.size());
+        for (ScannerTask task : scannerTasks) {
+            names.add(task.deploymentName);
+            contents.add(task instanceof ContentAddingTask ? ((ContentAddingTask) task).deploymentFile : null);
+        }
+        for (List<Integer> indexes : DeploymentGroups.createBatches(names, contents, parallelism)) {
+            final DeploymentBatch batch = new DeploymentBatch(new ArrayList<ScannerTask>(indexes.size()), new ArrayList<ModelNode>(indexes.size()));
+            for (int index : indexes) {
+                batch.tasks.add(scannerTasks.get(index));
+                batch.updates.add(updates.get(index));
             }
+            batches.add(batch);
         }
+        ROOT_LOGGER.debugf("Deployment scan of [%s] split %d update actions into %d concurrent operations",
+                deploymentDir, scannerTasks.size(), batches.size());
+        return batches;
     }
 
     private class ManualScanCallable implements Runnable {
@@ -728,7 +787,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
             if (acquireScanLock()) {
                 try {
                     DeploymentScannerLogger.ROOT_LOGGER.debug("Manual scan launched");
-                    scan(true, operations);
+                    scan(true, operations, MAX_CONCURRENT_DEPLOYMENTS);
                 } catch (Exception e) {
                     ROOT_LOGGER.scanException(e, deploymentDir.getAbsolutePath());
                 } finally {
@@ -865,6 +924,19 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
                         }
 
                         DeploymentMarker marker = deployed.get(fileName);
+                        if (marker != null && marker.lastModified != timestamp && marker.files != null
+                                && incrementalExplodedRedeploy && child.isDirectory()
+                                && isRegisteredDeployment(scanContext, fileName)) {
+                            final Map<String, Long> files = getExplodedFiles(child);
+                            final Set<String> changes = getChangedFiles(marker.files, files);
+                            if (!changes.isEmpty() && isStaticResourceChange(fileName, changes)) {
+                                ROOT_LOGGER.staticResourcesChanged(fileName, changes.size());
+                                final File deployedMarker = new File(directory, fileName + DEPLOYED);
+                                deployedMarker.setLastModified(timestamp);
+                                deployed.put(fileName, new DeploymentMarker(timestamp, false, directory, files));
+                                continue;
+                            }
+                        }
                         if (marker == null || marker.lastModified != timestamp) {
                             try {
                                 if (isZipComplete(child)) {
@@ -1060,6 +1132,75 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         }
     }
 
+    /**
+     * Gets the last modification time of each file of exploded content, by path relative to the content root.
+     */
+    private static Map<String, Long> getExplodedFiles(File deploymentDir) {
+        final Map<String, Long> files = new HashMap<String, Long>();
+        getExplodedFiles(deploymentDir, "", files);
+        return files;
+    }
+
+    private static void getExplodedFiles(File dir, String prefix, Map<String, Long> files) {
+        for (File child : listDirectoryChildren(dir)) {
+            final String path = prefix + child.getName();
+            if (child.isDirectory()) {
+                getExplodedFiles(child, path + '/', files);
+            } else {
+                files.put(path, child.lastModified());
+            }
+        }
+    }
+
+    static Set<String> getChangedFiles(Map<String, Long> previous, Map<String, Long> current) {
+        final Set<String> changes = new HashSet<String>();
+        for (Map.Entry<String, Long> entry : current.entrySet()) {
+            if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+                changes.add(entry.getKey());
+            }
+        }
+        for (String path : previous.keySet()) {
+            if (!current.containsKey(path)) {
+                changes.add(path);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Whether all the changed files of exploded content are static web resources, i.e. files of a web archive that
+     * are outside its WEB-INF and META-INF directories and are not themselves classes, archives, JSPs or tag files.
+     * Such files are served from the content in place, so changing them does not require a redeploy. JSPs are
+     * compiled, and are not necessarily recompiled when they change, so a changed JSP still requires a redeploy.
+     */
+    static boolean isStaticResourceChange(String deploymentName, Set<String> changes) {
+        for (String change : changes) {
+            final String[] segments = (deploymentName + '/' + change).split("/");
+            // Find the innermost module containing the file
+            int moduleIndex = 0;
+            for (int i = 1; i < segments.length - 1; i++) {
+                if (ARCHIVE_PATTERN.matcher(segments[i]).matches()) {
+                    moduleIndex = i;
+                }
+            }
+            if (!segments[moduleIndex].toLowerCase(Locale.ENGLISH).endsWith(".war")) {
+                return false;
+            }
+            if (moduleIndex + 1 < segments.length - 1) {
+                final String topLevelDir = segments[moduleIndex + 1];
+                if ("WEB-INF".equalsIgnoreCase(topLevelDir) || "META-INF".equalsIgnoreCase(topLevelDir)) {
+                    return false;
+                }
+            }
+            final String name = segments[segments.length - 1];
+            if (name.toLowerCase(Locale.ENGLISH).endsWith(".class") || ARCHIVE_PATTERN.matcher(name).matches()
+                    || COMPILED_WEB_RESOURCE_PATTERN.matcher(name).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private boolean isEEArchive(String fileName) {
         return ARCHIVE_PATTERN.matcher(fileName).matches();
     }
@@ -1351,6 +1492,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         private final boolean archive;
         protected final File deploymentFile;
         protected final long doDeployTimestamp;
+        private final Map<String, Long> files;
 
         protected ContentAddingTask(final String path, final boolean archive, final String deploymentName,
                                     final File deploymentFile, long markerTimestamp) {
@@ -1359,6 +1501,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
             this.archive = archive;
             this.deploymentFile = deploymentFile;
             this.doDeployTimestamp = markerTimestamp;
+            this.files = !archive && incrementalExplodedRedeploy && deploymentFile.isDirectory() ? getExplodedFiles(deploymentFile) : null;
         }
 
         protected ModelNode createContent() {
@@ -1400,7 +1543,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
             if (deployed.containsKey(deploymentName)) {
                 deployed.remove(deploymentName);
             }
-            deployed.put(deploymentName, new DeploymentMarker(doDeployTimestamp, archive, parentFolder));
+            deployed.put(deploymentName, new DeploymentMarker(doDeployTimestamp, archive, parentFolder, files));
 
             // Remove the in-progress marker - save this until the deployment is really complete.
             removeInProgressMarker();
@@ -1548,15 +1691,91 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         }
     }
 
+    /**
+     * A group of scanner tasks whose updates are executed together as a single composite operation.
+     */
+    private class DeploymentBatch {
+        private final List<ScannerTask> tasks;
+        private final List<ModelNode> updates;
+        private Future<ModelNode> futureResults;
+
+        private DeploymentBatch(final List<ScannerTask> tasks, final List<ModelNode> updates) {
+            this.tasks = tasks;
+            this.updates = updates;
+        }
+
+        /**
+         * Submits the composite operation for this batch.
+         *
+         * @return {@code true} if the operation was submitted; {@code false} if the executor was closed
+         */
+        private boolean submit(final DeploymentOperations deploymentOperations) {
+            try {
+                futureResults = deploymentOperations.deploy(getCompositeUpdate(updates), scheduledExecutor);
+                return true;
+            } catch(RejectedExecutionException ex) { //The executor was closed and no task could be submitted.
+                for (ScannerTask task : tasks) {
+                    task.removeInProgressMarker();
+                }
+                return false;
+            }
+        }
+
+        /**
+         * Waits for the result of the composite operation. If the operation times out or fails without
+         * producing a result, every task in the batch is notified of the failure.
+         *
+         * @return the operation result, or {@code null} if the tasks have already been notified of a failure
+         */
+        private ModelNode awaitResults() throws InterruptedException {
+            try {
+                return futureResults.get(deploymentTimeout, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                futureResults.cancel(true);
+                final ModelNode failure = new ModelNode();
+                failure.get(OUTCOME).set(FAILED);
+                failure.get(FAILURE_DESCRIPTION).set(DeploymentScannerLogger.ROOT_LOGGER.deploymentTimeout(deploymentTimeout));
+                for (ScannerTask task : tasks) {
+                    task.handleFailureResult(failure);
+                }
+                return null;
+            } catch (InterruptedException e) {
+                futureResults.cancel(true);
+                throw e;
+            } catch (Exception e) {
+                ROOT_LOGGER.fileSystemDeploymentFailed(e);
+                futureResults.cancel(true);
+                final ModelNode failure = new ModelNode();
+                failure.get(OUTCOME).set(FAILED);
+                failure.get(FAILURE_DESCRIPTION).set(e.getMessage());
+                for (ScannerTask task : tasks) {
+                    task.handleFailureResult(failure);
+                }
+                return null;
+            }
+        }
+
+        private void cancel() {
+            futureResults.cancel(true);
+        }
+    }
+
     private class DeploymentMarker {
         private final long lastModified;
         private final boolean archive;
         private final File parentFolder;
+        /** The files of exploded content when it was deployed, if incremental redeploy is enabled */
+        private final Map<String, Long> files;
 
         private DeploymentMarker(final long lastModified, boolean archive, File parentFolder) {
+            this(lastModified, archive, parentFolder, null);
+        }
+
+        private DeploymentMarker(final long lastModified, boolean archive, File parentFolder, Map<String, Long> files) {
             this.lastModified = lastModified;
             this.archive = archive;
             this.parentFolder = parentFolder;
+            this.files = files;
         }
     }
 
@@ -132,6 +132,14 @@ public interface DeploymentScanner {
      */
     void setDeploymentTimeout(long timeout);
 
+    /**
+     * Sets whether a change to auto-deployed exploded content that only touches static web resources is picked up
+     * without redeploying the content. Exploded content is used in place, so such changes are already visible.
+     *
+     * @param incremental {@code true} if only changes that need it should trigger a redeploy
+     */
+    void setIncrementalExplodedRedeploy(boolean incremental);
+
     /**
      * Sets whether a runtime failure of a deployment causes a rollback of the deployment as well as all other (maybe
      * unrelated) deployments as part of the scan operation.
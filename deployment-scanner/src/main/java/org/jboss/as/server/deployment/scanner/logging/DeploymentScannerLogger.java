@@ -407,4 +407,14 @@ public interface DeploymentScannerLogger extends BasicLogger {
      */
     @Message(id = 36, value = "Deployment model operation failed. %s")
     RuntimeException deployModelOperationFailed(String msg);
+
+    /**
+     * Logs an informational message indicating changes to exploded content were picked up without a redeploy.
+     *
+     * @param deploymentName the name of the deployment.
+     * @param changes the number of changed files.
+     */
+    @LogMessage(level = INFO)
+    @Message(id = 37, value = "Not redeploying %s as its %d changed files are all static resources, which are used in place")
+    void staticResourcesChanged(String deploymentName, int changes);
 }
@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the grouping of the deployments of a scan by {@link DeploymentGroups}.
+ */
+public class DeploymentGroupsTestCase {
+
+    private static AutoDeployTestSupport testSupport;
+
+    @BeforeClass
+    public static void createTestSupport() throws Exception {
+        testSupport = new AutoDeployTestSupport(DeploymentGroupsTestCase.class.getSimpleName());
+    }
+
+    @AfterClass
+    public static void cleanup() throws Exception {
+        if (testSupport != null) {
+            testSupport.cleanupFiles();
+        }
+    }
+
+    @Test
+    public void testGroups() throws Exception {
+        final File dir = testSupport.getTempDir();
+        final List<String> names = Arrays.asList("web.war", "lib.jar", "api.jar", "impl.jar", "standalone.war",
+                "app.ear", "undeployed.war", "client.war", "other.war");
+        final List<File> contents = Arrays.asList(
+                exploded(dir, "web.war", "META-INF/MANIFEST.MF", manifest("Class-Path: lib/lib.jar")),
+                archive(dir, "lib.jar", null),
+                exploded(dir, "api.jar", null, null),
+                archive(dir, "impl.jar", manifest("Dependencies: org.jboss.logging, deployment.api.jar export")),
+                exploded(dir, "standalone.war", null, null),
+                new File(dir, "app.ear"),
+                null,
+                exploded(dir, "client.war", "WEB-INF/jboss-deployment-structure.xml",
+                        "<jboss-deployment-structure><deployment><dependencies>"
+                                + "<module name=\"deployment.other.war\"/></dependencies></deployment></jboss-deployment-structure>"),
+                exploded(dir, "other.war", null, null));
+
+        final int[] groups = DeploymentGroups.group(names, contents);
+        // Class-Path
+        assertEquals(groups[0], groups[1]);
+        // Dependencies
+        assertEquals(groups[2], groups[3]);
+        // jboss-deployment-structure.xml
+        assertEquals(groups[7], groups[8]);
+        // EE archives and tasks without content are shared
+        assertEquals(groups[5], groups[6]);
+        assertEquals(5, distinct(groups));
+        assertTrue(groups[0] != groups[2]);
+        assertTrue(groups[4] != groups[5]);
+
+        final List<List<Integer>> batches = DeploymentGroups.createBatches(names, contents, 3);
+        assertEquals(3, batches.size());
+        int count = 0;
+        for (List<Integer> batch : batches) {
+            count += batch.size();
+            for (int i = 1; i < batch.size(); i++) {
+                // the order of the scan is kept
+                assertTrue(batch.get(i - 1) < batch.get(i));
+            }
+            for (int index : batch) {
+                // a group is never split across batches
+                for (int i = 0; i < groups.length; i++) {
+                    if (groups[i] == groups[index]) {
+                        assertTrue(batch.contains(i));
+                    }
+                }
+            }
+        }
+        assertEquals(names.size(), count);
+
+        assertEquals(Collections.singletonList(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8)),
+                DeploymentGroups.createBatches(names, contents, 1));
+        assertEquals(5, DeploymentGroups.createBatches(names, contents, 20).size());
+    }
+
+    @Test
+    public void testNotInspected() throws Exception {
+        final File dir = testSupport.getTempDir();
+        assertNull(DeploymentGroups.getReferences("app.ear", exploded(dir, "app.ear", null, null)));
+        assertNull(DeploymentGroups.getReferences("test-ds.xml", new File(dir, "test-ds.xml")));
+        // not readable as a zip
+        final File broken = new File(dir, "broken.jar");
+        write(broken, "not a zip");
+        assertNull(DeploymentGroups.getReferences("broken.jar", broken));
+    }
+
+    private static int distinct(final int[] groups) {
+        int count = 0;
+        for (int i = 0; i < groups.length; i++) {
+            if (groups[i] == i) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String manifest(final String header) {
+        return "Manifest-Version: 1.0\n" + header + "\n";
+    }
+
+    private static File exploded(final File dir, final String name, final String path, final String content) throws IOException {
+        final File deployment = new File(dir, name);
+        deployment.mkdirs();
+        if (path != null) {
+            final File file = new File(deployment, path);
+            file.getParentFile().mkdirs();
+            write(file, content);
+        }
+        return deployment;
+    }
+
+    private static File archive(final File dir, final String name, final String manifest) {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, name);
+        archive.addAsResource(new StringAsset("test"), "test.properties");
+        if (manifest != null) {
+            archive.setManifest(new StringAsset(manifest));
+        }
+        final File file = new File(dir, name);
+        archive.as(ZipExporter.class).exportTo(file, true);
+        return file;
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,9 +1,19 @@
 package org.jboss.as.server.deployment.scanner;
 
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+
 import java.io.IOException;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
 
 import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
+import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
 
 /**
  * @author Tomaz Cerar
@@ -12,6 +22,17 @@ import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
 
 public class DeploymentScannerParsingTestCase extends AbstractSubsystemBaseTest {
     private static final String SUBSYSTEM_XML =
+            "<subsystem xmlns=\"urn:jboss:domain:deployment-scanner:2.1\">\n" +
+            "    <deployment-scanner name=\"myScanner\" path=\"deployments_${custom.system.property:test}\" " +
+                   "relative-to=\"jboss.server.base.dir\" scan-enabled=\"false\" scan-interval=\"5000\" " +
+                   "auto-deploy-xml=\"true\" deployment-timeout=\"60\" " +
+                    "runtime-failure-causes-rollback=\"${runtime-failure-causes-rollback:false}\"/>\n" +
+            "    <deployment-scanner path=\"deployments\"  relative-to=\"jboss.server.base.dir\" " +
+                   "scan-enabled=\"false\" scan-interval=\"5000\" " +
+                   "auto-deploy-xml=\"true\" deployment-timeout=\"30\" incremental-exploded-redeploy=\"true\"/>\n" +
+            "</subsystem>";
+
+    private static final String SUBSYSTEM_XML_2_0 =
             "<subsystem xmlns=\"urn:jboss:domain:deployment-scanner:2.0\">\n" +
             "    <deployment-scanner name=\"myScanner\" path=\"deployments_${custom.system.property:test}\" " +
                    "relative-to=\"jboss.server.base.dir\" scan-enabled=\"false\" scan-interval=\"5000\" " +
@@ -38,5 +59,24 @@ public class DeploymentScannerParsingTestCase extends AbstractSubsystemBaseTest
     protected String getSubsystemXml() throws IOException {
         return SUBSYSTEM_XML;
     }
+
+    @Test
+    public void testParseVersion20() throws Exception {
+        final List<ModelNode> operations = parse(SUBSYSTEM_XML_2_0);
+        Assert.assertEquals(3, operations.size());
+        for (ModelNode operation : operations) {
+            Assert.assertEquals(ADD, operation.get(OP).asString());
+            Assert.assertFalse(operation.has(CommonAttributes.INCREMENTAL_EXPLODED_REDEPLOY));
+        }
+        final KernelServices services = createKernelServicesBuilder(createAdditionalInitialization())
+                .setBootOperations(operations)
+                .build();
+        Assert.assertTrue(services.isSuccessfulBoot());
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testIncrementalExplodedRedeployNotInVersion20() throws Exception {
+        parse(SUBSYSTEM_XML_2_0.replace("deployment-timeout=\"30\"", "deployment-timeout=\"30\" incremental-exploded-redeploy=\"true\""));
+    }
 }
 
@@ -57,6 +57,7 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -269,6 +270,36 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertTrue(deployed2.exists());
     }
 
+    @Test
+    public void testStaticResourceChanges() {
+        Map<String, Long> previous = new HashMap<String, Long>();
+        previous.put("index.html", 1L);
+        previous.put("css/site.css", 1L);
+        previous.put("WEB-INF/web.xml", 1L);
+        Map<String, Long> current = new HashMap<String, Long>(previous);
+        current.put("index.html", 2L);
+        current.put("img/logo.png", 2L);
+        current.remove("css/site.css");
+        Set<String> changes = FileSystemDeploymentService.getChangedFiles(previous, current);
+        assertEquals(3, changes.size());
+        assertTrue(FileSystemDeploymentService.isStaticResourceChange("foo.war", changes));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.jar", changes));
+        assertTrue(FileSystemDeploymentService.isStaticResourceChange("foo.ear", Collections.singleton("web.war/index.html")));
+
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.war", Collections.singleton("WEB-INF/web.xml")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.war", Collections.singleton("WEB-INF/classes/Foo.class")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.war", Collections.singleton("meta-inf/MANIFEST.MF")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.war", Collections.singleton("lib.jar")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.war", Collections.singleton("index.jsp")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.war", Collections.singleton("pages/form.JSPX")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.war", Collections.singleton("pages/header.jspf")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.war", Collections.singleton("tags/list.tag")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.ear", Collections.singleton("web.war/index.jsp")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.ear", Collections.singleton("index.html")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.ear", Collections.singleton("web.war/WEB-INF/web.xml")));
+        assertFalse(FileSystemDeploymentService.isStaticResourceChange("foo.ear", Collections.singleton("ejb.jar/foo.properties")));
+    }
+
     @Test
     public void testBasicFailure() throws Exception {
         File war = createFile("foo.war");
@@ -21,17 +21,40 @@
 */
 package org.jboss.as.domain.http.server;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_CONTROL;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_MECHANISM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEFAULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXECUTE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UPLOAD_DEPLOYMENT_STREAM;
 import static org.jboss.as.domain.http.server.logging.HttpServerLogger.ROOT_LOGGER;
 
 import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import io.undertow.security.api.SecurityContext;
+import io.undertow.security.idm.Account;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.form.FormData;
@@ -44,63 +67,305 @@ import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
 import org.xnio.IoUtils;
+import org.xnio.XnioIoThread;
 
 /**
+ * Handles deployment content uploads. Besides multipart form uploads, the request body itself can be the content, in
+ * which case it is streamed straight into the content repository without being staged first. Such an upload can be
+ * split over several requests, each carrying a {@code Content-Range} and an {@value #UPLOAD_ID} header; a request with
+ * a {@code Content-Range} of {@code bytes *}{@code /total} and no body queries how much of an upload has been
+ * received, so that an interrupted upload can be resumed.
+ * <p>
+ * An upload split over several requests is staged in the temp directory of the process and belongs to the identity
+ * that started it. It is only started if that identity may execute {@code upload-deployment-stream}, and is dropped
+ * when no bytes have been received for an hour. The number of such uploads in progress and their length are limited
+ * by the {@value #MAX_PARTIAL_UPLOADS} and {@value #MAX_PARTIAL_UPLOAD_SIZE} system properties.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
 class DomainApiUploadHandler implements HttpHandler {
 
+    static final String UPLOAD_ID = "X-Management-Upload-Id";
+    static final String MAX_PARTIAL_UPLOADS = "jboss.management.http.max-partial-uploads";
+    static final String MAX_PARTIAL_UPLOAD_SIZE = "jboss.management.http.max-partial-upload-size";
+
+    private static final String BYTES_UNIT = "bytes ";
+    private static final String STAGING_DIR = "management-uploads";
+    private static final String PART_SUFFIX = ".part";
+    private static final long PARTIAL_UPLOAD_TIMEOUT = TimeUnit.HOURS.toMillis(1);
+    private static final int MAX_UPLOADS;
+    private static final long MAX_UPLOAD_SIZE;
+
+    private static final int DEFAULT_MAX_UPLOADS = 10;
+    private static final long DEFAULT_MAX_UPLOAD_SIZE = 2L << 30;
+
+    static {
+        int maxUploads = DEFAULT_MAX_UPLOADS;
+        try {
+            maxUploads = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(MAX_PARTIAL_UPLOADS, String.valueOf(DEFAULT_MAX_UPLOADS)));
+        } catch (NumberFormatException e) {
+            // use the default
+        } finally {
+            MAX_UPLOADS = maxUploads > 0 ? maxUploads : DEFAULT_MAX_UPLOADS;
+        }
+        long maxUploadSize = DEFAULT_MAX_UPLOAD_SIZE;
+        try {
+            maxUploadSize = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged(MAX_PARTIAL_UPLOAD_SIZE, String.valueOf(DEFAULT_MAX_UPLOAD_SIZE)));
+        } catch (NumberFormatException e) {
+            // use the default
+        } finally {
+            MAX_UPLOAD_SIZE = maxUploadSize > 0 ? maxUploadSize : DEFAULT_MAX_UPLOAD_SIZE;
+        }
+    }
+
     private final ModelController modelController;
     private final FormParserFactory formParserFactory;
+    private final Path stagingDir;
+    /** The uploads in progress, keyed by the name of the identity that started them and their upload id */
+    private final Map<String, PartialUpload> partialUploads = new ConcurrentHashMap<String, PartialUpload>();
 
-    public DomainApiUploadHandler(ModelController modelController) {
+    public DomainApiUploadHandler(ModelController modelController, File tempDir) {
         this.modelController = modelController;
         this.formParserFactory = FormParserFactory.builder().build();
+        this.stagingDir = new File(tempDir, STAGING_DIR).toPath();
+        deleteStagedUploads(stagingDir);
     }
 
     @Override
     public void handleRequest(HttpServerExchange exchange) throws Exception {
         final FormDataParser parser = formParserFactory.createParser(exchange);
+        if (parser == null) {
+            // Not a form, the body is the content
+            final String contentRange = exchange.getRequestHeaders().getFirst(Headers.CONTENT_RANGE);
+            if (contentRange == null) {
+                uploadContent(exchange, exchange.getInputStream());
+            } else {
+                handleRangedUpload(exchange, contentRange);
+            }
+            return;
+        }
         FormData data = parser.parseBlocking();
         for (String fieldName : data) {
             //Get all the files
             FormValue value = data.getFirst(fieldName);
             if (value.isFile()) {
-                ModelNode response = null;
                 InputStream in = new BufferedInputStream(new FileInputStream(value.getPath().toFile()));
                 try {
-                    final ModelNode dmr = new ModelNode();
-                    dmr.get("operation").set("upload-deployment-stream");
-                    dmr.get("address").setEmptyList();
-                    dmr.get("input-stream-index").set(0);
-
-                    OperationBuilder operation = new OperationBuilder(dmr);
-                    operation.addInputStream(in);
-                    dmr.get(OPERATION_HEADERS, ACCESS_MECHANISM).set(AccessMechanism.HTTP.toString());
-                    response = modelController.execute(dmr, OperationMessageHandler.logging, ModelController.OperationTransactionControl.COMMIT, operation.build());
-                    if (!response.get(OUTCOME).asString().equals(SUCCESS)){
-                        Common.sendError(exchange, false, response);
-                        return;
-                    }
-                } catch (Throwable t) {
-                    // TODO Consider draining input stream
-                    ROOT_LOGGER.uploadError(t);
-                    Common.sendError(exchange, false, t.getLocalizedMessage());
-                    return;
+                    uploadContent(exchange, in);
                 } finally {
                     IoUtils.safeClose(in);
                 }
-
-                // TODO Determine what format the response should be in for a deployment upload request.
-                writeResponse(exchange, response, Common.TEXT_HTML);
                 return; //Ignore later files
             }
         }
         Common.sendError(exchange, false, "No file found"); //TODO i18n
     }
 
+    private void uploadContent(final HttpServerExchange exchange, final InputStream in) {
+        ModelNode response = null;
+        try {
+            final ModelNode dmr = new ModelNode();
+            dmr.get("operation").set("upload-deployment-stream");
+            dmr.get("address").setEmptyList();
+            dmr.get("input-stream-index").set(0);
+
+            OperationBuilder operation = new OperationBuilder(dmr);
+            operation.addInputStream(in);
+            dmr.get(OPERATION_HEADERS, ACCESS_MECHANISM).set(AccessMechanism.HTTP.toString());
+            response = modelController.execute(dmr, OperationMessageHandler.logging, ModelController.OperationTransactionControl.COMMIT, operation.build());
+            if (!response.get(OUTCOME).asString().equals(SUCCESS)){
+                Common.sendError(exchange, false, response);
+                return;
+            }
+        } catch (Throwable t) {
+            // TODO Consider draining input stream
+            ROOT_LOGGER.uploadError(t);
+            Common.sendError(exchange, false, t.getLocalizedMessage());
+            return;
+        }
+
+        // TODO Determine what format the response should be in for a deployment upload request.
+        writeResponse(exchange, response, Common.TEXT_HTML);
+    }
+
+    private void handleRangedUpload(final HttpServerExchange exchange, final String contentRange) throws IOException {
+        final long[] range = parseContentRange(contentRange);
+        final String uploadId = exchange.getRequestHeaders().getFirst(UPLOAD_ID);
+        if (range == null || uploadId == null) {
+            Common.sendError(exchange, false, new ModelNode(ROOT_LOGGER.invalidContentRange(contentRange, UPLOAD_ID)), 400);
+            return;
+        }
+
+        final long total = range[2];
+        final String key = getIdentity(exchange) + '/' + uploadId;
+        PartialUpload upload = partialUploads.get(key);
+        if (upload == null) {
+            if (range[0] < 0) {
+                // Nothing has been received for this upload
+                sendReceivedRange(exchange, 0, 202);
+                return;
+            }
+            if (total > MAX_UPLOAD_SIZE) {
+                Common.sendError(exchange, false, new ModelNode(ROOT_LOGGER.partialUploadTooLarge(uploadId, total, MAX_UPLOAD_SIZE)), 413);
+                return;
+            }
+            // Check the caller may upload content before anything is staged
+            if (!isUploadAuthorized()) {
+                Common.sendError(exchange, false, new ModelNode(ROOT_LOGGER.uploadNotAuthorized()), 403);
+                return;
+            }
+            upload = startUpload(exchange, key, total);
+            if (upload == null) {
+                Common.sendError(exchange, false, new ModelNode(ROOT_LOGGER.tooManyPartialUploads(MAX_UPLOADS)), 503);
+                return;
+            }
+        }
+        if (upload.total != total) {
+            Common.sendError(exchange, false, new ModelNode(ROOT_LOGGER.uploadLengthMismatch(uploadId, upload.total, total)), 400);
+            return;
+        }
+
+        synchronized (upload) {
+            if (upload.isDeleted()) {
+                // Completed or expired concurrently; let the client start over
+                sendReceivedRange(exchange, 0, 416);
+                return;
+            }
+            if (range[0] >= 0) {
+                if (range[0] != upload.length) {
+                    sendReceivedRange(exchange, upload.length, 416);
+                    return;
+                }
+                upload.append(exchange.getInputStream(), range[1] - range[0] + 1);
+            }
+            if (upload.length < total) {
+                sendReceivedRange(exchange, upload.length, 202);
+                return;
+            }
+            partialUploads.remove(key, upload);
+        }
+
+        try {
+            InputStream in = new BufferedInputStream(Files.newInputStream(upload.file));
+            try {
+                uploadContent(exchange, in);
+            } finally {
+                IoUtils.safeClose(in);
+            }
+        } finally {
+            upload.delete();
+        }
+    }
+
+    /**
+     * Registers a new upload under the given key and starts its expiry timer.
+     *
+     * @return the upload, or {@code null} if the maximum number of uploads are in progress
+     */
+    private PartialUpload startUpload(final HttpServerExchange exchange, final String key, final long total) throws IOException {
+        synchronized (partialUploads) {
+            PartialUpload upload = partialUploads.get(key);
+            if (upload == null) {
+                if (partialUploads.size() >= MAX_UPLOADS) {
+                    return null;
+                }
+                upload = new PartialUpload(stagingDir, total);
+                partialUploads.put(key, upload);
+                new ExpiryTask(key, upload, exchange.getIoThread(), exchange.getConnection().getWorker()).schedule(PARTIAL_UPLOAD_TIMEOUT);
+            }
+            return upload;
+        }
+    }
+
+    /**
+     * Checks whether the caller may execute {@code upload-deployment-stream}, using the same authorization decision
+     * that is applied when the completed upload is handed to the content repository.
+     */
+    private boolean isUploadAuthorized() {
+        final ModelNode dmr = new ModelNode();
+        dmr.get(OP).set(READ_RESOURCE_DESCRIPTION_OPERATION);
+        dmr.get(OP_ADDR).setEmptyList();
+        dmr.get(OPERATIONS).set(true);
+        dmr.get(ACCESS_CONTROL).set("trim-descriptions");
+        dmr.get(OPERATION_HEADERS, ACCESS_MECHANISM).set(AccessMechanism.HTTP.toString());
+        final ModelNode response = modelController.execute(dmr, OperationMessageHandler.logging, ModelController.OperationTransactionControl.COMMIT, OperationBuilder.create(dmr).build());
+        if (!SUCCESS.equals(response.get(OUTCOME).asString())) {
+            return false;
+        }
+        final ModelNode access = response.get(RESULT, ACCESS_CONTROL, DEFAULT, OPERATIONS, UPLOAD_DEPLOYMENT_STREAM, EXECUTE);
+        return access.isDefined() && access.asBoolean();
+    }
+
+    private static String getIdentity(final HttpServerExchange exchange) {
+        final SecurityContext securityContext = exchange.getSecurityContext();
+        final Account account = securityContext == null ? null : securityContext.getAuthenticatedAccount();
+        return account == null ? "" : account.getPrincipal().getName();
+    }
+
+    /**
+     * Deletes the uploads left in the staging directory when the process last stopped.
+     */
+    private static void deleteStagedUploads(final Path stagingDir) {
+        if (!Files.isDirectory(stagingDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> staged = Files.newDirectoryStream(stagingDir, "*" + PART_SUFFIX)) {
+            for (Path file : staged) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Failed to delete the uploads staged in %s", stagingDir);
+        }
+    }
+
+    private static void sendReceivedRange(final HttpServerExchange exchange, final long received, final int responseCode) {
+        if (received > 0) {
+            exchange.getResponseHeaders().put(Headers.RANGE, "bytes=0-" + (received - 1));
+        }
+        exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, "0");
+        exchange.setResponseCode(responseCode);
+        exchange.endExchange();
+    }
+
+    /**
+     * Parses a {@code Content-Range} request header.
+     *
+     * @param contentRange the header value
+     * @return the first and last byte positions and the total length, with a first and last position of {@code -1}
+     *         for an unsatisfied range, or {@code null} if the header is invalid
+     */
+    static long[] parseContentRange(final String contentRange) {
+        if (!contentRange.startsWith(BYTES_UNIT)) {
+            return null;
+        }
+        final String spec = contentRange.substring(BYTES_UNIT.length()).trim();
+        final int slash = spec.indexOf('/');
+        if (slash < 0) {
+            return null;
+        }
+        try {
+            final long total = Long.parseLong(spec.substring(slash + 1));
+            final String positions = spec.substring(0, slash);
+            if ("*".equals(positions)) {
+                return total < 0 ? null : new long[] {-1, -1, total};
+            }
+            final int dash = positions.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            final long first = Long.parseLong(positions.substring(0, dash));
+            final long last = Long.parseLong(positions.substring(dash + 1));
+            if (first < 0 || last < first || last >= total) {
+                return null;
+            }
+            return new long[] {first, last, total};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     static void writeResponse(HttpServerExchange exchange, ModelNode response, String contentType) {
         exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, contentType  + "; charset=" + Common.UTF_8);
         exchange.setResponseCode(200);
@@ -115,4 +380,109 @@ class DomainApiUploadHandler implements HttpHandler {
             IoUtils.safeClose(print);
         }
     }
+
+    /**
+     * Drops an upload that has not received any bytes for {@link #PARTIAL_UPLOAD_TIMEOUT}. The timer fires on an IO
+     * thread, which hands the check to a worker thread as it may have to wait for a request appending to the upload.
+     */
+    private class ExpiryTask implements Runnable {
+        private final String key;
+        private final PartialUpload upload;
+        private final XnioIoThread ioThread;
+        private final Executor worker;
+
+        private ExpiryTask(final String key, final PartialUpload upload, final XnioIoThread ioThread, final Executor worker) {
+            this.key = key;
+            this.upload = upload;
+            this.ioThread = ioThread;
+            this.worker = worker;
+        }
+
+        private void schedule(final long delay) {
+            ioThread.executeAfter(this, delay, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            if (Thread.currentThread() == ioThread) {
+                try {
+                    worker.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down, the staged file is deleted on the next start
+                }
+                return;
+            }
+            if (upload.lastUpdate + PARTIAL_UPLOAD_TIMEOUT > System.currentTimeMillis()) {
+                // Still receiving bytes, check again without waiting for a request that is appending
+                schedule(upload.lastUpdate + PARTIAL_UPLOAD_TIMEOUT - System.currentTimeMillis());
+                return;
+            }
+            synchronized (upload) {
+                if (upload.isDeleted() || partialUploads.get(key) != upload) {
+                    // Completed, the request completing it deletes the staged file
+                    return;
+                }
+                final long remaining = upload.lastUpdate + PARTIAL_UPLOAD_TIMEOUT - System.currentTimeMillis();
+                if (remaining > 0) {
+                    schedule(remaining);
+                    return;
+                }
+                partialUploads.remove(key, upload);
+                upload.delete();
+            }
+        }
+    }
+
+    /**
+     * The bytes received so far of an upload that is split over several requests.
+     */
+    private static class PartialUpload {
+        private final Path file;
+        private final long total;
+        private long length;
+        private volatile long lastUpdate = System.currentTimeMillis();
+        private boolean deleted;
+
+        private PartialUpload(final Path stagingDir, final long total) throws IOException {
+            Files.createDirectories(stagingDir);
+            this.file = Files.createTempFile(stagingDir, "upload", PART_SUFFIX);
+            this.total = total;
+        }
+
+        /**
+         * Appends up to {@code count} bytes of the stream. A body that ends early is kept, so the client can resume
+         * from where it stopped.
+         */
+        private void append(final InputStream in, final long count) throws IOException {
+            final byte[] buffer = new byte[8192];
+            try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.APPEND)) {
+                long remaining = count;
+                while (remaining > 0) {
+                    final int read = in.read(buffer, 0, (int) Math.min(remaining, buffer.length));
+                    if (read < 0) {
+                        break;
+                    }
+                    out.write(buffer, 0, read);
+                    length += read;
+                    remaining -= read;
+                    lastUpdate = System.currentTimeMillis();
+                }
+            } finally {
+                lastUpdate = System.currentTimeMillis();
+            }
+        }
+
+        private boolean isDeleted() {
+            return deleted;
+        }
+
+        private void delete() {
+            deleted = true;
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
 }
@@ -94,4 +94,19 @@ public interface HttpServerLogger extends BasicLogger {
 
     @Message(id = 13, value = "Invalid useStreamIndex value '%d'. The operation response had %d streams attached.")
     String invalidUseStreamAsResponseIndex(int index, int available);
+
+    @Message(id = 14, value = "Invalid Content-Range '%s'. A ranged upload requires a Content-Range of the form 'bytes first-last/total' or 'bytes */total' and a %s header.")
+    String invalidContentRange(String contentRange, String uploadIdHeader);
+
+    @Message(id = 15, value = "Upload %s has a total length of %d bytes, not %d")
+    String uploadLengthMismatch(String uploadId, long expected, long actual);
+
+    @Message(id = 16, value = "Not authorized to upload deployment content")
+    String uploadNotAuthorized();
+
+    @Message(id = 17, value = "Upload %s has a total length of %d bytes, more than the %d bytes allowed for an upload split over several requests")
+    String partialUploadTooLarge(String uploadId, long length, long maxLength);
+
+    @Message(id = 18, value = "%d uploads split over several requests are already in progress, retry once one has completed")
+    String tooManyPartialUploads(int maxUploads);
 }
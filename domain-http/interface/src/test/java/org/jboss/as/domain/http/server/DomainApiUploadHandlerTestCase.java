@@ -0,0 +1,50 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.http.server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DomainApiUploadHandler}.
+ */
+public class DomainApiUploadHandlerTestCase {
+
+    @Test
+    public void testParseContentRange() {
+        assertArrayEquals(new long[] {0, 99, 1000}, DomainApiUploadHandler.parseContentRange("bytes 0-99/1000"));
+        assertArrayEquals(new long[] {900, 999, 1000}, DomainApiUploadHandler.parseContentRange("bytes 900-999/1000"));
+        assertArrayEquals(new long[] {-1, -1, 1000}, DomainApiUploadHandler.parseContentRange("bytes */1000"));
+    }
+
+    @Test
+    public void testParseInvalidContentRange() {
+        assertNull(DomainApiUploadHandler.parseContentRange("items 0-99/1000"));
+        assertNull(DomainApiUploadHandler.parseContentRange("bytes 0-99"));
+        assertNull(DomainApiUploadHandler.parseContentRange("bytes 0-99/*"));
+        assertNull(DomainApiUploadHandler.parseContentRange("bytes 99-0/1000"));
+        assertNull(DomainApiUploadHandler.parseContentRange("bytes 0-1000/1000"));
+        assertNull(DomainApiUploadHandler.parseContentRange("bytes a-b/1000"));
+    }
+}
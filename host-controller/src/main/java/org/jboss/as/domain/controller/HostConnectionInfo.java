@@ -32,8 +32,16 @@ import org.jboss.dmr.ModelNode;
 public interface HostConnectionInfo {
 
     String ADDRESS = "address";
+    String BYTES_RECEIVED = "bytes-received";
+    String BYTES_SENT = "bytes-sent";
     String CONNECTED = "connected";
+    String COUNT = "count";
     String EVENTS = "events";
+    String HISTOGRAM = "histogram";
+    String MAX = "max";
+    String MEAN = "mean";
+    String PING_ROUND_TRIP_TIME = "ping-round-trip-time";
+    String STANDARD_DEVIATION = "standard-deviation";
     String TIMESTAMP = "timestamp";
     String TYPE = "type";
 
@@ -58,6 +66,27 @@ public interface HostConnectionInfo {
      */
     List<Event> getEvents();
 
+    /**
+     * Fill DMR with the round trip times of the pings sent to the host. Nothing is added if the host is not connected.
+     *
+     * @param target the target model
+     */
+    void roundTripTimesToModelNode(final ModelNode target);
+
+    /**
+     * Get the number of bytes sent to the host over the current connection.
+     *
+     * @return the number of bytes, {@code -1} if not available
+     */
+    long getBytesSent();
+
+    /**
+     * Get the number of bytes received from the host over the current connection.
+     *
+     * @return the number of bytes, {@code -1} if not available
+     */
+    long getBytesReceived();
+
     public interface Event {
 
         /**
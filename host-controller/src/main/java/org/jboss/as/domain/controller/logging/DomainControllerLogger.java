@@ -748,4 +748,14 @@ public interface DomainControllerLogger extends BasicLogger {
             "b) Reload the domain controller into admin-only mode, perform the clone, then reload the domain controller " +
             "into normal mode again, and check whether the slaves need reloading.")
     String cloneOperationNotSupportedOnHost(String hostName);
+
+    /**
+     * Logs a warning message indicating a system property does not have a valid value, so its default is used.
+     *
+     * @param value the value of the property.
+     * @param property the name of the property.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 79, value = "Invalid value '%s' for system property %s, the staleness of domain reads will not be bounded")
+    void invalidMaxStaleness(String value, String property);
 }
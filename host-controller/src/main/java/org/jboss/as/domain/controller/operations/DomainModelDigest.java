@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.transform.Transformers;
+import org.jboss.as.host.controller.mgmt.HostControllerRegistrationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+/**
+ * Digest of the domain model as described by the {@code read-master-domain-model} operation. A slave sends the digest
+ * of its local copy of the domain model when it reconnects, and the domain controller only sends the complete model
+ * back if the digest of the model it would send differs.
+ */
+public final class DomainModelDigest {
+
+    private static final Transformers TRANSFORMERS = Transformers.Factory.createLocal();
+    private static final ModelNode OPERATION = new ModelNode();
+
+    static {
+        OPERATION.get(OP).set("describe");
+        OPERATION.get(OP_ADDR).setEmptyList();
+        OPERATION.protect();
+    }
+
+    private DomainModelDigest() {
+    }
+
+    /**
+     * Calculates the digest of a described domain model. The order of the described resources is significant, the
+     * order of the keys of an object is not.
+     *
+     * @param describedResources the result of describing the domain model
+     * @return the hex encoded digest
+     */
+    public static String calculate(final ModelNode describedResources) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (ModelNode resource : describedResources.asList()) {
+            builder.setLength(0);
+            append(resource, builder);
+            digest.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return HashUtil.bytesToHexString(digest.digest());
+    }
+
+    /**
+     * Calculates the digest of the local copy of the domain model of a slave host controller.
+     *
+     * @param operationExecutor the executor for the local model
+     * @return the hex encoded digest, or {@code null} if the local model could not be described
+     */
+    public static String calculateLocal(final HostControllerRegistrationHandler.OperationExecutor operationExecutor) {
+        final ReadDomainModelHandler handler = new ReadDomainModelHandler(null, TRANSFORMERS);
+        final ModelNode result = operationExecutor.executeReadOnly(OPERATION, handler, ModelController.OperationTransactionControl.COMMIT);
+        if (result.hasDefined(FAILURE_DESCRIPTION) || !result.hasDefined(RESULT)) {
+            return null;
+        }
+        return calculate(result.get(RESULT));
+    }
+
+    private static void append(final ModelNode node, final StringBuilder builder) {
+        builder.append(node.getType().name());
+        switch (node.getType()) {
+            case OBJECT: {
+                final Set<String> keys = new TreeSet<String>(node.keys());
+                builder.append('{');
+                for (String key : keys) {
+                    builder.append(key.length()).append(':').append(key);
+                    append(node.get(key), builder);
+                }
+                builder.append('}');
+                break;
+            }
+            case LIST: {
+                builder.append('[');
+                for (ModelNode element : node.asList()) {
+                    append(element, builder);
+                }
+                builder.append(']');
+                break;
+            }
+            case PROPERTY: {
+                final Property property = node.asProperty();
+                builder.append(property.getName().length()).append(':').append(property.getName());
+                append(property.getValue(), builder);
+                break;
+            }
+            case UNDEFINED:
+                break;
+            default: {
+                final String value = node.asString();
+                builder.append(value.length()).append(':').append(value);
+            }
+        }
+    }
+}
@@ -29,13 +29,16 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.transform.Transformers;
+import org.jboss.as.domain.controller.logging.DomainControllerLogger;
+import org.jboss.as.host.controller.RemoteDomainConnectionService;
 import org.jboss.as.host.controller.mgmt.HostInfo;
 import org.jboss.dmr.ModelNode;
 
 /**
  * Step handler responsible for collecting a complete description of the domain model,
  * which is going to be sent back to a remote host-controller. This is called when the
- * remote slave boots up or when it reconnects to the DC
+ * remote slave boots up or when it reconnects to the DC. If the slave provided the digest
+ * of the domain model it already has and the model did not change, only the digest is sent back.
  *
  * @author John Bailey
  * @author Kabir Khan
@@ -71,6 +74,20 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
 
         final OperationStepHandler handler = new ReadDomainModelHandler(ignoredTransformationRegistry, transformers);
         context.addStep(handler, OperationContext.Stage.MODEL);
+        final String slaveDigest = hostInfo == null ? null : hostInfo.getDomainModelDigest();
+        if (slaveDigest != null) {
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    // Spare the slave downloading and diffing a model it already has
+                    if (slaveDigest.equals(DomainModelDigest.calculate(context.getResult()))) {
+                        DomainControllerLogger.ROOT_LOGGER.debugf("Domain model of host %s is up to date", hostInfo.getHostName());
+                        context.getResult().setEmptyObject();
+                        context.getResult().get(RemoteDomainConnectionService.DOMAIN_MODEL_DIGEST).set(slaveDigest);
+                    }
+                }
+            }, OperationContext.Stage.MODEL);
+        }
     }
 
 }
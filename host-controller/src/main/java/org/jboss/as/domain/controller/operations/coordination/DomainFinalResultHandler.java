@@ -88,6 +88,11 @@ class DomainFinalResultHandler implements OperationStepHandler {
             @Override
             public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
                 DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Establishing final response -- result action is %s", resultAction);
+                if (DomainControllerLogger.HOST_CONTROLLER_LOGGER.isDebugEnabled()
+                        && (multiphaseContext.getHostLatencies().getCount() > 0 || multiphaseContext.getServerLatencies().getCount() > 0)) {
+                    DomainControllerLogger.HOST_CONTROLLER_LOGGER.debugf("Prepare latencies for %s -- hosts %s, servers %s",
+                            operation.get(OP).asString(), multiphaseContext.getHostLatencies(), multiphaseContext.getServerLatencies());
+                }
                 // On the way out, fix up the response
                 final boolean isDomain = isDomainOperation(operation);
                 boolean shouldContinue = collectDomainFailure(context, isDomain);
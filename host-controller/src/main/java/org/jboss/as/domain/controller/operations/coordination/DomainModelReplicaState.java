@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import org.jboss.as.domain.controller.LocalHostControllerInfo;
+import org.jboss.as.domain.controller.logging.DomainControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Tracks how current the copy of the domain model held by a slave host controller is, so it can decide whether
+ * to serve domain level reads itself rather than leaving them to the master domain controller.
+ * <p>
+ * While registered with the master the local copy is kept up to date, as the master includes every connected
+ * slave in the execution of domain wide writes. Once the connection is lost the copy ages, and reads are only
+ * served if that happened no longer ago than the configured {@code jboss.as.domain.read.max-staleness}. By default
+ * the staleness is not bounded.
+ */
+public final class DomainModelReplicaState {
+
+    private static final String MAX_STALENESS_PROPERTY = "jboss.as.domain.read.max-staleness";
+    private static final long MAX_STALENESS;
+
+    static {
+        long maxStaleness = -1;
+        final String value = WildFlySecurityManager.getPropertyPrivileged(MAX_STALENESS_PROPERTY, "-1");
+        try {
+            maxStaleness = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            DomainControllerLogger.ROOT_LOGGER.invalidMaxStaleness(value, MAX_STALENESS_PROPERTY);
+        } finally {
+            MAX_STALENESS = maxStaleness >= 0 ? maxStaleness : -1;
+        }
+    }
+
+    private final long maxStaleness;
+    private volatile boolean synchronizedWithMaster;
+    private volatile long lastSynchronized = -1;
+
+    public DomainModelReplicaState() {
+        this(MAX_STALENESS);
+    }
+
+    DomainModelReplicaState(final long maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * Notification that the domain model was synchronized with the master and is kept up to date from now on.
+     */
+    public void synchronizedWithMaster() {
+        lastSynchronized = System.currentTimeMillis();
+        synchronizedWithMaster = true;
+    }
+
+    /**
+     * Notification that the domain model was copied from the master, but is not kept up to date afterwards, as is
+     * the case for a host controller running in admin-only mode.
+     */
+    public void copiedFromMaster() {
+        lastSynchronized = System.currentTimeMillis();
+        synchronizedWithMaster = false;
+    }
+
+    /**
+     * Notification that the connection to the master was lost, and the domain model is no longer kept up to date.
+     */
+    public void disconnectedFromMaster() {
+        if (synchronizedWithMaster) {
+            lastSynchronized = System.currentTimeMillis();
+            synchronizedWithMaster = false;
+        }
+    }
+
+    /**
+     * Get how long ago the domain model was known to be up to date.
+     *
+     * @return the staleness in milliseconds, {@code 0} while synchronized with the master, or {@code -1} if it
+     *         never was
+     */
+    long getStaleness() {
+        if (synchronizedWithMaster) {
+            return 0;
+        }
+        final long last = lastSynchronized;
+        return last < 0 ? -1 : Math.max(0, System.currentTimeMillis() - last);
+    }
+
+    /**
+     * Whether domain level reads can be served from the local copy of the domain model. This is always the case
+     * if the staleness is not bounded, otherwise the copy needs to be complete and recent enough.
+     *
+     * @param localHostControllerInfo the local host controller
+     * @return {@code true} if the read can be executed locally, {@code false} if it needs the master
+     */
+    boolean canServeDomainReads(final LocalHostControllerInfo localHostControllerInfo) {
+        if (maxStaleness < 0 || localHostControllerInfo.isMasterDomainController()) {
+            return true;
+        }
+        if (!localHostControllerInfo.isBackupDc()) {
+            // Unused parts of the domain model are ignored
+            return false;
+        }
+        final long staleness = getStaleness();
+        return staleness >= 0 && staleness <= maxStaleness;
+    }
+}
@@ -320,6 +320,11 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                     final TransactionalProtocolClient client = remoteProxyController.getProtocolClient();
                     return executeOperation(listener, client, server, transformedOperation, resultTransformer);
                 }
+
+                @Override
+                protected void recordPrepareLatency(ServerIdentity identity, long nanos) {
+                    multiphaseContext.recordServerLatency(identity, nanos);
+                }
             };
             RolloutPlanController rolloutPlanController = new RolloutPlanController(opsByGroup, rolloutPlan, multiphaseContext, taskExecutor, executorService);
             RolloutPlanController.Result planResult = rolloutPlanController.execute();
@@ -32,6 +32,8 @@ import static org.jboss.as.domain.controller.logging.DomainControllerLogger.HOST
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -54,6 +56,7 @@ import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Executes the first phase of a two phase operation on one or more remote, slave host controllers.
@@ -62,6 +65,23 @@ import org.jboss.dmr.ModelNode;
  */
 public class DomainSlaveHandler implements OperationStepHandler {
 
+    /**
+     * The maximum number of slave hosts that may be working towards the prepared state at the same time. Further
+     * hosts are only sent the operation as earlier ones report their prepared result.
+     */
+    private static final int MAX_CONCURRENT_HOSTS;
+
+    static {
+        int max = -1;
+        try {
+            max = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.max-concurrent-hosts", "0"));
+        } catch (Exception e) {
+            // use the default
+        } finally {
+            MAX_CONCURRENT_HOSTS = max > 0 ? max : Integer.MAX_VALUE;
+        }
+    }
+
     private final MultiphaseOverallContext multiphaseContext;
     private final Map<String, ProxyController> hostProxies;
 
@@ -84,29 +104,30 @@ public class DomainSlaveHandler implements OperationStepHandler {
         final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results = new ArrayList<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>>();
         final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults = new HashMap<String, HostControllerUpdateTask.ExecutedHostRequest>();
         final HostControllerUpdateTask.ProxyOperationListener listener = new HostControllerUpdateTask.ProxyOperationListener();
+        final Map<String, HostControllerUpdateTask> pending = new LinkedHashMap<String, HostControllerUpdateTask>();
+        final Map<String, Long> dispatchTimes = new HashMap<String, Long>();
         final Transformers.TransformationInputs transformationInputs = Transformers.TransformationInputs.getOrCreate(context);
+        // The slave transformers and the lock id do not depend on the target host, so only apply them once
+        List<DomainOperationTransformer> transformers = context.getAttachment(OperationAttachments.SLAVE_SERVER_OPERATION_TRANSFORMERS);
+        ModelNode op = operation;
+        if(transformers != null) {
+            for(final DomainOperationTransformer transformer : transformers) {
+                op = transformer.transform(context, op);
+                // Set the flag for host controller operations
+                op.get(OPERATION_HEADERS, EXECUTE_FOR_COORDINATOR).set(true);
+            }
+        }
+        final ModelNode slaveOp = op.clone();
+        slaveOp.get(OPERATION_HEADERS, DomainControllerLockIdUtils.DOMAIN_CONTROLLER_LOCK_ID).set(CurrentOperationIdHolder.getCurrentOperationID());
         for (Map.Entry<String, ProxyController> entry : hostProxies.entrySet()) {
             // Create the proxy task
             final String host = entry.getKey();
             final TransformingProxyController proxyController = (TransformingProxyController) entry.getValue();
-            List<DomainOperationTransformer> transformers = context.getAttachment(OperationAttachments.SLAVE_SERVER_OPERATION_TRANSFORMERS);
-            ModelNode op = operation;
-            if(transformers != null) {
-                for(final DomainOperationTransformer transformer : transformers) {
-                    op = transformer.transform(context, op);
-                    // Set the flag for host controller operations
-                    op.get(OPERATION_HEADERS, EXECUTE_FOR_COORDINATOR).set(true);
-                }
-            }
-
-            ModelNode clonedOp = op.clone();
-            clonedOp.get(OPERATION_HEADERS, DomainControllerLockIdUtils.DOMAIN_CONTROLLER_LOCK_ID).set(CurrentOperationIdHolder.getCurrentOperationID());
-            final HostControllerUpdateTask task = new HostControllerUpdateTask(host, clonedOp, context, proxyController, transformationInputs);
-            // Execute the operation on the remote host
-            final HostControllerUpdateTask.ExecutedHostRequest finalResult = task.execute(listener);
-            multiphaseContext.recordHostRequest(host, finalResult);
-            finalResults.put(host, finalResult);
+            // Each host gets its own copy, as transformation may modify the operation
+            pending.put(host, new HostControllerUpdateTask(host, slaveOp.clone(), context, proxyController, transformationInputs));
         }
+        // Send the operation to as many hosts as we are allowed to; the rest follow as prepared results come in
+        dispatch(pending, MAX_CONCURRENT_HOSTS, listener, finalResults, dispatchTimes);
 
         // Wait for all hosts to reach the prepared state
         boolean interrupted = false;
@@ -119,6 +140,12 @@ public class DomainSlaveHandler implements OperationStepHandler {
                     if(! outstanding.remove(hostName)) {
                         continue;
                     }
+                    final Long dispatched = dispatchTimes.get(hostName);
+                    if (dispatched != null) {
+                        multiphaseContext.recordHostLatency(hostName, System.nanoTime() - dispatched);
+                    }
+                    // This host no longer counts against the limit
+                    dispatch(pending, 1, listener, finalResults, dispatchTimes);
                     final ModelNode preparedResult = prepared.getPreparedResult();
                     HOST_CONTROLLER_LOGGER.tracef("Preliminary result for remote host %s is %s", hostName, preparedResult);
                     // See if we have to reject the result
@@ -169,6 +196,14 @@ public class DomainSlaveHandler implements OperationStepHandler {
                         multiphaseContext.addHostControllerPreparedResult(hostName, result);
                     }
                 }
+                // Hosts we never got to were not contacted at all
+                for (final String hostName : pending.keySet()) {
+                    final ModelNode result = new ModelNode();
+                    result.get(OUTCOME).set(FAILED);
+                    result.get(FAILURE_DESCRIPTION).set(DomainControllerLogger.HOST_CONTROLLER_LOGGER.interruptedAwaitingResultFromHost(hostName));
+                    multiphaseContext.addHostControllerPreparedResult(hostName, result);
+                }
+                pending.clear();
             }
 
             if (interrupted) {
@@ -190,6 +225,26 @@ public class DomainSlaveHandler implements OperationStepHandler {
         }
     }
 
+    /**
+     * Send the operation to up to {@code count} of the pending hosts.
+     */
+    private void dispatch(final Map<String, HostControllerUpdateTask> pending, final int count,
+                          final HostControllerUpdateTask.ProxyOperationListener listener,
+                          final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults,
+                          final Map<String, Long> dispatchTimes) {
+        final Iterator<Map.Entry<String, HostControllerUpdateTask>> iterator = pending.entrySet().iterator();
+        for (int i = 0; i < count && iterator.hasNext(); i++) {
+            final Map.Entry<String, HostControllerUpdateTask> entry = iterator.next();
+            iterator.remove();
+            final String host = entry.getKey();
+            dispatchTimes.put(host, System.nanoTime());
+            // Execute the operation on the remote host
+            final HostControllerUpdateTask.ExecutedHostRequest finalResult = entry.getValue().execute(listener);
+            multiphaseContext.recordHostRequest(host, finalResult);
+            finalResults.put(host, finalResult);
+        }
+    }
+
     private void finalizeOp(final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results,
                             final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults,
                             final boolean interrupted, final OperationContext context) {
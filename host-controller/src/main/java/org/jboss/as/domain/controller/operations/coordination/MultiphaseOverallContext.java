@@ -60,6 +60,8 @@ public final class MultiphaseOverallContext {
     private final ConcurrentMap<String, HostControllerUpdateTask.ExecutedHostRequest> finalResultFutures = new ConcurrentHashMap<String, HostControllerUpdateTask.ExecutedHostRequest>();
 
     private final Map<String, Boolean> serverGroupStatuses = new ConcurrentHashMap<String, Boolean>();
+    private final TargetLatencyHistogram hostLatencies = new TargetLatencyHistogram();
+    private final TargetLatencyHistogram serverLatencies = new TargetLatencyHistogram();
     private volatile boolean completeRollback = true;
     private volatile boolean failureReported;
 
@@ -99,6 +101,22 @@ public final class MultiphaseOverallContext {
         serverResults.put(serverId, serverResult);
     }
 
+    void recordHostLatency(String hostId, long nanos) {
+        hostLatencies.record(hostId, nanos);
+    }
+
+    void recordServerLatency(ServerIdentity serverId, long nanos) {
+        serverLatencies.record(serverId.getHostName() + "/" + serverId.getServerName(), nanos);
+    }
+
+    TargetLatencyHistogram getHostLatencies() {
+        return hostLatencies;
+    }
+
+    TargetLatencyHistogram getServerLatencies() {
+        return serverLatencies;
+    }
+
     boolean isCompleteRollback() {
         return completeRollback;
     }
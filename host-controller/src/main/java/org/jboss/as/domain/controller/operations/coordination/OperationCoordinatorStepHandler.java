@@ -22,15 +22,31 @@
 
 package org.jboss.as.domain.controller.operations.coordination;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT_OVERLAY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_UUID;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXECUTE_FOR_COORDINATOR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.QUERY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_GROUP_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_RESOURCES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE_DEPTH;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLOUT_PLAN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
 import static org.jboss.as.domain.controller.logging.DomainControllerLogger.HOST_CONTROLLER_LOGGER;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -55,20 +71,31 @@ import org.jboss.dmr.ModelNode;
  */
 public class OperationCoordinatorStepHandler {
 
+    /** The domain level resources that a slave ignores if unused, unless it is a backup domain controller */
+    private static final Set<String> DOMAIN_RESOURCE_TYPES = new HashSet<String>(Arrays.asList(PROFILE, SERVER_GROUP,
+            SOCKET_BINDING_GROUP, DEPLOYMENT, DEPLOYMENT_OVERLAY));
+    /** The operations that read the content of the domain model, as opposed to its metadata */
+    private static final Set<String> DOMAIN_READ_OPERATIONS = new HashSet<String>(Arrays.asList(READ_RESOURCE_OPERATION,
+            READ_ATTRIBUTE_OPERATION, READ_ATTRIBUTE_GROUP_OPERATION, READ_CHILDREN_NAMES_OPERATION,
+            READ_CHILDREN_RESOURCES_OPERATION, QUERY));
+
     private final LocalHostControllerInfo localHostControllerInfo;
     private final Map<String, ProxyController> hostProxies;
     private final Map<String, ProxyController> serverProxies;
     private final OperationSlaveStepHandler localSlaveHandler;
+    private final DomainModelReplicaState replicaState;
     private volatile ExecutorService executorService;
 
     OperationCoordinatorStepHandler(final LocalHostControllerInfo localHostControllerInfo,
                                     final Map<String, ProxyController> hostProxies,
                                     final Map<String, ProxyController> serverProxies,
-                                    final OperationSlaveStepHandler localSlaveHandler) {
+                                    final OperationSlaveStepHandler localSlaveHandler,
+                                    final DomainModelReplicaState replicaState) {
         this.localHostControllerInfo = localHostControllerInfo;
         this.hostProxies = hostProxies;
         this.serverProxies = serverProxies;
         this.localSlaveHandler = localSlaveHandler;
+        this.replicaState = replicaState;
     }
 
     void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -80,6 +107,13 @@ public class OperationCoordinatorStepHandler {
             // We cannot handle this ourselves
             routeToMasterDomainController(context, operation);
         }
+        else if (!localHostControllerInfo.isMasterDomainController() && isDomainOperation(operation)
+                && !replicaState.canServeDomainReads(localHostControllerInfo)) {
+            // Our copy of the domain model is incomplete or may be too stale to be read
+            HOST_CONTROLLER_LOGGER.debugf("Not serving %s from a domain model last synchronized %d ms ago",
+                    operation.get(OP).asString(), replicaState.getStaleness());
+            routeToMasterDomainController(context, operation);
+        }
         else if (routing.getSingleHost() != null && !localHostControllerInfo.getLocalHostName().equals(routing.getSingleHost())) {
             if (HOST_CONTROLLER_LOGGER.isTraceEnabled()) {
                 HOST_CONTROLLER_LOGGER.trace("Remote single host");
@@ -125,6 +159,34 @@ public class OperationCoordinatorStepHandler {
         context.getFailureDescription().set(DomainControllerLogger.HOST_CONTROLLER_LOGGER.masterDomainControllerOnlyOperation(operation.get(OP).asString(), PathAddress.pathAddress(operation.get(OP_ADDR))));
     }
 
+    /**
+     * Whether the operation reads domain level resources that a slave may not have, or may have an outdated copy of.
+     * Metadata reads, reads of the root resource's own attributes and reads of host resources are not, as they
+     * don't depend on the domain model being complete and current.
+     */
+    private static boolean isDomainOperation(final ModelNode operation) {
+        final String operationName = operation.get(OP).asString();
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        if (address.size() > 0) {
+            return DOMAIN_RESOURCE_TYPES.contains(address.getElement(0).getKey()) && DOMAIN_READ_OPERATIONS.contains(operationName);
+        } else if (COMPOSITE.equals(operationName)) {
+            if (operation.hasDefined(STEPS)) {
+                for (ModelNode step : operation.get(STEPS).asList()) {
+                    if (isDomainOperation(step)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } else if (READ_CHILDREN_NAMES_OPERATION.equals(operationName) || READ_CHILDREN_RESOURCES_OPERATION.equals(operationName)) {
+            return DOMAIN_RESOURCE_TYPES.contains(operation.get(CHILD_TYPE).asString());
+        } else if (READ_RESOURCE_OPERATION.equals(operationName)) {
+            // Without recursion only the names of the children are read
+            return operation.get(RECURSIVE).asBoolean(false) || operation.get(RECURSIVE_DEPTH).asInt(0) > 0;
+        }
+        return false;
+    }
+
     /**
      * Directly handles the op in the standard way the default prepare step handler would
      * @param context the operation execution context
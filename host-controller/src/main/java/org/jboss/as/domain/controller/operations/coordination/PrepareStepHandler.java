@@ -56,6 +56,7 @@ public class PrepareStepHandler  implements OperationStepHandler {
     private final LocalHostControllerInfo localHostControllerInfo;
     private final OperationCoordinatorStepHandler coordinatorHandler;
     private final OperationSlaveStepHandler slaveHandler;
+    private final DomainModelReplicaState replicaState = new DomainModelReplicaState();
 
     public PrepareStepHandler(final LocalHostControllerInfo localHostControllerInfo,
                               final Map<String, ProxyController> hostProxies,
@@ -64,7 +65,7 @@ public class PrepareStepHandler  implements OperationStepHandler {
                               final ExtensionRegistry extensionRegistry) {
         this.localHostControllerInfo = localHostControllerInfo;
         this.slaveHandler = new OperationSlaveStepHandler(localHostControllerInfo, serverProxies, ignoredDomainResourceRegistry, extensionRegistry);
-        this.coordinatorHandler = new OperationCoordinatorStepHandler(localHostControllerInfo, hostProxies, serverProxies, slaveHandler);
+        this.coordinatorHandler = new OperationCoordinatorStepHandler(localHostControllerInfo, hostProxies, serverProxies, slaveHandler, replicaState);
     }
 
     @Override
@@ -96,6 +97,16 @@ public class PrepareStepHandler  implements OperationStepHandler {
         coordinatorHandler.setExecutorService(executorService);
     }
 
+    /**
+     * Gets the state of the local copy of the domain model, used to decide whether domain level reads can be
+     * served by this host if it is a slave.
+     *
+     * @return the replica state
+     */
+    public DomainModelReplicaState getDomainModelReplicaState() {
+        return replicaState;
+    }
+
     private boolean isServerOperation(ModelNode operation) {
         PathAddress addr = PathAddress.pathAddress(operation.get(OP_ADDR));
         return addr.size() > 1
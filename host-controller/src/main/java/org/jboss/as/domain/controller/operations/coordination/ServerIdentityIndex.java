@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.ProxyController;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+/**
+ * Index of the servers of a host by server group, and of the server groups by the resources they reference, such as
+ * their profile or socket binding group. It is an alternative to the {@link DomainServerUtils} lookups, which walk
+ * all the server configs of the host for every server group.
+ * <p>
+ * The index is built for a given host model and is only valid as long as that model does not change.
+ */
+final class ServerIdentityIndex {
+
+    private final ModelNode hostModel;
+    private final Set<ServerIdentity> servers = new LinkedHashSet<ServerIdentity>();
+    private final Map<String, Set<ServerIdentity>> serversByGroup = new HashMap<String, Set<ServerIdentity>>();
+    private final Map<String, Map<String, Set<String>>> groupsByType = new HashMap<String, Map<String, Set<String>>>();
+
+    ServerIdentityIndex(final String localHostName, final ModelNode hostModel) {
+        this.hostModel = hostModel;
+        if (hostModel.hasDefined(SERVER_CONFIG)) {
+            for (Property prop : hostModel.get(SERVER_CONFIG).asPropertyList()) {
+                final String groupName = prop.getValue().require(GROUP).asString();
+                final ServerIdentity server = new ServerIdentity(localHostName, groupName, prop.getName());
+                servers.add(server);
+                Set<ServerIdentity> groupServers = serversByGroup.get(groupName);
+                if (groupServers == null) {
+                    groupServers = new LinkedHashSet<ServerIdentity>();
+                    serversByGroup.put(groupName, groupServers);
+                }
+                groupServers.add(server);
+            }
+        }
+    }
+
+    /**
+     * Whether this index was built for the given host model.
+     *
+     * @param hostModel the host model
+     * @return {@code true} if the index can be used for the host model
+     */
+    boolean isIndexOf(final ModelNode hostModel) {
+        return this.hostModel == hostModel;
+    }
+
+    /**
+     * Get the servers of a server group which have a proxy, i.e. which are running.
+     *
+     * @param groupName the server group, or {@code null} for the servers of all groups
+     * @param serverProxies the server proxies
+     * @return the servers
+     */
+    Set<ServerIdentity> getServersForGroup(final String groupName, final Map<String, ProxyController> serverProxies) {
+        final Collection<ServerIdentity> candidates = groupName == null ? servers : serversByGroup.get(groupName);
+        if (candidates == null) {
+            return new HashSet<ServerIdentity>();
+        }
+        final Set<ServerIdentity> result = new HashSet<ServerIdentity>();
+        for (ServerIdentity server : candidates) {
+            if (serverProxies.get(server.getServerName()) != null) {
+                result.add(server);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the servers of the server groups which reference the given resource, which have a proxy.
+     *
+     * @param type the server group attribute referencing the resource, e.g. {@code profile}
+     * @param ref the name of the referenced resource
+     * @param domainModel the domain model the host model belongs to
+     * @param serverProxies the server proxies
+     * @return the servers
+     */
+    Set<ServerIdentity> getServersForType(final String type, final String ref, final ModelNode domainModel, final Map<String, ProxyController> serverProxies) {
+        final Set<ServerIdentity> result = new HashSet<ServerIdentity>();
+        for (String groupName : getGroupsForType(type, ref, domainModel)) {
+            result.addAll(getServersForGroup(groupName, serverProxies));
+        }
+        return result;
+    }
+
+    private Set<String> getGroupsForType(final String type, final String ref, final ModelNode domainModel) {
+        Map<String, Set<String>> groupsByRef = groupsByType.get(type);
+        if (groupsByRef == null) {
+            groupsByRef = new HashMap<String, Set<String>>();
+            if (domainModel.hasDefined(SERVER_GROUP)) {
+                for (Property prop : domainModel.get(SERVER_GROUP).asPropertyList()) {
+                    final ModelNode serverGroup = prop.getValue();
+                    if (serverGroup.hasDefined(type)) {
+                        final String groupRef = serverGroup.get(type).asString();
+                        Set<String> groups = groupsByRef.get(groupRef);
+                        if (groups == null) {
+                            groups = new HashSet<String>();
+                            groupsByRef.put(groupRef, groups);
+                        }
+                        groups.add(prop.getName());
+                    }
+                }
+            }
+            groupsByType.put(type, groupsByRef);
+        }
+        final Set<String> groups = groupsByRef.get(ref);
+        return groups == null ? Collections.<String>emptySet() : groups;
+    }
+}
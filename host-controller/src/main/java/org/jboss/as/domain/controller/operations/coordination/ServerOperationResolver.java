@@ -55,10 +55,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYS
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 import static org.jboss.as.domain.controller.logging.DomainControllerLogger.HOST_CONTROLLER_LOGGER;
-import static org.jboss.as.domain.controller.operations.coordination.DomainServerUtils.getAllRunningServers;
 import static org.jboss.as.domain.controller.operations.coordination.DomainServerUtils.getRelatedElements;
-import static org.jboss.as.domain.controller.operations.coordination.DomainServerUtils.getServersForGroup;
-import static org.jboss.as.domain.controller.operations.coordination.DomainServerUtils.getServersForType;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -187,6 +184,7 @@ public class ServerOperationResolver {
 
     private final String localHostName;
     private final Map<String, ProxyController> serverProxies;
+    private ServerIdentityIndex serverIdentityIndex;
 
     public ServerOperationResolver(final String localHostName, final Map<String, ProxyController> serverProxies) {
         this.localHostName = localHostName;
@@ -243,7 +241,7 @@ public class ServerOperationResolver {
             DomainKey domainKey = DomainKey.forName(address.getElement(0).getKey());
             switch (domainKey) {
                 case EXTENSION: {
-                    Set<ServerIdentity> allServers = getAllRunningServers(host, localHostName, serverProxies);
+                    Set<ServerIdentity> allServers = getAllRunningServers(host);
                     return Collections.singletonMap(allServers, operation);
                 }
                 case DEPLOYMENT: {
@@ -288,6 +286,28 @@ public class ServerOperationResolver {
         }
     }
 
+    private ServerIdentityIndex getServerIdentityIndex(final ModelNode host) {
+        // The host model is read once per operation, so a new one means the index needs to be rebuilt
+        ServerIdentityIndex index = this.serverIdentityIndex;
+        if (index == null || !index.isIndexOf(host)) {
+            index = new ServerIdentityIndex(localHostName, host);
+            this.serverIdentityIndex = index;
+        }
+        return index;
+    }
+
+    private Set<ServerIdentity> getAllRunningServers(final ModelNode host) {
+        return getServersForGroup(null, host);
+    }
+
+    private Set<ServerIdentity> getServersForGroup(final String groupName, final ModelNode host) {
+        return getServerIdentityIndex(host).getServersForGroup(groupName, serverProxies);
+    }
+
+    private Set<ServerIdentity> getServersForType(final String type, final String ref, final ModelNode domain, final ModelNode host) {
+        return getServerIdentityIndex(host).getServersForType(type, ref, domain, serverProxies);
+    }
+
     private static ModelNode getDomainModel(OperationContext context) {
         ModelNode model = context.getAttachment(DOMAIN_MODEL_ATTACHMENT);
         if (model == null) {
@@ -308,7 +328,7 @@ public class ServerOperationResolver {
         Set<String> relatedProfiles = getRelatedElements(PROFILE, profileName, subsystem.getKey(), subsystem.getValue(), domain);
         Set<ServerIdentity> allServers = new HashSet<ServerIdentity>();
         for (String profile : relatedProfiles) {
-            allServers.addAll(getServersForType(PROFILE, profile, domain, host, localHostName, serverProxies));
+            allServers.addAll(getServersForType(PROFILE, profile, domain, host));
         }
         ModelNode serverOp = operation.clone();
         PathAddress serverAddress = address.subAddress(1);
@@ -318,13 +338,13 @@ public class ServerOperationResolver {
 
     private Map<Set<ServerIdentity>, ModelNode> getDeploymentOverlayOperations(ModelNode operation,
                                                                                ModelNode host) {
-        final Set<ServerIdentity> allServers = getAllRunningServers(host, localHostName, serverProxies);
+        final Set<ServerIdentity> allServers = getAllRunningServers(host);
         return Collections.singletonMap(allServers, operation.clone());
     }
 
     private Map<Set<ServerIdentity>, ModelNode> getServerCoreServiceOperations(ModelNode operation,
                                                                                ModelNode host) {
-        final Set<ServerIdentity> allServers = getAllRunningServers(host, localHostName, serverProxies);
+        final Set<ServerIdentity> allServers = getAllRunningServers(host);
         return Collections.singletonMap(allServers, operation.clone());
     }
 
@@ -448,7 +468,7 @@ public class ServerOperationResolver {
         }
         final Set<ServerIdentity> result = new HashSet<ServerIdentity>();
         for (String bindingGroup : relatedBindingGroups) {
-            result.addAll(getServersForType(SOCKET_BINDING_GROUP, bindingGroup, domain, host, localHostName, serverProxies));
+            result.addAll(getServersForType(SOCKET_BINDING_GROUP, bindingGroup, domain, host));
         }
         //If /socket-binding-group=child includes /socket-binding-group=root, and a server/server-group is set up
         //to use /socket-binding-group=child, /socket-binding-group=child becomes the name of the group in the server model.
@@ -496,11 +516,11 @@ public class ServerOperationResolver {
             if (JVM.equals(type)) {
                 // Changes to the JVM require a restart
                 String groupName = address.getElement(0).getValue();
-                Set<ServerIdentity> servers = getServersForGroup(groupName, host, localHostName, serverProxies);
+                Set<ServerIdentity> servers = getServersForGroup(groupName, host);
                 return getServerRestartRequiredOperations(servers);
             } else if (DEPLOYMENT.equals(type)) {
                 String groupName = address.getElement(0).getValue();
-                Set<ServerIdentity> servers = getServersForGroup(groupName, host, localHostName, serverProxies);
+                Set<ServerIdentity> servers = getServersForGroup(groupName, host);
                 ModelNode serverOp = operation.clone();
                 if (ADD.equals(serverOp.get(OP).asString())) {
                     // The op is missing the runtime-name and content values that the server will need
@@ -518,7 +538,7 @@ public class ServerOperationResolver {
                 result = getServerSystemPropertyOperations(operation, address, Level.SERVER_GROUP, domain, affectedGroup, host);
             } else if (DEPLOYMENT_OVERLAY.equals(type) && address.getLastElement().getKey().equals(DEPLOYMENT)) {
                 String groupName = address.getElement(0).getValue();
-                Set<ServerIdentity> servers = getServersForGroup(groupName, host, localHostName, serverProxies);
+                Set<ServerIdentity> servers = getServersForGroup(groupName, host);
                 ModelNode serverOp = operation.clone();
                 PathAddress serverAddress = address.subAddress(1);
                 serverOp.get(OP_ADDR).set(serverAddress.toModelNode());
@@ -526,7 +546,7 @@ public class ServerOperationResolver {
             }
         } else if (REPLACE_DEPLOYMENT.equals(operation.require(OP).asString())) {
             String groupName = address.getElement(0).getValue();
-            Set<ServerIdentity> servers = getServersForGroup(groupName, host, localHostName, serverProxies);
+            Set<ServerIdentity> servers = getServersForGroup(groupName, host);
             ModelNode serverOp = operation.clone();
             serverOp.get(OP_ADDR).setEmptyList();
             // The op is missing the runtime-name and content values that the server will need
@@ -538,11 +558,11 @@ public class ServerOperationResolver {
             final String attr = operation.get(NAME).asString();
             if (PROFILE.equals(attr)) {
                 String groupName = address.getElement(0).getValue();
-                Set<ServerIdentity> servers = getServersForGroup(groupName, host, localHostName, serverProxies);
+                Set<ServerIdentity> servers = getServersForGroup(groupName, host);
                 return getServerReloadRequiredOperations(servers);
             } else if (SOCKET_BINDING_GROUP.equals(attr)) {
                 String groupName = address.getElement(0).getValue();
-                Set<ServerIdentity> servers = getServersForGroup(groupName, host, localHostName, serverProxies);
+                Set<ServerIdentity> servers = getServersForGroup(groupName, host);
                 if (servers.size() > 0) {
                     //Get rid of servers overriding the socket-binding-group
                     Set<ServerIdentity> affectedServers = new HashSet<>();
@@ -572,14 +592,14 @@ public class ServerOperationResolver {
             Set<String> groups = getServerGroupsForDeployment(propName, domain);
             Set<ServerIdentity> allServers = new HashSet<ServerIdentity>();
             for (String group : groups) {
-                allServers.addAll(getServersForGroup(group, host, localHostName, serverProxies));
+                allServers.addAll(getServersForGroup(group, host));
             }
             result = Collections.singletonMap(allServers, operation);
         } else if (ResolveExpressionOnDomainHandler.OPERATION_NAME.equals(opName)) {
             final ModelNode serverOp = operation.clone();
             serverOp.get(OP).set(ResolveExpressionHandler.OPERATION_NAME);
             serverOp.get(OP_ADDR).setEmptyList();
-            final Set<ServerIdentity> allServers = getAllRunningServers(host, localHostName, serverProxies);
+            final Set<ServerIdentity> allServers = getAllRunningServers(host);
             result = Collections.singletonMap(allServers, serverOp);
         }
         if (result == null) {
@@ -655,7 +675,7 @@ public class ServerOperationResolver {
             final ModelNode serverOp = operation.clone();
             serverOp.get(OP).set(ResolveExpressionHandler.OPERATION_NAME);
             serverOp.get(OP_ADDR).setEmptyList();
-            final Set<ServerIdentity> allServers = getAllRunningServers(host, localHostName, serverProxies);
+            final Set<ServerIdentity> allServers = getAllRunningServers(host);
             result = Collections.singletonMap(allServers, serverOp);
         }
 
@@ -927,7 +947,7 @@ public class ServerOperationResolver {
 //                        op.get(OP_ADDR).set(newAddr.toModelNode());
 //                    }
 //                }
-                return Collections.singletonMap(getAllRunningServers(host, localHostName, serverProxies), op);
+                return Collections.singletonMap(getAllRunningServers(host), op);
             }
             // TODO does server need to know about other changes?
         }
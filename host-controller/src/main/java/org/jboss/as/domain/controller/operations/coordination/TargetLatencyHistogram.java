@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records how long each target (a slave host or a managed server) of a domain operation took to
+ * reach the prepared state. Latencies are kept per target and aggregated into power of two
+ * millisecond buckets, so the spread of a large fan-out can be reported cheaply.
+ */
+final class TargetLatencyHistogram {
+
+    /** Bucket 0 holds latencies below 1ms; bucket {@code i} holds latencies in [2^(i-1), 2^i) ms. */
+    static final int BUCKETS = 24;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final ConcurrentMap<String, Long> latencies = new ConcurrentHashMap<String, Long>();
+
+    /**
+     * Record the latency of a target.
+     *
+     * @param target the target name
+     * @param nanos the elapsed time in nanoseconds
+     */
+    void record(final String target, final long nanos) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(Math.max(0L, nanos));
+        if (latencies.put(target, millis) == null) {
+            buckets.incrementAndGet(bucketFor(millis));
+        }
+    }
+
+    int getCount() {
+        return latencies.size();
+    }
+
+    long getBucketCount(final int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * Get the recorded latency of a target.
+     *
+     * @param target the target name
+     * @return the latency in milliseconds, or {@code -1} if nothing was recorded for the target
+     */
+    long getLatency(final String target) {
+        final Long latency = latencies.get(target);
+        return latency == null ? -1L : latency;
+    }
+
+    /**
+     * Get the upper bound of the bucket containing the given percentile.
+     *
+     * @param fraction the percentile as a fraction between 0 and 1
+     * @return the upper bound in milliseconds, or {@code 0} if nothing was recorded
+     */
+    long getPercentileUpperBound(final double fraction) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += buckets.get(i);
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(total * fraction));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    /**
+     * Get the target with the highest recorded latency.
+     *
+     * @return the slowest target, or {@code null} if nothing was recorded
+     */
+    String getSlowestTarget() {
+        String slowest = null;
+        long max = -1L;
+        for (Map.Entry<String, Long> entry : latencies.entrySet()) {
+            if (entry.getValue() > max) {
+                max = entry.getValue();
+                slowest = entry.getKey();
+            }
+        }
+        return slowest;
+    }
+
+    static int bucketFor(final long millis) {
+        if (millis <= 0) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+    }
+
+    @Override
+    public String toString() {
+        final String slowest = getSlowestTarget();
+        if (slowest == null) {
+            return "{count=0}";
+        }
+        return "{count=" + getCount()
+                + ", p50<=" + getPercentileUpperBound(0.5) + "ms"
+                + ", p90<=" + getPercentileUpperBound(0.9) + "ms"
+                + ", p99<=" + getPercentileUpperBound(0.99) + "ms"
+                + ", max=" + getLatency(slowest) + "ms (" + slowest + ")}";
+    }
+}
@@ -22,8 +22,12 @@
 
 package org.jboss.as.domain.controller.plan;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.security.auth.Subject;
@@ -31,45 +35,82 @@ import javax.security.auth.Subject;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.domain.controller.ServerIdentity;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * @author Emanuel Muckenhuber
  */
 class ConcurrentServerGroupUpdateTask extends AbstractServerGroupRolloutTask implements Runnable {
 
+    /** The maximum number of servers of the group working towards the prepared state at the same time. */
+    static final int MAX_CONCURRENT_SERVERS_PER_GROUP = getLimit("jboss.as.domain.rollout.max-concurrent-servers-per-group");
+    /** The maximum number of servers of the group on a single host working towards the prepared state at the same time. */
+    static final int MAX_CONCURRENT_SERVERS_PER_HOST = getLimit("jboss.as.domain.rollout.max-concurrent-servers-per-host");
+
+    private final int maxPerGroup;
+    private final int maxPerHost;
+
     public ConcurrentServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy,
                                            ServerTaskExecutor executor, Subject subject) {
+        this(tasks, updatePolicy, executor, subject, MAX_CONCURRENT_SERVERS_PER_GROUP, MAX_CONCURRENT_SERVERS_PER_HOST);
+    }
+
+    ConcurrentServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy,
+                                    ServerTaskExecutor executor, Subject subject, int maxPerGroup, int maxPerHost) {
         super(tasks, updatePolicy, executor, subject);
+        this.maxPerGroup = maxPerGroup;
+        this.maxPerHost = maxPerHost;
     }
 
     @Override
     public void execute() {
         final Set<ServerIdentity> outstanding = new HashSet<ServerIdentity>();
+        final Map<String, Integer> outstandingByHost = new HashMap<String, Integer>();
+        final List<ServerUpdateTask> pending = new LinkedList<ServerUpdateTask>(tasks);
         final ServerTaskExecutor.ServerOperationListener listener = new ServerTaskExecutor.ServerOperationListener();
-        for(final ServerUpdateTask task : tasks) {
-            final ServerIdentity identity = task.getServerIdentity();
-            if (updatePolicy.canUpdateServer(identity) && !Thread.currentThread().isInterrupted()) {
-                // Execute the task
-                if(executor.executeTask(listener, task)) {
-                    outstanding.add(task.getServerIdentity());
+        boolean interrupted = false;
+        for (;;) {
+            // Send the operation to as many servers as the limits allow
+            final Iterator<ServerUpdateTask> iterator = pending.iterator();
+            // Once interrupted, retrievePreparedOperation has cleared the interrupt status, so check the local flag too
+            while (!interrupted && outstanding.size() < maxPerGroup && iterator.hasNext() && !Thread.currentThread().isInterrupted()) {
+                final ServerUpdateTask task = iterator.next();
+                final ServerIdentity identity = task.getServerIdentity();
+                final Integer onHost = outstandingByHost.get(identity.getHostName());
+                if (onHost != null && onHost >= maxPerHost) {
+                    continue;
+                }
+                iterator.remove();
+                if (updatePolicy.canUpdateServer(identity)) {
+                    // Execute the task
+                    if(executor.executeTask(listener, task)) {
+                        outstanding.add(identity);
+                        outstandingByHost.put(identity.getHostName(), onHost == null ? 1 : onHost + 1);
+                    }
+                } else {
+                    DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", identity);
                 }
-            } else {
-                DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", identity);
             }
-        }
-        boolean interrupted = false;
-        while(!interrupted && ! outstanding.isEmpty()) {
+            if (interrupted || outstanding.isEmpty()) {
+                break;
+            }
             try {
-                // Wait for all prepared results
+                // Wait for the next prepared result
                 final TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> prepared = listener.retrievePreparedOperation();
                 final ServerIdentity identity = prepared.getOperation().getIdentity();
                 recordPreparedOperation(identity, prepared);
-                outstanding.remove(identity);
+                if (outstanding.remove(identity)) {
+                    outstandingByHost.put(identity.getHostName(), outstandingByHost.get(identity.getHostName()) - 1);
+                }
             } catch (InterruptedException e) {
                 interrupted = true;
             }
         }
 
+        for (ServerUpdateTask task : pending) {
+            DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", task.getServerIdentity());
+        }
+
         if (!outstanding.isEmpty()) {
             DomainControllerLogger.HOST_CONTROLLER_LOGGER.interruptedAwaitingPreparedResponse(getClass().getSimpleName(), outstanding);
             for (ServerIdentity identity : outstanding) {
@@ -81,4 +122,14 @@ class ConcurrentServerGroupUpdateTask extends AbstractServerGroupRolloutTask imp
             Thread.currentThread().interrupt();
         }
     }
+
+    private static int getLimit(final String name) {
+        int limit = -1;
+        try {
+            limit = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(name, "0"));
+        } catch (Exception e) {
+            // use the default
+        }
+        return limit > 0 ? limit : Integer.MAX_VALUE;
+    }
 }
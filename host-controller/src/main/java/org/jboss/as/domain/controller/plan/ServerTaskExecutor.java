@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
 import org.jboss.as.controller.Cancellable;
@@ -53,6 +54,7 @@ public abstract class ServerTaskExecutor {
     private final OperationContext context;
     private final Map<ServerIdentity, ExecutedServerRequest> submittedTasks;
     private final List<ServerTaskExecutor.ServerPreparedResponse> preparedResults;
+    private final Map<ServerIdentity, Long> dispatchTimes = new ConcurrentHashMap<ServerIdentity, Long>();
 
     protected ServerTaskExecutor(OperationContext context, Map<ServerIdentity, ExecutedServerRequest> submittedTasks, List<ServerPreparedResponse> preparedResults) {
         this.context = context;
@@ -79,6 +81,7 @@ public abstract class ServerTaskExecutor {
      * @return whether the task was executed or not
      */
     public boolean executeTask(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener, final ServerUpdateTask task) {
+        dispatchTimes.put(task.getServerIdentity(), System.nanoTime());
         try {
             return execute(listener, task.getServerIdentity(), task.getOperation());
         } catch (OperationFailedException e) {
@@ -143,9 +146,24 @@ public abstract class ServerTaskExecutor {
      * @param preparedOperation the prepared operation
      */
     void recordPreparedOperation(final TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> preparedOperation) {
+        final ServerIdentity identity = preparedOperation.getOperation().getIdentity();
+        final Long dispatched = dispatchTimes.remove(identity);
+        if (dispatched != null) {
+            recordPrepareLatency(identity, System.nanoTime() - dispatched);
+        }
         recordPreparedTask(new ServerTaskExecutor.ServerPreparedResponse(preparedOperation));
     }
 
+    /**
+     * Record how long a server took to reach the prepared state. The default implementation does nothing.
+     *
+     * @param identity the server identity
+     * @param nanos the elapsed time in nanoseconds
+     */
+    protected void recordPrepareLatency(final ServerIdentity identity, final long nanos) {
+        //
+    }
+
     /**
      * Record a prepared operation.
      *
@@ -29,6 +29,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOS
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ObjectListAttributeDefinition;
 import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.OperationFailedException;
@@ -79,6 +80,40 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
             .setStorageRuntime()
             .build();
 
+    private static final AttributeDefinition COUNT_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.COUNT, ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition MEAN_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.MEAN, ModelType.DOUBLE, false)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition STANDARD_DEVIATION_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.STANDARD_DEVIATION, ModelType.DOUBLE, false)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition MAX_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.MAX, ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition HISTOGRAM_DEF = PrimitiveListAttributeDefinition.Builder.of(HostConnectionInfo.HISTOGRAM, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final ObjectTypeAttributeDefinition PING_ROUND_TRIP_TIME = ObjectTypeAttributeDefinition.Builder.of(HostConnectionInfo.PING_ROUND_TRIP_TIME,
+            COUNT_DEF, MEAN_DEF, STANDARD_DEVIATION_DEF, MAX_DEF, HISTOGRAM_DEF)
+            .setAllowNull(true)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition BYTES_SENT = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.BYTES_SENT, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition BYTES_RECEIVED = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.BYTES_RECEIVED, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
     private static final OperationDefinition PRUNE_EXPIRED_DEF = new SimpleOperationDefinitionBuilder("prune-expired", RESOLVER)
             .withFlag(OperationEntry.Flag.MASTER_HOST_CONTROLLER_ONLY)
             .build();
@@ -99,6 +134,9 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadOnlyAttribute(CONNECTION_DEF, attributeReadHandler);
         resourceRegistration.registerReadOnlyAttribute(EVENT_LIST, attributeReadHandler);
+        resourceRegistration.registerReadOnlyAttribute(PING_ROUND_TRIP_TIME, attributeReadHandler);
+        resourceRegistration.registerMetric(BYTES_SENT, attributeReadHandler);
+        resourceRegistration.registerMetric(BYTES_RECEIVED, attributeReadHandler);
     }
 
     @Override
@@ -136,11 +174,26 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
                     case HostConnectionInfo.EVENTS:
                         processEvents(info, result.setEmptyList());
                         break;
+                    case HostConnectionInfo.PING_ROUND_TRIP_TIME:
+                        info.roundTripTimesToModelNode(result);
+                        break;
+                    case HostConnectionInfo.BYTES_SENT:
+                        setIfAvailable(result, info.getBytesSent());
+                        break;
+                    case HostConnectionInfo.BYTES_RECEIVED:
+                        setIfAvailable(result, info.getBytesReceived());
+                        break;
                 }
             }
         }
     }
 
+    private static void setIfAvailable(final ModelNode result, final long value) {
+        if (value >= 0) {
+            result.set(value);
+        }
+    }
+
     static void processEvents(final HostConnectionInfo info, final ModelNode list) {
         for (final HostConnectionInfo.Event event : info.getEvents()) {
             event.toModelNode(list.add());
@@ -683,7 +683,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
                     if (ok && processType != ProcessType.EMBEDDED_HOST_CONTROLLER) {
                         InternalExecutor executor = new InternalExecutor();
                         ManagementRemotingServices.installManagementChannelServices(serviceTarget, ManagementRemotingServices.MANAGEMENT_ENDPOINT,
-                                new MasterDomainControllerOperationHandlerService(this, executor, executor, environment.getDomainTempDir(), this),
+                                new MasterDomainControllerOperationHandlerService(this, contentRepository, executor, executor, environment.getDomainTempDir(), this),
                                 DomainModelControllerService.SERVICE_NAME, ManagementRemotingServices.DOMAIN_CHANNEL,
                                 HostControllerService.HC_EXECUTOR_SERVICE_NAME, HostControllerService.HC_SCHEDULED_EXECUTOR_SERVICE_NAME);
 
@@ -811,7 +811,8 @@ public class DomainModelControllerService extends AbstractControllerService impl
                 environment,
                 getExecutorServiceInjector().getValue(),
                 currentRunningMode,
-                serverProxies);
+                serverProxies,
+                prepareStepHandler.getDomainModelReplicaState());
         MasterDomainControllerClient masterDomainControllerClient = getFuture(clientFuture);
         //Registers us with the master and gets down the master copy of the domain model to our DC
         //TODO make sure that the RDCS checks env.isUseCachedDC, and if true falls through to that
@@ -1058,6 +1059,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
             return getServerInventory().determineServerStatus(serverName);
         }
 
+        @Override
+        public Long getServerStartLatency(String serverName) {
+            return getServerInventory().getServerStartLatency(serverName);
+        }
+
         public ServerStatus startServer(String serverName, ModelNode domainModel) {
             return getServerInventory().startServer(serverName, domainModel);
         }
@@ -1067,6 +1073,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
             return getServerInventory().startServer(serverName, domainModel, blocking);
         }
 
+        @Override
+        public Map<String, Long> startServers(List<String> serverNames, ModelNode domainModel, int maxParallel, boolean blocking) {
+            return getServerInventory().startServers(serverNames, domainModel, maxParallel, blocking);
+        }
+
         public void reconnectServer(String serverName, ModelNode domainModel, String authKey, boolean running, boolean stopping) {
             getServerInventory().reconnectServer(serverName, domainModel, authKey, running, stopping);
         }
@@ -1324,6 +1335,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
                 return ServerStatus.STOPPED;
             }
 
+            @Override
+            public Long getServerStartLatency(String serverName) {
+                return null;
+            }
+
             @Override
             public ServerStatus startServer(String serverName, ModelNode domainModel) {
                 return ServerStatus.STOPPED;
@@ -1334,6 +1350,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
                 return ServerStatus.STOPPED;
             }
 
+            @Override
+            public Map<String, Long> startServers(List<String> serverNames, ModelNode domainModel, int maxParallel, boolean blocking) {
+                return Collections.emptyMap();
+            }
+
             @Override
             public ServerStatus restartServer(String serverName, int gracefulTimeout, ModelNode domainModel) {
                 return ServerStatus.STOPPED;
@@ -31,7 +31,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.domain.controller.HostConnectionInfo;
+import org.jboss.as.host.controller.mgmt.PhiAccrualFailureDetector;
 import org.jboss.as.host.controller.mgmt.SlaveHostPinger;
+import org.jboss.dmr.ModelNode;
 
 /**
  * @author Emanuel Muckenhuber
@@ -198,6 +200,31 @@ public class DomainSlaveHostRegistrations {
             return events;
         }
 
+        @Override
+        public void roundTripTimesToModelNode(final ModelNode target) {
+            if (pinger != null) {
+                final PhiAccrualFailureDetector detector = pinger.getFailureDetector();
+                target.get(COUNT).set(detector.getCount());
+                target.get(MEAN).set(detector.getMean());
+                target.get(STANDARD_DEVIATION).set(detector.getStandardDeviation());
+                target.get(MAX).set(detector.getMax());
+                final ModelNode histogram = target.get(HISTOGRAM).setEmptyList();
+                for (final long bucket : detector.getBuckets()) {
+                    histogram.add(bucket);
+                }
+            }
+        }
+
+        @Override
+        public long getBytesSent() {
+            return pinger != null ? pinger.getChannelHandler().getBytesSent() : -1;
+        }
+
+        @Override
+        public long getBytesReceived() {
+            return pinger != null ? pinger.getChannelHandler().getBytesReceived() : -1;
+        }
+
         protected String getAddress() {
             return address;
         }
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNNING_SERVER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Caches the part of the managed server boot operations that is the same for every server of a server group
+ * on this host, so that it is only computed once per version of the domain and host model.
+ * <p>
+ * An entry is only reused if the domain model (ignoring the hosts) and the local host model (ignoring the
+ * server configurations) are equal to the ones it was computed from.
+ */
+public final class ManagedServerBootOperationsCache {
+
+    private static final List<String> DOMAIN_EXCLUDES = Arrays.asList(HOST);
+    private static final List<String> HOST_EXCLUDES = Arrays.asList(SERVER_CONFIG, RUNNING_SERVER);
+
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    /**
+     * Get the cached boot operations of a server group.
+     *
+     * @param serverGroupName the server group name
+     * @param domainModel the current domain model
+     * @param hostModel the current host model
+     * @return the cached entry, or {@code null} if there is none or the model changed since it was created
+     */
+    synchronized Entry get(final String serverGroupName, final ModelNode domainModel, final ModelNode hostModel) {
+        final Entry entry = entries.get(serverGroupName);
+        if (entry != null && sameModel(entry.domainModel, domainModel, DOMAIN_EXCLUDES)
+                && sameModel(entry.hostModel, hostModel, HOST_EXCLUDES)) {
+            return entry;
+        }
+        return null;
+    }
+
+    synchronized void put(final String serverGroupName, final Entry entry) {
+        entries.put(serverGroupName, entry);
+    }
+
+    /**
+     * Create a snapshot of the parts of the domain model that the cached operations depend on. This needs to happen
+     * before the boot operations are created, as reading the model may add undefined children to it.
+     */
+    static ModelNode snapshotDomainModel(final ModelNode domainModel) {
+        return snapshot(domainModel, DOMAIN_EXCLUDES);
+    }
+
+    /**
+     * Create a snapshot of the parts of the host model that the cached operations depend on.
+     */
+    static ModelNode snapshotHostModel(final ModelNode hostModel) {
+        return snapshot(hostModel, HOST_EXCLUDES);
+    }
+
+    private static ModelNode snapshot(final ModelNode model, final List<String> excludes) {
+        final ModelNode snapshot = new ModelNode().setEmptyObject();
+        for (final String key : model.keys()) {
+            if (!excludes.contains(key)) {
+                snapshot.get(key).set(model.get(key).clone());
+            }
+        }
+        return snapshot;
+    }
+
+    private static boolean sameModel(final ModelNode snapshot, final ModelNode model, final List<String> excludes) {
+        final Set<String> keys = new HashSet<String>(model.keys());
+        keys.removeAll(excludes);
+        if (!keys.equals(snapshot.keys())) {
+            return false;
+        }
+        for (final String key : keys) {
+            if (!snapshot.get(key).equals(model.get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The server group wide boot operations, split around the operations that depend on the individual server.
+     */
+    static final class Entry {
+
+        private final ModelNode domainModel;
+        private final ModelNode hostModel;
+        final List<ModelNode> head;
+        final List<ModelNode> management;
+        final List<ModelNode> subsystems;
+
+        Entry(final ModelNode domainModel, final ModelNode hostModel, final List<ModelNode> head,
+              final List<ModelNode> management, final List<ModelNode> subsystems) {
+            this.domainModel = domainModel;
+            this.hostModel = hostModel;
+            this.head = head;
+            this.management = management;
+            this.subsystems = subsystems;
+        }
+    }
+}
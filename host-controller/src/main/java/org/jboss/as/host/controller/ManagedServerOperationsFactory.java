@@ -168,11 +168,28 @@ public final class ManagedServerOperationsFactory {
      */
     public static ModelNode createBootUpdates(final String serverName, final ModelNode domainModel, final ModelNode hostModel,
                                               final DomainController domainController, final ExpressionResolver expressionResolver) {
+        return createBootUpdates(serverName, domainModel, hostModel, domainController, expressionResolver, null);
+    }
+
+    /**
+     * Create a list of operations required to a boot a managed server, reusing the server group wide operations
+     * from the cache if the model did not change since they were created.
+     *
+     * @param serverName the server name
+     * @param domainModel the complete domain model
+     * @param hostModel the local host model
+     * @param domainController the domain controller
+     * @param cache the cache of server group boot operations, may be {@code null}
+     * @return the list of boot operations
+     */
+    public static ModelNode createBootUpdates(final String serverName, final ModelNode domainModel, final ModelNode hostModel,
+                                              final DomainController domainController, final ExpressionResolver expressionResolver,
+                                              final ManagedServerBootOperationsCache cache) {
         final ManagedServerOperationsFactory factory = new ManagedServerOperationsFactory(serverName, domainModel,
                 hostModel, domainController, expressionResolver);
 
 
-        return factory.getBootUpdates();
+        return factory.getBootUpdates(cache);
     }
 
     private final String serverName;
@@ -198,6 +215,10 @@ public final class ManagedServerOperationsFactory {
     }
 
     ModelNode getBootUpdates() {
+        return getBootUpdates(null);
+    }
+
+    ModelNode getBootUpdates(final ManagedServerBootOperationsCache cache) {
 
         int portOffSet = 0;
         String socketBindingRef = null;
@@ -225,29 +246,57 @@ public final class ManagedServerOperationsFactory {
             throw HostControllerLogger.ROOT_LOGGER.undefinedSocketBinding(serverName);
         }
 
+        ManagedServerBootOperationsCache.Entry group = cache == null ? null : cache.get(serverGroupName, domainModel, hostModel);
+        if (group == null) {
+            // Snapshot the model before creating the operations, which may add undefined nodes to it
+            final ModelNode domainSnapshot = cache == null ? null : ManagedServerBootOperationsCache.snapshotDomainModel(domainModel);
+            final ModelNode hostSnapshot = cache == null ? null : ManagedServerBootOperationsCache.snapshotHostModel(hostModel);
+            group = createServerGroupUpdates(domainSnapshot, hostSnapshot);
+            if (cache != null) {
+                cache.put(serverGroupName, group);
+            }
+        }
+
         final ModelNodeList updates = new ModelNodeList();
 
-        setServerGroupHost(updates);
-        addNamespaces(updates);
-        addProfileName(updates);
-        addSchemaLocations(updates);
-        addExtensions(updates);
+        updates.addAll(group.head);
         addPaths(updates);
         addSystemProperties(updates);
-        addVault(updates);
-        addManagementSecurityRealms(updates);
-        addAuditLog(updates);
-        addManagementConnections(updates);
-        addManagementAuthorization(updates);
+        updates.addAll(group.management);
         addInterfaces(updates);
         addSocketBindings(updates, portOffSet, socketBindingRef, defaultInterface);
-        addSubsystems(updates);
+        updates.addAll(group.subsystems);
         addDeployments(updates);
         addDeploymentOverlays(updates);
 
         return updates.model;
     }
 
+    /**
+     * Create the boot operations that are the same for all servers of the server group on this host. Deployments are
+     * not included, as adding them makes sure the content is available locally.
+     */
+    private ManagedServerBootOperationsCache.Entry createServerGroupUpdates(final ModelNode domainSnapshot, final ModelNode hostSnapshot) {
+        final ModelNodeList head = new ModelNodeList();
+        setServerGroupHost(head);
+        addNamespaces(head);
+        addProfileName(head);
+        addSchemaLocations(head);
+        addExtensions(head);
+
+        final ModelNodeList management = new ModelNodeList();
+        addVault(management);
+        addManagementSecurityRealms(management);
+        addAuditLog(management);
+        addManagementConnections(management);
+        addManagementAuthorization(management);
+
+        final ModelNodeList subsystems = new ModelNodeList();
+        addSubsystems(subsystems);
+
+        return new ManagedServerBootOperationsCache.Entry(domainSnapshot, hostSnapshot, head, management, subsystems);
+    }
+
     private void setServerGroupHost(ModelNodeList updates) {
         ModelNode op = Util.createEmptyOperation(SetServerGroupHostHandler.OPERATION_NAME, null);
         op.get(SERVER_GROUP).set(serverGroupName);
@@ -861,7 +910,7 @@ public final class ManagedServerOperationsFactory {
         }
     }
 
-    private class ModelNodeList extends AbstractList<ModelNode> implements List<ModelNode> {
+    private static class ModelNodeList extends AbstractList<ModelNode> implements List<ModelNode> {
 
 
         private final ModelNode model = new ModelNode().setEmptyList();
@@ -59,11 +59,13 @@ import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.FutureManagementChannel;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
+import org.jboss.as.protocol.mgmt.ManagementCompressionRequest;
 import org.jboss.as.protocol.mgmt.ManagementPingRequest;
 import org.jboss.as.protocol.mgmt.ManagementPongRequestHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.Connection;
 import org.jboss.threads.AsyncFuture;
@@ -80,6 +82,7 @@ class RemoteDomainConnection extends FutureManagementChannel {
     private static final String CHANNEL_SERVICE_TYPE = ManagementRemotingServices.DOMAIN_CHANNEL;
     private static final long INTERVAL;
     private static final long TIMEOUT;
+    private static final int COMPRESSION_THRESHOLD;
 
     static {
         long interval = -1;
@@ -98,6 +101,14 @@ class RemoteDomainConnection extends FutureManagementChannel {
         } finally {
             TIMEOUT = timeout > 0 ? timeout : 30000;
         }
+        int threshold = -1;
+        try {
+            threshold = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.compression.threshold", "-1"));
+        } catch (Exception e) {
+            // TODO log
+        } finally {
+            COMPRESSION_THRESHOLD = threshold >= 0 ? threshold : -1;
+        }
     }
     private final String localHostName;
     private final String username;
@@ -222,6 +233,11 @@ class RemoteDomainConnection extends FutureManagementChannel {
             channel.receiveMessage(channelHandler.getReceiver());
             channel.addCloseHandler(channelHandler);
             try {
+                // The domain controller may be a different process, or version, than before
+                channelHandler.disableCompression();
+                if (COMPRESSION_THRESHOLD >= 0) {
+                    negotiateCompression();
+                }
                 if (runningMode == RunningMode.ADMIN_ONLY) {
                     // Fetch the domain configuration
                     channelHandler.executeRequest(new FetchDomainConfigurationRequest(), null).getResult().get();
@@ -242,9 +258,24 @@ class RemoteDomainConnection extends FutureManagementChannel {
         }
     }
 
+    /**
+     * Compress the messages sent to the domain controller if it supports compressed messages, which it then also
+     * uses for its responses if configured.
+     */
+    private void negotiateCompression() throws InterruptedException {
+        try {
+            channelHandler.executeRequest(ManagementCompressionRequest.INSTANCE, null).getResult().get();
+            channelHandler.enableCompression(COMPRESSION_THRESHOLD);
+        } catch (ExecutionException e) {
+            // The domain controller does not support compressed messages
+            HostControllerLogger.ROOT_LOGGER.debugf(e, "Not compressing messages sent to the domain controller");
+        }
+    }
+
     protected Future<Connection> reconnect() {
         // Reset the connection state
         channelHandler.getAttachments().removeAttachment(TransactionalProtocolClient.SEND_SUBJECT);
+        callback.connectionLost();
         return executorService.submit(new Callable<Connection>() {
             @Override
             public Connection call() throws Exception {
@@ -307,6 +338,12 @@ class RemoteDomainConnection extends FutureManagementChannel {
         if(! result.hasDefined(ModelDescriptionConstants.RESULT)) {
             return false;
         }
+        final ModelNode domainModel = result.get(ModelDescriptionConstants.RESULT);
+        if (domainModel.getType() == ModelType.OBJECT && domainModel.hasDefined(RemoteDomainConnectionService.DOMAIN_MODEL_DIGEST)) {
+            // The master only sends the digest we provided if our model is up to date
+            HostControllerLogger.ROOT_LOGGER.debugf("Domain model is up to date with the master, skipping synchronization");
+            return true;
+        }
         final List<ModelNode> bootOperations= result.get(ModelDescriptionConstants.RESULT).asList();
         return callback.applyDomainModel(bootOperations);
     }
@@ -338,6 +375,13 @@ class RemoteDomainConnection extends FutureManagementChannel {
          */
         boolean applyDomainModel(List<ModelNode> result);
 
+        /**
+         * Get the digest of the local domain model, see {@link org.jboss.as.domain.controller.operations.DomainModelDigest}.
+         *
+         * @return the digest, or {@code null} if the complete domain model is needed
+         */
+        String getDomainModelDigest();
+
         /**
          * Event that the registration was completed.
          *
@@ -345,6 +389,11 @@ class RemoteDomainConnection extends FutureManagementChannel {
          */
         void registrationComplete(ManagementChannelHandler handler);
 
+        /**
+         * Event that the connection to the remote domain controller was lost.
+         */
+        void connectionLost();
+
         /**
          * Recalculates metadata as needed to reflect any local changes since boot
          * @return the current host metadata
@@ -363,6 +412,10 @@ class RemoteDomainConnection extends FutureManagementChannel {
              output.writeUTF(localHostName);
              ModelNode hostInfo = callback.createLocalHostInfo();
              hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).set(pongHandler.getConnectionId());
+             final String domainModelDigest = callback.getDomainModelDigest();
+             if (domainModelDigest != null) {
+                 hostInfo.get(RemoteDomainConnectionService.DOMAIN_MODEL_DIGEST).set(domainModelDigest);
+             }
              hostInfo.writeExternal(output);
          }
 
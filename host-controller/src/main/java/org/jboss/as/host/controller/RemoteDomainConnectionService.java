@@ -34,10 +34,13 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUT
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
+import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
 
 import java.io.DataInput;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.Iterator;
 import java.util.List;
@@ -46,6 +49,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.SSLHandshakeException;
 import javax.security.sasl.SaslException;
@@ -78,9 +82,11 @@ import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
 import org.jboss.as.domain.controller.operations.FetchMissingConfigurationHandler;
+import org.jboss.as.domain.controller.operations.DomainModelDigest;
 import org.jboss.as.domain.controller.operations.SyncDomainModelOperationHandler;
 import org.jboss.as.domain.controller.operations.SyncServerGroupOperationHandler;
 import org.jboss.as.domain.controller.operations.coordination.DomainControllerLockIdUtils;
+import org.jboss.as.domain.controller.operations.coordination.DomainModelReplicaState;
 import org.jboss.as.domain.controller.operations.deployment.SyncModelParameters;
 import org.jboss.as.domain.management.SecurityRealm;
 import org.jboss.as.host.controller.discovery.DiscoveryOption;
@@ -99,6 +105,8 @@ import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
+import org.jboss.as.repository.ContentChunk;
+import org.jboss.as.repository.ContentChunkIndex;
 import org.jboss.as.repository.ContentReference;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.repository.HostFileRepository;
@@ -131,10 +139,13 @@ import org.xnio.Options;
 public class RemoteDomainConnectionService implements MasterDomainControllerClient, Service<MasterDomainControllerClient> {
 
     public static final String DOMAIN_CONNECTION_ID = "domain-connection-id";
+    public static final String DOMAIN_MODEL_DIGEST = "domain-model-digest";
 
     private static final int CONNECTION_TIMEOUT_DEFAULT = 30000;
     private static final String CONNECTION_TIMEOUT_PROPERTY = "jboss.host.domain.connection.timeout";
     private static final int CONNECTION_TIMEOUT = getSystemProperty(CONNECTION_TIMEOUT_PROPERTY, CONNECTION_TIMEOUT_DEFAULT);
+    /** Consecutive chunk index request failures after which deployment content is always fetched in full */
+    private static final int MAX_CHUNK_INDEX_FAILURES = 3;
 
     //private static final ModelNode APPLY_EXTENSIONS = new ModelNode();
     private static final ModelNode APPLY_DOMAIN_MODEL = new ModelNode();
@@ -172,6 +183,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final RunningMode runningMode;
     private final File tempDir;
     private final Map<String, ProxyController> serverProxies;
+    private final DomainModelReplicaState replicaState;
 
     /** Used to invoke ModelController ops on the master */
     private volatile ModelControllerClient masterProxy;
@@ -187,6 +199,14 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private ManagementChannelHandler handler;
     private volatile ResponseAttachmentInputStreamSupport responseAttachmentSupport;
     private volatile RemoteDomainConnection connection;
+    /**
+     * Consecutive failures to get a chunk index from the current master. Once it reaches
+     * {@link #MAX_CHUNK_INDEX_FAILURES} the master most likely does not support chunked transfer, and deployment
+     * content is fetched in full until the next registration
+     */
+    private final AtomicInteger chunkIndexFailures = new AtomicInteger();
+    /** Whether the local domain model was synchronized with a master, so that reconnecting may not need the complete model */
+    private volatile boolean domainModelApplied;
 
     private RemoteDomainConnectionService(final ModelController controller,
                                           final ExtensionRegistry extensionRegistry,
@@ -199,7 +219,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                                           final HostControllerEnvironment hostControllerEnvironment,
                                           final ExecutorService executor,
                                           final RunningMode runningMode,
-                                          final Map<String, ProxyController> serverProxies){
+                                          final Map<String, ProxyController> serverProxies,
+                                          final DomainModelReplicaState replicaState){
         this.controller = controller;
         this.extensionRegistry = extensionRegistry;
         this.productConfig = hostControllerEnvironment.getProductConfig();
@@ -215,6 +236,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         this.runningMode = runningMode;
         this.tempDir = hostControllerEnvironment.getDomainTempDir();
         this.serverProxies = serverProxies;
+        this.replicaState = replicaState;
     }
 
     static Future<MasterDomainControllerClient> install(final ServiceTarget serviceTarget,
@@ -230,11 +252,12 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                                                         final HostControllerEnvironment hostControllerEnvironment,
                                                         final ExecutorService executor,
                                                         final RunningMode currentRunningMode,
-                                                        final Map<String, ProxyController> serverProxies) {
+                                                        final Map<String, ProxyController> serverProxies,
+                                                        final DomainModelReplicaState replicaState) {
         RemoteDomainConnectionService service = new RemoteDomainConnectionService(controller, extensionRegistry, localHostControllerInfo,
                 remoteFileRepository, contentRepository,
                 ignoredDomainResourceRegistry, operationExecutor, domainController,
-                hostControllerEnvironment, executor, currentRunningMode, serverProxies);
+                hostControllerEnvironment, executor, currentRunningMode, serverProxies, replicaState);
         ServiceBuilder<MasterDomainControllerClient> builder = serviceTarget.addService(MasterDomainControllerClient.SERVICE_NAME, service)
                 .addDependency(ManagementRemotingServices.MANAGEMENT_ENDPOINT, Endpoint.class, service.endpointInjector)
                 .addDependency(ServerInventoryService.SERVICE_NAME, ServerInventory.class, service.serverInventoryInjector)
@@ -508,6 +531,11 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                     return resolveSubsystems(extensions.asList());
                 }
 
+                @Override
+                public String getDomainModelDigest() {
+                    return domainModelApplied ? DomainModelDigest.calculateLocal(operationExecutor) : null;
+                }
+
                 @Override
                 public boolean applyDomainModel(final List<ModelNode> bootOperations) {
                     // Apply the model..
@@ -517,7 +545,20 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
 
                 @Override
                 public void registrationComplete(ManagementChannelHandler handler) {
-                    //
+                    // We may have registered with a different master
+                    chunkIndexFailures.set(0);
+                    if (runningMode != RunningMode.ADMIN_ONLY) {
+                        // From now on the master keeps our domain model up to date
+                        replicaState.synchronizedWithMaster();
+                    } else {
+                        // The master does not update admin-only slaves, our copy ages from now on
+                        replicaState.copiedFromMaster();
+                    }
+                }
+
+                @Override
+                public void connectionLost() {
+                    replicaState.disconnectedFromMaster();
                 }
             }, runningMode);
             // Setup the management channel handler
@@ -578,6 +619,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 HostControllerLogger.ROOT_LOGGER.failedToApplyDomainConfig(outcome, failureDesc);
                 return false;
             } else {
+                domainModelApplied = true;
                 return true;
             }
         } catch (Exception e) {
@@ -710,6 +752,118 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
     }
 
+    private class GetContentChunkIndexRequest extends AbstractManagementRequest<ContentChunkIndex, Void> {
+        private final String hexHash;
+
+        private GetContentChunkIndexRequest(final String hexHash) {
+            this.hexHash = hexHash;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.GET_CONTENT_CHUNK_INDEX_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<ContentChunkIndex> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            output.write(DomainControllerProtocol.PARAM_FILE_PATH);
+            output.writeUTF(hexHash);
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<ContentChunkIndex> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            expectHeader(input, DomainControllerProtocol.PARAM_CHUNK_INDEX);
+            final boolean found = input.readBoolean();
+            resultHandler.done(found ? ContentChunkIndex.readFrom(input) : null);
+        }
+    }
+
+    private class GetContentChunksRequest extends AbstractManagementRequest<byte[], Void> {
+        private final ContentChunkIndex index;
+        private final List<ContentChunk> chunks;
+
+        private GetContentChunksRequest(final ContentChunkIndex index, final List<ContentChunk> chunks) {
+            this.index = index;
+            this.chunks = chunks;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.GET_CONTENT_CHUNKS_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<byte[]> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            output.write(DomainControllerProtocol.PARAM_FILE_PATH);
+            output.writeUTF(index.getContentHexHash());
+            output.write(DomainControllerProtocol.PARAM_NUM_CHUNKS);
+            output.writeInt(chunks.size());
+            for (ContentChunk chunk : chunks) {
+                output.writeLong(chunk.getOffset());
+                output.writeInt(chunk.getLength());
+            }
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<byte[]> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            expectHeader(input, DomainControllerProtocol.PARAM_NUM_CHUNKS);
+            final int numChunks = input.readInt();
+            if (numChunks < 0) {
+                // Not found on DC
+                resultHandler.done(null);
+            } else {
+                resultHandler.done(contentRepository.addContent(index, chunks, new DataInputAdapter(input)));
+            }
+        }
+    }
+
+    /**
+     * Exposes the response to a {@link GetContentChunksRequest} as a stream. {@link DataInput} cannot tell how many
+     * bytes are left, so reads are limited to what the underlying stream has buffered, and only block for one byte.
+     */
+    private static class DataInputAdapter extends InputStream {
+        private final DataInput input;
+
+        private DataInputAdapter(final DataInput input) {
+            this.input = input;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return input instanceof InputStream ? ((InputStream) input).available() : 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return input.readUnsignedByte();
+            } catch (EOFException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            final int first = read();
+            if (first == -1) {
+                return -1;
+            }
+            b[off] = (byte) first;
+            final int count = 1 + Math.min(len - 1, available());
+            if (count > 1) {
+                input.readFully(b, off + 1, count - 1);
+            }
+            return count;
+        }
+    }
+
     static class RemoteFileRepository implements HostFileRepository {
         private final HostFileRepository localFileRepository;
         private volatile RemoteFileRepositoryExecutor remoteFileRepositoryExecutor;
@@ -764,6 +918,12 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final RemoteFileRepositoryExecutor remoteFileRepositoryExecutor = new RemoteFileRepositoryExecutor() {
         public File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository) {
             if(connection.isConnected()) {
+                if (repoId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT && chunkIndexFailures.get() < MAX_CHUNK_INDEX_FAILURES) {
+                    final File root = fetchContentChunks(relativePath, localFileRepository);
+                    if (root != null) {
+                        return root;
+                    }
+                }
                 try {
                     return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
                 } catch (Exception e) {
@@ -773,6 +933,45 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 return localFileRepository.getFile(relativePath);
             }
         }
+
+        /**
+         * Fetches only the chunks of the deployment content that are not already part of some content in the local
+         * repository, and assembles the content from those and the local chunks.
+         *
+         * @return the deployment root, or {@code null} if the content should be fetched in full
+         */
+        private File fetchContentChunks(final String hexHash, final HostFileRepository localFileRepository) {
+            final ContentChunkIndex index;
+            try {
+                index = handler.executeRequest(new GetContentChunkIndexRequest(hexHash), null).getResult().get();
+            } catch (Exception e) {
+                // Either a transient failure, or a master that does not support chunked transfer, which fails every time
+                chunkIndexFailures.incrementAndGet();
+                HostControllerLogger.ROOT_LOGGER.cannotFetchContentChunks(e, hexHash);
+                return null;
+            }
+            chunkIndexFailures.set(0);
+            if (index == null) {
+                return null;
+            }
+            try {
+                final List<ContentChunk> missing = contentRepository.getMissingChunks(index);
+                if (missing.size() == index.getChunks().size()) {
+                    // Nothing to reuse
+                    return null;
+                }
+                final byte[] hash = handler.executeRequest(new GetContentChunksRequest(index, missing), null).getResult().get();
+                if (hash == null) {
+                    return null;
+                }
+                ROOT_LOGGER.debugf("Fetched %d of %d chunks of deployment content %s from the master", missing.size(), index.getChunks().size(), hexHash);
+                return localFileRepository.getDeploymentRoot(new ContentReference(hexHash, hash));
+            } catch (Exception e) {
+                // The master served the index, so it supports chunked transfer; only fall back for this content
+                HostControllerLogger.ROOT_LOGGER.cannotFetchContentChunks(e, hexHash);
+                return null;
+            }
+        }
     };
 
     private class FutureClient extends AsyncFutureTask<MasterDomainControllerClient>{
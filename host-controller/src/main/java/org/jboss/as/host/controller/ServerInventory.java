@@ -23,6 +23,7 @@
 package org.jboss.as.host.controller;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -83,6 +84,16 @@ public interface ServerInventory {
      */
     ServerStatus determineServerStatus(final String serverName);
 
+    /**
+     * Get the time the last start of a server with {@link #startServers(List, ModelNode, int, boolean)} took.
+     *
+     * @param serverName  the server name. Cannot be {@code null}
+     *
+     * @return the time in milliseconds the server took to reach the awaited state, or {@code null} if it was not
+     *         started that way or did not reach that state
+     */
+    Long getServerStartLatency(final String serverName);
+
     /**
      * Start the server with the given name. Note that returning from this method does not mean the server
      * is completely started; it usually will only be in the process of starting, having received all startup instructions.
@@ -103,6 +114,18 @@ public interface ServerInventory {
      */
     ServerStatus startServer(String serverName, ModelNode domainModel, boolean blocking);
 
+    /**
+     * Start the servers with the given names, in the given order. At most {@code maxParallel} servers are waited
+     * for at the same time; the next server is only started once an earlier one got far enough.
+     *
+     * @param serverNames the names of the servers
+     * @param domainModel the configuration model for the domain
+     * @param maxParallel the maximum number of servers starting at the same time
+     * @param blocking whether to wait for each server to be started, rather than for it to connect to the host controller
+     * @return the time in milliseconds each server took to reach the awaited state, by server name
+     */
+    Map<String, Long> startServers(List<String> serverNames, ModelNode domainModel, int maxParallel, boolean blocking);
+
     /**
      * Restart the server with the given name. Note that returning from this method does not mean the server
      * is completely started; it usually will only be in the process of starting, having received all startup instructions.
@@ -29,9 +29,12 @@ import java.io.IOException;
 import java.net.URI;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.ArrayDeque;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -86,6 +89,8 @@ public class ServerInventoryImpl implements ServerInventory {
 
     /** The managed servers. */
     private final ConcurrentMap<String, ManagedServer> servers = new ConcurrentHashMap<String, ManagedServer>();
+    /** The time in ms the last start of each server with startServers took */
+    private final ConcurrentMap<String, Long> startLatencies = new ConcurrentHashMap<String, Long>();
 
     private final HostControllerEnvironment environment;
     private final ProcessControllerClient processControllerClient;
@@ -163,6 +168,11 @@ public class ServerInventoryImpl implements ServerInventory {
         return server.getState();
     }
 
+    @Override
+    public Long getServerStartLatency(final String serverName) {
+        return startLatencies.get(serverName);
+    }
+
     @Override
     public ServerStatus startServer(final String serverName, final ModelNode domainModel) {
         return startServer(serverName, domainModel, false);
@@ -170,6 +180,55 @@ public class ServerInventoryImpl implements ServerInventory {
 
     @Override
     public ServerStatus startServer(final String serverName, final ModelNode domainModel, final boolean blocking) {
+        final ManagedServer server = doStartServer(serverName, domainModel);
+        if(blocking) {
+            // Block until the server started message
+            server.awaitState(ManagedServer.InternalState.SERVER_STARTED);
+        } else {
+            // Wait until the server opens the mgmt connection
+            server.awaitState(ManagedServer.InternalState.SERVER_STARTING);
+        }
+        return server.getState();
+    }
+
+    @Override
+    public Map<String, Long> startServers(final List<String> serverNames, final ModelNode domainModel, final int maxParallel, final boolean blocking) {
+        final ManagedServer.InternalState awaited = blocking ? ManagedServer.InternalState.SERVER_STARTED : ManagedServer.InternalState.SERVER_STARTING;
+        final Map<String, Long> latencies = new LinkedHashMap<String, Long>();
+        final Deque<ManagedServer> starting = new ArrayDeque<ManagedServer>();
+        final Map<ManagedServer, Long> startTimes = new HashMap<ManagedServer, Long>();
+        for (final String serverName : serverNames) {
+            if (starting.size() >= Math.max(1, maxParallel)) {
+                awaitServerStart(starting.poll(), awaited, startTimes, latencies);
+            }
+            try {
+                final long start = System.nanoTime();
+                final ManagedServer server = doStartServer(serverName, domainModel);
+                startTimes.put(server, start);
+                starting.add(server);
+            } catch (Exception e) {
+                startLatencies.remove(serverName);
+                HostControllerLogger.ROOT_LOGGER.failedToStartServer(e, serverName);
+            }
+        }
+        while (!starting.isEmpty()) {
+            awaitServerStart(starting.poll(), awaited, startTimes, latencies);
+        }
+        return latencies;
+    }
+
+    private void awaitServerStart(final ManagedServer server, final ManagedServer.InternalState awaited,
+                                  final Map<ManagedServer, Long> startTimes, final Map<String, Long> latencies) {
+        if (server.awaitState(awaited)) {
+            final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimes.get(server));
+            latencies.put(server.getServerName(), latency);
+            startLatencies.put(server.getServerName(), latency);
+        } else {
+            startLatencies.remove(server.getServerName());
+        }
+    }
+
+    private ManagedServer doStartServer(final String serverName, final ModelNode domainModel) {
         if(shutdown || connectionFinished) {
             throw HostControllerLogger.ROOT_LOGGER.hostAlreadyShutdown();
         }
@@ -201,14 +260,7 @@ public class ServerInventoryImpl implements ServerInventory {
         synchronized (shutdownCondition) {
             shutdownCondition.notifyAll();
         }
-        if(blocking) {
-            // Block until the server started message
-            server.awaitState(ManagedServer.InternalState.SERVER_STARTED);
-        } else {
-            // Wait until the server opens the mgmt connection
-            server.awaitState(ManagedServer.InternalState.SERVER_STARTING);
-        }
-        return server.getState();
+        return server;
     }
 
     @Override
@@ -1254,4 +1254,17 @@ public interface HostControllerLogger extends BasicLogger {
     @Message(id = 169, value = "Reload into running mode is not supported with embedded host controller, admin-only=true must be specified.")
     OperationFailedException embeddedHostControllerRestartMustProvideAdminOnlyTrue();
 
+    /**
+     * Logs a warning message indicating deployment content could not be fetched from the master in chunks.
+     *
+     * @param cause  the cause of the error.
+     * @param hash   the hash of the deployment content.
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 170, value = "Cannot fetch the changed chunks of deployment content %s from the master; falling back to a full transfer")
+    void cannotFetchContentChunks(@Cause Throwable cause, String hash);
+
+    @Message(id = 171, value = "Chunks of deployment content %s must be requested in content order")
+    IOException invalidContentChunksRequest(String hash);
+
 }
@@ -36,6 +36,8 @@ public interface DomainControllerProtocol extends ModelControllerProtocol {
     byte FETCH_DOMAIN_CONFIGURATION_REQUEST = 0x57;
     byte COMPLETE_HOST_CONTROLLER_REGISTRATION = 0x58;
     byte REQUEST_SUBSYSTEM_VERSIONS = 0x59;
+    byte GET_CONTENT_CHUNK_INDEX_REQUEST = 0x5A;
+    byte GET_CONTENT_CHUNKS_REQUEST = 0x5B;
 
     byte PARAM_HOST_ID = 0x20;
     byte PARAM_OK = 0x21;
@@ -49,4 +51,6 @@ public interface DomainControllerProtocol extends ModelControllerProtocol {
     byte FILE_START = 0x30;
     byte PARAM_FILE_SIZE = 0x31;
     byte FILE_END = 0x32;
+    byte PARAM_CHUNK_INDEX = 0x33;
+    byte PARAM_NUM_CHUNKS = 0x34;
 }
@@ -112,6 +112,7 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
     private final String productName;
     private final String productVersion;
     private final Long remoteConnectionId;
+    private final String domainModelDigest;
     private final Transformers.ResourceIgnoredTransformationRegistry ignoredResources;
     private final boolean ignoreUnaffectedConfig;
     private final Map<String, ServerConfigInfo> serverConfigInfos;
@@ -127,6 +128,8 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         productVersion = hostInfo.hasDefined(PRODUCT_VERSION) ? hostInfo.require(PRODUCT_VERSION).asString() : null;
         remoteConnectionId = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID)
                 ? hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).asLong() : null;
+        domainModelDigest = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_MODEL_DIGEST)
+                ? hostInfo.get(RemoteDomainConnectionService.DOMAIN_MODEL_DIGEST).asString() : null;
 
         ignoredResources = createIgnoredRegistry(hostInfo);
         ignoreUnaffectedConfig = hostInfo.hasDefined(IGNORE_UNUSED_CONFIG) ? hostInfo.get(IGNORE_UNUSED_CONFIG).asBoolean() : false;
@@ -175,6 +178,15 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         return remoteConnectionId;
     }
 
+    /**
+     * Gets the digest of the domain model the slave currently has.
+     *
+     * @return the digest, or {@code null} if the slave has no domain model yet
+     */
+    public String getDomainModelDigest() {
+        return domainModelDigest;
+    }
+
     public boolean isResourceTransformationIgnored(final PathAddress address) {
         // This resource transformation is only used when registering the host
         // Future operations will send an updated list of ignored-resources
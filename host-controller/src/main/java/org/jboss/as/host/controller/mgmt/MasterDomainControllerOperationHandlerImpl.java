@@ -21,8 +21,10 @@ package org.jboss.as.host.controller.mgmt;
 import static org.jboss.as.process.protocol.ProtocolUtils.expectHeader;
 
 import java.io.DataInput;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.Executor;
 
 import org.jboss.as.controller.HashUtil;
@@ -39,7 +41,9 @@ import org.jboss.as.protocol.mgmt.ManagementRequestHandlerFactory;
 import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.as.protocol.mgmt.RequestProcessingException;
+import org.jboss.as.repository.ContentChunkIndex;
 import org.jboss.as.repository.ContentReference;
+import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.repository.HostFileRepository;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.RootFileReader;
 
@@ -51,10 +55,13 @@ import org.jboss.as.repository.RemoteFileRequestAndHandler.RootFileReader;
 class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHandlerFactory {
 
     private final DomainController domainController;
+    private final ContentRepository contentRepository;
     private final Executor asyncExecutor;
 
-    public MasterDomainControllerOperationHandlerImpl(final DomainController domainController, final Executor asyncExecutor) {
+    public MasterDomainControllerOperationHandlerImpl(final DomainController domainController, final ContentRepository contentRepository,
+                                                      final Executor asyncExecutor) {
         this.domainController = domainController;
+        this.contentRepository = contentRepository;
         this.asyncExecutor = asyncExecutor;
     }
 
@@ -68,6 +75,12 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
             } case DomainControllerProtocol.GET_FILE_REQUEST: {
                 handlers.registerActiveOperation(header.getBatchId(), null);
                 return new GetFileOperation();
+            } case DomainControllerProtocol.GET_CONTENT_CHUNK_INDEX_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new GetContentChunkIndexOperation();
+            } case DomainControllerProtocol.GET_CONTENT_CHUNKS_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new GetContentChunksOperation();
             }
         }
         return handlers.resolveNext();
@@ -123,6 +136,117 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
         }
     }
 
+    /**
+     * Sends the chunk index of deployment content, allowing the slave to request only the chunks it does not have.
+     */
+    private class GetContentChunkIndexOperation extends AbstractHostRequestHandler {
+
+        @Override
+        void handleRequest(String hostId, DataInput input, final ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+            final String hexHash = input.readUTF();
+            DomainControllerLogger.ROOT_LOGGER.tracef("Handling GetContentChunkIndexOperation for %s with id %d from %s", hexHash, context.getOperationId(), hostId);
+            context.executeAsync(new ManagementRequestContext.AsyncTask<Void>() {
+                @Override
+                public void execute(ManagementRequestContext<Void> context) throws Exception {
+                    // Computing a missing index reads the whole content, so do not do it on the remoting thread
+                    final ContentChunkIndex index = contentRepository.getContentChunkIndex(HashUtil.hexStringToByteArray(hexHash));
+                    final FlushableDataOutput output = writeGenericResponseHeader(context);
+                    try {
+                        output.writeByte(DomainControllerProtocol.PARAM_CHUNK_INDEX);
+                        output.writeBoolean(index != null);
+                        if (index != null) {
+                            index.writeTo(output);
+                        }
+                        output.writeByte(ManagementProtocol.RESPONSE_END);
+                        output.close();
+                        resultHandler.done(null);
+                    } finally {
+                        StreamUtils.safeClose(output);
+                    }
+                }
+            }, asyncExecutor);
+        }
+    }
+
+    /**
+     * Streams the bytes of the requested chunks of deployment content. The chunks are requested in content order and
+     * identified by their offset and length in the content.
+     */
+    private class GetContentChunksOperation extends AbstractHostRequestHandler {
+
+        @Override
+        void handleRequest(String hostId, DataInput input, final ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+            final String hexHash = input.readUTF();
+            expectHeader(input, DomainControllerProtocol.PARAM_NUM_CHUNKS);
+            final int numChunks = input.readInt();
+            final long[] offsets = new long[numChunks];
+            final int[] lengths = new int[numChunks];
+            long previousEnd = 0;
+            for (int i = 0; i < numChunks; i++) {
+                offsets[i] = input.readLong();
+                lengths[i] = input.readInt();
+                if (offsets[i] < previousEnd || lengths[i] < 0) {
+                    throw HostControllerLogger.ROOT_LOGGER.invalidContentChunksRequest(hexHash);
+                }
+                previousEnd = offsets[i] + lengths[i];
+            }
+            DomainControllerLogger.ROOT_LOGGER.tracef("Handling GetContentChunksOperation for %d chunks of %s with id %d from %s", numChunks, hexHash, context.getOperationId(), hostId);
+            context.executeAsync(new ManagementRequestContext.AsyncTask<Void>() {
+                @Override
+                public void execute(ManagementRequestContext<Void> context) throws Exception {
+                    final byte[] hash = HashUtil.hexStringToByteArray(hexHash);
+                    final FlushableDataOutput output = writeGenericResponseHeader(context);
+                    try {
+                        output.writeByte(DomainControllerProtocol.PARAM_NUM_CHUNKS);
+                        if (!contentRepository.hasContent(hash)) {
+                            output.writeInt(-1);
+                        } else {
+                            output.writeInt(numChunks);
+                            try (InputStream in = contentRepository.getContent(hash).openStream()) {
+                                writeChunks(in, output, offsets, lengths);
+                            }
+                        }
+                        output.writeByte(ManagementProtocol.RESPONSE_END);
+                        output.close();
+                        resultHandler.done(null);
+                    } finally {
+                        StreamUtils.safeClose(output);
+                    }
+                }
+            }, asyncExecutor);
+        }
+
+        private void writeChunks(final InputStream in, final FlushableDataOutput output, final long[] offsets, final int[] lengths) throws IOException {
+            final byte[] buffer = new byte[8192];
+            long position = 0;
+            for (int i = 0; i < offsets.length; i++) {
+                while (position < offsets[i]) {
+                    final long skipped = in.skip(offsets[i] - position);
+                    if (skipped <= 0) {
+                        if (in.read() < 0) {
+                            throw new EOFException();
+                        }
+                        position++;
+                    } else {
+                        position += skipped;
+                    }
+                }
+                int remaining = lengths[i];
+                while (remaining > 0) {
+                    final int read = in.read(buffer, 0, Math.min(remaining, buffer.length));
+                    if (read < 0) {
+                        throw new EOFException();
+                    }
+                    output.write(buffer, 0, read);
+                    remaining -= read;
+                    position += read;
+                }
+            }
+        }
+    }
+
     abstract static class AbstractHostRequestHandler implements ManagementRequestHandler<Void, Void> {
 
         abstract void handleRequest(final String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException;
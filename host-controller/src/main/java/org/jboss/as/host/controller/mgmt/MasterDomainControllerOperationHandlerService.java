@@ -48,13 +48,16 @@ import org.jboss.as.host.controller.logging.HostControllerLogger;
 import org.jboss.as.protocol.mgmt.ManagementChannelAssociation;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
 import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy;
+import org.jboss.as.protocol.mgmt.ManagementCompressionRequestHandler;
 import org.jboss.as.protocol.mgmt.ManagementPongRequestHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
+import org.jboss.as.repository.ContentRepository;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.remoting3.Channel;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Installs {@link MasterDomainControllerOperationHandlerImpl} which handles requests from slave DC to master DC.
@@ -65,17 +68,34 @@ public class MasterDomainControllerOperationHandlerService extends AbstractModel
 
     public static final ServiceName SERVICE_NAME = DomainController.SERVICE_NAME.append(ModelControllerClientOperationHandlerFactoryService.OPERATION_HANDLER_NAME_SUFFIX);
 
+    /** The size in bytes above which messages sent to slaves which support it get compressed, {@code -1} if disabled. */
+    private static final int COMPRESSION_THRESHOLD;
+
+    static {
+        int threshold = -1;
+        try {
+            threshold = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.compression.threshold", "-1"));
+        } catch (Exception e) {
+            // use the default
+        } finally {
+            COMPRESSION_THRESHOLD = threshold >= 0 ? threshold : -1;
+        }
+    }
+
     private final DomainController domainController;
+    private final ContentRepository contentRepository;
     private final HostControllerRegistrationHandler.OperationExecutor operationExecutor;
     private final TransactionalOperationExecutor txOperationExecutor;
     private final ManagementPongRequestHandler pongRequestHandler = new ManagementPongRequestHandler();
     private final File tempDir;
     private final HostRegistrations slaveHostRegistrations;
 
-    public MasterDomainControllerOperationHandlerService(final DomainController domainController, final HostControllerRegistrationHandler.OperationExecutor operationExecutor,
+    public MasterDomainControllerOperationHandlerService(final DomainController domainController, final ContentRepository contentRepository,
+                                                         final HostControllerRegistrationHandler.OperationExecutor operationExecutor,
                                                          TransactionalOperationExecutor txOperationExecutor,
                                                          final File tempDir, final HostRegistrations slaveHostRegistrations) {
         this.domainController = domainController;
+        this.contentRepository = contentRepository;
         this.operationExecutor = operationExecutor;
         this.txOperationExecutor = txOperationExecutor;
         this.tempDir = tempDir;
@@ -96,8 +116,9 @@ public class MasterDomainControllerOperationHandlerService extends AbstractModel
         handler.addHandlerFactory(new HostControllerRegistrationHandler(handler, domainController, operationExecutor,
                 getExecutor(), slaveHostRegistrations));
         handler.addHandlerFactory(new ModelControllerClientOperationHandler(getController(), handler, getResponseAttachmentSupport(), getClientRequestExecutor()));
-        handler.addHandlerFactory(new MasterDomainControllerOperationHandlerImpl(domainController, getExecutor()));
+        handler.addHandlerFactory(new MasterDomainControllerOperationHandlerImpl(domainController, contentRepository, getExecutor()));
         handler.addHandlerFactory(pongRequestHandler);
+        handler.addHandlerFactory(new ManagementCompressionRequestHandler(handler, COMPRESSION_THRESHOLD));
         handler.addHandlerFactory(new DomainTransactionalProtocolOperationHandler(txOperationExecutor, handler, getResponseAttachmentSupport()));
         channel.receiveMessage(handler.getReceiver());
         return handler;
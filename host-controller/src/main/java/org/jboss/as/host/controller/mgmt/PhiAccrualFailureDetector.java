@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+/**
+ * A phi accrual failure detector based on the round trip times of the pings sent to a host.
+ * <p>
+ * Rather than a fixed timeout, the detector expresses how suspicious it is of an outstanding ping as
+ * {@code phi = -log10(P(a round trip takes at least this long))}, assuming normally distributed round trip
+ * times. The expected round trip time is increased by an acceptable pause, so that a short GC pause on the remote
+ * host does not immediately make it suspect.
+ * <p>
+ * Besides the sliding window used for phi, all round trips are counted in power of two millisecond buckets.
+ */
+public final class PhiAccrualFailureDetector {
+
+    /** Bucket 0 counts round trips below 1ms; bucket {@code i} counts round trips in [2^(i-1), 2^i) ms. */
+    static final int BUCKETS = 20;
+
+    private static final double MIN_STANDARD_DEVIATION = 100;
+
+    private final long acceptablePause;
+    private final long[] window;
+    private final long[] buckets = new long[BUCKETS];
+    private int next;
+    private int size;
+    private double sum;
+    private double squaredSum;
+    private long count;
+    private long max;
+
+    public PhiAccrualFailureDetector(final int windowSize, final long acceptablePause) {
+        this.window = new long[windowSize];
+        this.acceptablePause = acceptablePause;
+    }
+
+    /**
+     * Record the round trip time of a ping.
+     *
+     * @param millis the round trip time in milliseconds
+     */
+    public synchronized void recordRoundTrip(final long millis) {
+        final long rtt = Math.max(0L, millis);
+        if (size == window.length) {
+            final long evicted = window[next];
+            sum -= evicted;
+            squaredSum -= (double) evicted * evicted;
+        } else {
+            size++;
+        }
+        window[next] = rtt;
+        next = (next + 1) % window.length;
+        sum += rtt;
+        squaredSum += (double) rtt * rtt;
+        count++;
+        max = Math.max(max, rtt);
+        buckets[bucketFor(rtt)]++;
+    }
+
+    /**
+     * Get the suspicion level for a ping that has been outstanding for the given time.
+     *
+     * @param elapsed the time since the ping was sent, in milliseconds
+     * @return the phi value, or {@code 0} if no round trip was recorded yet
+     */
+    public synchronized double phi(final long elapsed) {
+        if (size == 0) {
+            return 0.0;
+        }
+        final double mean = sum / size + acceptablePause;
+        final double standardDeviation = Math.max(MIN_STANDARD_DEVIATION, getStandardDeviation());
+        // Logistic approximation of the cumulative normal distribution
+        final double y = (elapsed - mean) / standardDeviation;
+        final double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        if (elapsed > mean) {
+            return -Math.log10(e / (1.0 + e));
+        } else {
+            return -Math.log10(1.0 - 1.0 / (1.0 + e));
+        }
+    }
+
+    public synchronized int getWindowSize() {
+        return size;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized double getMean() {
+        return size == 0 ? 0.0 : sum / size;
+    }
+
+    public synchronized double getStandardDeviation() {
+        if (size == 0) {
+            return 0.0;
+        }
+        final double mean = sum / size;
+        return Math.sqrt(Math.max(0.0, squaredSum / size - mean * mean));
+    }
+
+    public synchronized long[] getBuckets() {
+        return buckets.clone();
+    }
+
+    static int bucketFor(final long millis) {
+        if (millis <= 0) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+    }
+}
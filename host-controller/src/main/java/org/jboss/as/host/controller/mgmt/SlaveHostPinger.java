@@ -47,6 +47,17 @@ public class SlaveHostPinger {
     public static final long STD_INTERVAL;
     public static final long STD_TIMEOUT;
     public static final long SHORT_TIMEOUT = 10000;
+    /**
+     * The phi above which an outstanding ping fails the connection before the timeout is reached, {@code 0} to
+     * only use the timeout. See {@link PhiAccrualFailureDetector}.
+     */
+    public static final double PHI_THRESHOLD;
+    /** The pause of the slave the failure detector accepts on top of the observed round trip times. */
+    public static final long ACCEPTABLE_PAUSE;
+
+    private static final int ROUND_TRIP_WINDOW = 100;
+    private static final int MIN_ROUND_TRIPS = 5;
+    private static final long WAIT_SLICE = 500;
 
     static {
         long interval = -1;
@@ -66,11 +77,28 @@ public class SlaveHostPinger {
         } finally {
             STD_TIMEOUT = timeout > 0 ? timeout : 30000;
         }
+        double threshold = 0;
+        try {
+            threshold = Double.parseDouble(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.ping.phi-threshold", "0"));
+        } catch (Exception e) {
+            // use the default
+        } finally {
+            PHI_THRESHOLD = threshold > 0 ? threshold : 0;
+        }
+        long pause = -1;
+        try {
+            pause = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.ping.acceptable-pause", "10000"));
+        } catch (Exception e) {
+            // use the default
+        } finally {
+            ACCEPTABLE_PAUSE = pause >= 0 ? pause : 10000;
+        }
     }
 
     private final String hostName;
     private final ManagementChannelHandler channelHandler;
     private final ScheduledExecutorService scheduler;
+    private final PhiAccrualFailureDetector failureDetector = new PhiAccrualFailureDetector(ROUND_TRIP_WINDOW, ACCEPTABLE_PAUSE);
 
     private volatile Long remoteConnectionID;
     private volatile boolean cancelled;
@@ -91,6 +119,19 @@ public class SlaveHostPinger {
         scheduler.schedule(task, delay, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Get the failure detector, which also keeps the round trip times of the pings sent over this connection.
+     *
+     * @return the failure detector
+     */
+    public PhiAccrualFailureDetector getFailureDetector() {
+        return failureDetector;
+    }
+
+    public ManagementChannelHandler getChannelHandler() {
+        return channelHandler;
+    }
+
     public boolean isCancelled() {
         return cancelled;
     }
@@ -103,6 +144,7 @@ public class SlaveHostPinger {
 
         private final long timeout;
         private final long interval;
+        private long waited;
 
         private PingTask(long timeout, long interval) {
             this.timeout = timeout;
@@ -116,8 +158,10 @@ public class SlaveHostPinger {
                 AsyncFuture<Long> future = null;
                 try {
                     if (interval < 1 || System.currentTimeMillis() - channelHandler.getLastMessageReceivedTime() > interval) {
+                        final long sent = System.nanoTime();
                         future = channelHandler.executeRequest(ManagementPingRequest.INSTANCE, null).getResult();
-                        Long id = future.get(timeout, TimeUnit.MILLISECONDS);
+                        Long id = awaitResponse(future);
+                        failureDetector.recordRoundTrip(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent));
                         if (!cancelled && remoteConnectionID != null && !remoteConnectionID.equals(id)) {
                             HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerChanged(hostName);
                             fail = true;
@@ -135,7 +179,7 @@ public class SlaveHostPinger {
                 } catch (TimeoutException e) {
                     if (!cancelled) {
                         fail = true;
-                        HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerUnreachable(hostName, timeout);
+                        HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerUnreachable(hostName, waited);
                     }
                     safeCancel(future);
                 } finally {
@@ -154,6 +198,31 @@ public class SlaveHostPinger {
             }
         }
 
+        /**
+         * Wait for the ping response until the timeout is reached or the failure detector suspects the host.
+         * The wait is split into slices and only the time spent waiting is counted, so that a pause of this
+         * process (e.g. for GC) does not count against the slave.
+         */
+        private Long awaitResponse(final Future<Long> future) throws InterruptedException, ExecutionException, TimeoutException {
+            waited = 0;
+            for (;;) {
+                final long slice = Math.min(WAIT_SLICE, timeout - waited);
+                try {
+                    return future.get(slice, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    waited += slice;
+                    if (waited >= timeout || isSuspect(waited)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        private boolean isSuspect(final long elapsed) {
+            return PHI_THRESHOLD > 0 && failureDetector.getWindowSize() >= MIN_ROUND_TRIPS
+                    && failureDetector.phi(elapsed) > PHI_THRESHOLD;
+        }
+
         void safeCancel(Future<?> future) {
             if (future != null) {
                 future.cancel(true);
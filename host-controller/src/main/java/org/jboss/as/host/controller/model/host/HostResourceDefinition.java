@@ -82,6 +82,7 @@ import org.jboss.as.host.controller.discovery.DiscoveryOptionsResourceDefinition
 import org.jboss.as.host.controller.discovery.StaticDiscoveryResourceDefinition;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
 import org.jboss.as.host.controller.model.jvm.JvmResourceDefinition;
+import org.jboss.as.host.controller.operations.AggregateServerAttributeHandler;
 import org.jboss.as.host.controller.operations.HostShutdownHandler;
 import org.jboss.as.host.controller.operations.HostSpecifiedInterfaceAddHandler;
 import org.jboss.as.host.controller.operations.HostSpecifiedInterfaceRemoveHandler;
@@ -325,6 +326,8 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
         StartServersHandler ssh = new StartServersHandler(environment, serverInventory, runningModeControl);
         hostRegistration.registerOperationHandler(StartServersHandler.DEFINITION, ssh);
 
+        hostRegistration.registerOperationHandler(AggregateServerAttributeHandler.DEFINITION, AggregateServerAttributeHandler.INSTANCE);
+
         if (environment.getProcessType() != ProcessType.EMBEDDED_HOST_CONTROLLER) {
             HostShutdownHandler hsh = new HostShutdownHandler(domainController);
             hostRegistration.registerOperationHandler(HostShutdownHandler.DEFINITION, hsh);
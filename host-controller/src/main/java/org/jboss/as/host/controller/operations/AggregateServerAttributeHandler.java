@@ -0,0 +1,299 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.PrimitiveListAttributeDefinition;
+import org.jboss.as.controller.ProxyController;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.TransformingProxyController;
+import org.jboss.as.controller.client.OperationAttachments;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.remote.BlockingQueueOperationListener;
+import org.jboss.as.controller.remote.TransactionalOperationImpl;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationTransformer;
+import org.jboss.as.host.controller.descriptions.HostResolver;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.threads.AsyncFuture;
+
+/**
+ * Reads a numeric attribute from all running servers of the host, and only returns aggregates of the
+ * values, such as their sum or percentiles. Run against all hosts, e.g. from a monitoring dashboard, the domain
+ * controller then receives one small result per host instead of the responses of every server.
+ */
+public class AggregateServerAttributeHandler implements OperationStepHandler {
+
+    public static final String OPERATION_NAME = "aggregate-server-attribute";
+
+    static final String AVERAGE = "average";
+    static final String COUNT = "count";
+    static final String MAX = "max";
+    static final String MIN = "min";
+    static final String PERCENTILES = "percentiles";
+    static final String SERVERS = "servers";
+    static final String SUM = "sum";
+
+    private static final SimpleAttributeDefinition ADDRESS_DEF = SimpleAttributeDefinitionBuilder.create(ADDRESS, ModelType.LIST, true)
+            .build();
+
+    private static final SimpleAttributeDefinition NAME_DEF = SimpleAttributeDefinitionBuilder.create(NAME, ModelType.STRING, false)
+            .build();
+
+    private static final SimpleAttributeDefinition SERVER_GROUP_DEF = SimpleAttributeDefinitionBuilder.create(SERVER_GROUP, ModelType.STRING, true)
+            .build();
+
+    private static final PrimitiveListAttributeDefinition PERCENTILES_DEF = PrimitiveListAttributeDefinition.Builder.of(PERCENTILES, ModelType.DOUBLE)
+            .setAllowNull(true)
+            .build();
+
+    public static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(OPERATION_NAME, HostResolver.getResolver("host"))
+            .setParameters(ADDRESS_DEF, NAME_DEF, SERVER_GROUP_DEF, PERCENTILES_DEF)
+            .setReplyType(ModelType.OBJECT)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
+    public static final AggregateServerAttributeHandler INSTANCE = new AggregateServerAttributeHandler();
+
+    private AggregateServerAttributeHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress relativeAddress = operation.hasDefined(ADDRESS) ? PathAddress.pathAddress(operation.get(ADDRESS)) : PathAddress.EMPTY_ADDRESS;
+        final String attributeName = NAME_DEF.resolveModelAttribute(context, operation).asString();
+        final ModelNode groupNode = SERVER_GROUP_DEF.resolveModelAttribute(context, operation);
+        final String groupName = groupNode.isDefined() ? groupNode.asString() : null;
+        final List<ModelNode> percentiles = operation.hasDefined(PERCENTILES) ? operation.get(PERCENTILES).asList() : Collections.<ModelNode>emptyList();
+
+        final Map<String, ModelNode> responses = new LinkedHashMap<String, ModelNode>();
+        final List<ServerRead> reads = new ArrayList<ServerRead>();
+        for (String serverName : context.readResource(PathAddress.EMPTY_ADDRESS, false).getChildrenNames(SERVER_CONFIG)) {
+            if (groupName != null) {
+                final ModelNode config = context.readResource(PathAddress.pathAddress(PathElement.pathElement(SERVER_CONFIG, serverName)), false).getModel();
+                if (!groupName.equals(config.get(GROUP).asString())) {
+                    continue;
+                }
+            }
+            final PathAddress serverAddress = context.getCurrentAddress().append(PathElement.pathElement(SERVER, serverName));
+            final ProxyController proxy = context.getRootResourceRegistration().getProxyController(serverAddress);
+            if (!(proxy instanceof TransformingProxyController)) {
+                // Not running
+                continue;
+            }
+            final ModelNode read = Util.getReadAttributeOperation(serverAddress.append(relativeAddress), attributeName);
+            if (operation.hasDefined(OPERATION_HEADERS)) {
+                read.get(OPERATION_HEADERS).set(operation.get(OPERATION_HEADERS));
+            }
+            // Transform and translate the read to the address of the server, as the ProxyStepHandler would
+            final TransformingProxyController proxyController = (TransformingProxyController) proxy;
+            final OperationTransformer.TransformedOperation transformed = proxyController.transformOperation(context, read);
+            if (transformed.getTransformedOperation() == null) {
+                // Discarded for the version of this server
+                continue;
+            }
+            final ModelNode response = new ModelNode();
+            responses.put(serverName, response);
+            reads.add(new ServerRead(proxyController.getProtocolClient(), transformed, response));
+        }
+
+        if (!readAll(reads)) {
+            Thread.currentThread().interrupt();
+            throw new OperationFailedException(ControllerLogger.ROOT_LOGGER.operationCancelled());
+        }
+        context.getResult().set(aggregate(responses, percentiles));
+        context.stepCompleted();
+    }
+
+    /**
+     * Send the reads to all servers before waiting for any of them, so that a read takes as long as the slowest server
+     * instead of the sum of all of them. The reads are sent from the thread executing this operation, so the servers
+     * authorize them for the same caller as a read proxied through the ProxyStepHandler. A failure to read from one
+     * server is reported in the aggregated result instead of failing the whole operation, as the other servers may
+     * still provide meaningful values.
+     *
+     * @param reads the reads to execute
+     * @return {@code false} if interrupted while waiting for the servers, in which case the reads were cancelled
+     */
+    static boolean readAll(final List<ServerRead> reads) {
+        final BlockingQueueOperationListener<ServerRead> listener = new BlockingQueueOperationListener<ServerRead>();
+        final List<AsyncFuture<OperationResponse>> futures = new ArrayList<AsyncFuture<OperationResponse>>(reads.size());
+        final List<TransactionalProtocolClient.PreparedOperation<ServerRead>> prepared = new ArrayList<TransactionalProtocolClient.PreparedOperation<ServerRead>>(reads.size());
+        for (ServerRead read : reads) {
+            try {
+                futures.add(read.client.execute(listener, read));
+            } catch (IOException e) {
+                listener.operationPrepared(BlockingQueueOperationListener.FailedOperation.create(read, e));
+            }
+        }
+        try {
+            while (prepared.size() < reads.size()) {
+                prepared.add(listener.retrievePreparedOperation());
+            }
+        } catch (InterruptedException e) {
+            for (AsyncFuture<OperationResponse> future : futures) {
+                future.asyncCancel(true);
+            }
+            for (TransactionalProtocolClient.PreparedOperation<ServerRead> result : prepared) {
+                if (!result.isFailed()) {
+                    result.rollback();
+                }
+            }
+            return false;
+        }
+        // All servers are prepared, let them complete the reads
+        for (TransactionalProtocolClient.PreparedOperation<ServerRead> result : prepared) {
+            if (!result.isFailed()) {
+                result.commit();
+            }
+        }
+        boolean interrupted = false;
+        for (TransactionalProtocolClient.PreparedOperation<ServerRead> result : prepared) {
+            final ServerRead read = result.getOperation();
+            ModelNode response;
+            if (result.isFailed()) {
+                response = result.getPreparedResult();
+            } else if (read.transformed.rejectOperation(result.getPreparedResult())) {
+                response = new ModelNode();
+                response.get(OUTCOME).set(FAILED);
+                response.get(FAILURE_DESCRIPTION).set(read.transformed.getFailureDescription());
+            } else {
+                try {
+                    response = read.transformed.transformResult(result.getFinalResult().get().getResponseNode());
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    response = new ModelNode();
+                    response.get(OUTCOME).set(FAILED);
+                    response.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.operationCancelled());
+                } catch (ExecutionException e) {
+                    response = BlockingQueueOperationListener.FailedOperation.create(read, e).getPreparedResult();
+                }
+            }
+            read.response.set(response);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    /**
+     * The read of one server, the response is set once the read completed.
+     */
+    static class ServerRead extends TransactionalOperationImpl {
+
+        private final TransactionalProtocolClient client;
+        private final OperationTransformer.TransformedOperation transformed;
+        private final ModelNode response;
+
+        ServerRead(final TransactionalProtocolClient client, final OperationTransformer.TransformedOperation transformed, final ModelNode response) {
+            super(transformed.getTransformedOperation(), OperationMessageHandler.DISCARD, OperationAttachments.EMPTY);
+            this.client = client;
+            this.transformed = transformed;
+            this.response = response;
+        }
+    }
+
+    /**
+     * Aggregate the numeric results of the server responses. Undefined and non numeric results are not counted.
+     *
+     * @param responses the responses by server name
+     * @param percentiles the percentiles to compute, between 0 and 100
+     * @return the aggregated result
+     */
+    static ModelNode aggregate(final Map<String, ModelNode> responses, final List<ModelNode> percentiles) {
+        final ModelNode result = new ModelNode();
+        final List<Double> values = new ArrayList<Double>(responses.size());
+        double sum = 0;
+        for (Map.Entry<String, ModelNode> entry : responses.entrySet()) {
+            final ModelNode response = entry.getValue();
+            if (!SUCCESS.equals(response.get(OUTCOME).asString())) {
+                result.get(FAILED, entry.getKey()).set(response.get(FAILURE_DESCRIPTION));
+                continue;
+            }
+            final ModelNode value = response.get(RESULT);
+            switch (value.getType()) {
+                case INT:
+                case LONG:
+                case DOUBLE:
+                case BIG_INTEGER:
+                case BIG_DECIMAL:
+                    final double d = value.asDouble();
+                    values.add(d);
+                    sum += d;
+                    break;
+                default:
+                    // not a number, nothing to aggregate
+                    break;
+            }
+        }
+        result.get(SERVERS).set(responses.size());
+        result.get(COUNT).set(values.size());
+        if (!values.isEmpty()) {
+            Collections.sort(values);
+            result.get(SUM).set(sum);
+            result.get(MIN).set(values.get(0));
+            result.get(MAX).set(values.get(values.size() - 1));
+            result.get(AVERAGE).set(sum / values.size());
+            for (ModelNode percentile : percentiles) {
+                // nearest rank, percentiles outside of [0, 100] get the min or max
+                final int rank = (int) Math.ceil(percentile.asDouble() / 100 * values.size());
+                result.get(PERCENTILES, percentile.asString()).set(values.get(Math.min(values.size(), Math.max(1, rank)) - 1));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.host.controller.operations;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.host.controller.ServerInventory;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads the time the server took to start when the host controller started it along with the other auto-start
+ * servers.
+ */
+public class ServerStartLatencyHandler implements OperationStepHandler {
+
+    public static final String ATTRIBUTE_NAME = "start-latency";
+
+    private final ServerInventory serverInventory;
+
+    public ServerStartLatencyHandler(final ServerInventory serverInventory) {
+        this.serverInventory = serverInventory;
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final Long latency = serverInventory.getServerStartLatency(context.getCurrentAddressValue());
+        if (latency != null) {
+            context.getResult().set(latency);
+        }
+    }
+}
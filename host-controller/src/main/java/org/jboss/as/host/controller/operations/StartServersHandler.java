@@ -24,6 +24,8 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
 import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.jboss.as.controller.OperationContext;
@@ -53,6 +55,25 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 public class StartServersHandler implements OperationStepHandler {
 
     public static final boolean START_BLOCKING = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.host.start.servers.sequential", "false"));
+    /**
+     * The maximum number of auto-start servers that are starting at the same time; ignored if servers start
+     * sequentially. Like the sequential switch this tunes how this host controller process boots rather than
+     * describing the host, so it is the {@code org.jboss.as.host.start.servers.max-parallel} system property
+     * rather than a persistent host model attribute. The time each server took to start is available in the
+     * {@code start-latency} runtime attribute of its {@code server-config} resource.
+     */
+    public static final int MAX_PARALLEL_SERVER_STARTS;
+
+    static {
+        int max = -1;
+        try {
+            max = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.host.start.servers.max-parallel", "1"));
+        } catch (Exception e) {
+            // use the default
+        } finally {
+            MAX_PARALLEL_SERVER_STARTS = START_BLOCKING || max < 1 ? 1 : max;
+        }
+    }
     public static final String OPERATION_NAME = "start-servers";
 
   //Private method does not need resources for description
@@ -108,33 +129,44 @@ public class StartServersHandler implements OperationStepHandler {
     }
 
     private void cleanStartServers(final ModelNode servers, final ModelNode domainModel, OperationContext context) throws OperationFailedException {
+        final List<String> toStart = new ArrayList<String>();
         for(final Property serverProp : servers.asPropertyList()) {
             String serverName = serverProp.getName();
             if (ServerConfigResourceDefinition.AUTO_START.resolveModelAttribute(context, serverProp.getValue()).asBoolean(true)) {
-                try {
-                    serverInventory.startServer(serverName, domainModel, START_BLOCKING);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                toStart.add(serverName);
             }
         }
+        startServers(toStart, domainModel);
+    }
+
+    private void startServers(final List<String> serverNames, final ModelNode domainModel) {
+        if (serverNames.isEmpty()) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        final Map<String, Long> latencies = serverInventory.startServers(serverNames, domainModel, MAX_PARALLEL_SERVER_STARTS, START_BLOCKING);
+        if (ROOT_LOGGER.isDebugEnabled()) {
+            ROOT_LOGGER.debugf("Started %d of %d servers in %d ms with at most %d starting at the same time, per server %s",
+                    latencies.size(), serverNames.size(), System.currentTimeMillis() - start, MAX_PARALLEL_SERVER_STARTS, latencies);
+        }
     }
 
     private void restartedHcStartOrReconnectServers(final ModelNode servers, final ModelNode domainModel, final OperationContext context){
         Map<String, ProcessInfo> processInfos = serverInventory.determineRunningProcesses();
+        final List<String> toStart = new ArrayList<String>();
         for(final String serverName : servers.keys()) {
             ProcessInfo info = processInfos.get(serverInventory.getServerProcessName(serverName));
             boolean auto = servers.get(serverName, AUTO_START).asBoolean(true);
             if (info == null && auto) {
-                try {
-                    serverInventory.startServer(serverName, domainModel, START_BLOCKING);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                toStart.add(serverName);
             } else if (info != null){
+                // Keep the host.xml order: start the servers that come before this one first
+                startServers(toStart, domainModel);
+                toStart.clear();
                 // Reconnect the server using the current authKey
                 serverInventory.reconnectServer(serverName, domainModel, info.getAuthKey(), info.isRunning(), info.isStopping());
             }
         }
+        startServers(toStart, domainModel);
     }
 }
@@ -39,6 +39,7 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.client.helpers.domain.ServerStatus;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.EnumValidator;
@@ -62,6 +63,7 @@ import org.jboss.as.host.controller.operations.ServerRestartHandler;
 import org.jboss.as.host.controller.operations.ServerRestartRequiredServerConfigWriteAttributeHandler;
 import org.jboss.as.host.controller.operations.ServerResumeHandler;
 import org.jboss.as.host.controller.operations.ServerStartHandler;
+import org.jboss.as.host.controller.operations.ServerStartLatencyHandler;
 import org.jboss.as.host.controller.operations.ServerStatusHandler;
 import org.jboss.as.host.controller.operations.ServerStopHandler;
 import org.jboss.as.host.controller.operations.ServerSuspendHandler;
@@ -120,6 +122,10 @@ public class ServerConfigResourceDefinition extends SimpleResourceDefinition {
             .setValidator(new EnumValidator<ServerStatus>(ServerStatus.class, false, false))
             .build();
 
+    public static final SimpleAttributeDefinition START_LATENCY = SimpleAttributeDefinitionBuilder.create(ServerStartLatencyHandler.ATTRIBUTE_NAME, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
     /**
      * Bogus attribute that we accidentally registered in AS 7.1.2/EAP 6 even though it didn't appear in the
      * resource description. So for compatibility we register it here as well, and include it in the description
@@ -178,6 +184,7 @@ public class ServerConfigResourceDefinition extends SimpleResourceDefinition {
 
         if (serverInventory != null) {
             resourceRegistration.registerMetric(STATUS, new ServerStatusHandler(serverInventory));
+            resourceRegistration.registerMetric(START_LATENCY, new ServerStartLatencyHandler(serverInventory));
         }
     }
 
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil.DOMAIN_RESOURCE_ADDRESS;
+import static org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the digest used to detect that a reconnecting slave already has the current domain model.
+ */
+public class DomainModelDigestTestCase {
+
+    @Test
+    public void testAttributeOrderIsIgnored() {
+        final ModelNode first = new ModelNode();
+        first.add(describe("profile", "default", "a", "b"));
+        final ModelNode second = new ModelNode();
+        second.add(describe("profile", "default", "b", "a"));
+        Assert.assertEquals(DomainModelDigest.calculate(first), DomainModelDigest.calculate(second));
+    }
+
+    @Test
+    public void testResourceOrderIsSignificant() {
+        final ModelNode first = new ModelNode();
+        first.add(describe("profile", "default", "a", "b"));
+        first.add(describe("profile", "other", "a", "b"));
+        final ModelNode second = new ModelNode();
+        second.add(describe("profile", "other", "a", "b"));
+        second.add(describe("profile", "default", "a", "b"));
+        Assert.assertNotEquals(DomainModelDigest.calculate(first), DomainModelDigest.calculate(second));
+    }
+
+    @Test
+    public void testValueChangeIsDetected() {
+        final ModelNode first = new ModelNode();
+        first.add(describe("profile", "default", "a", "b"));
+        final ModelNode second = first.clone();
+        second.get(0).get(DOMAIN_RESOURCE_MODEL, "a").set(2L);
+        Assert.assertNotEquals(DomainModelDigest.calculate(first), DomainModelDigest.calculate(second));
+        // Same value, different type
+        final ModelNode third = first.clone();
+        third.get(0).get(DOMAIN_RESOURCE_MODEL, "a").set("1");
+        Assert.assertNotEquals(DomainModelDigest.calculate(first), DomainModelDigest.calculate(third));
+    }
+
+    private static ModelNode describe(final String type, final String name, final String firstAttribute, final String secondAttribute) {
+        final ModelNode description = new ModelNode();
+        description.get(DOMAIN_RESOURCE_ADDRESS).set(PathAddress.pathAddress(PathElement.pathElement(type, name)).toModelNode());
+        description.get(DOMAIN_RESOURCE_MODEL, firstAttribute).set(1);
+        description.get(DOMAIN_RESOURCE_MODEL, secondAttribute).set(1);
+        return description;
+    }
+}
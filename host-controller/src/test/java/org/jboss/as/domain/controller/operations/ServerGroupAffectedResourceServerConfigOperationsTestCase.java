@@ -567,6 +567,11 @@ public class ServerGroupAffectedResourceServerConfigOperationsTestCase extends A
             return ServerStatus.STARTED;
         }
 
+        @Override
+        public Long getServerStartLatency(String serverName) {
+            return null;
+        }
+
         @Override
         public ServerStatus startServer(String serverName, ModelNode domainModel) {
             throw new UnsupportedOperationException("Not supported yet.");
@@ -577,6 +582,11 @@ public class ServerGroupAffectedResourceServerConfigOperationsTestCase extends A
             throw new UnsupportedOperationException("Not supported yet.");
         }
 
+        @Override
+        public Map<String, Long> startServers(List<String> serverNames, ModelNode domainModel, int maxParallel, boolean blocking) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
         @Override
         public ServerStatus restartServer(String serverName, int gracefulTimeout, ModelNode domainModel) {
             throw new UnsupportedOperationException("Not supported yet.");
@@ -0,0 +1,194 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.domain.controller.LocalHostControllerInfo;
+import org.jboss.as.host.controller.discovery.DiscoveryOption;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link DomainModelReplicaState}.
+ */
+public class DomainModelReplicaStateTestCase {
+
+    private static final LocalHostControllerInfo MASTER = new MockHostControllerInfo(true, false);
+    private static final LocalHostControllerInfo BACKUP = new MockHostControllerInfo(false, true);
+    private static final LocalHostControllerInfo SLAVE = new MockHostControllerInfo(false, false);
+
+    @Test
+    public void testUnbounded() {
+        final DomainModelReplicaState state = new DomainModelReplicaState(-1);
+        Assert.assertEquals(-1, state.getStaleness());
+        Assert.assertTrue(state.canServeDomainReads(SLAVE));
+        Assert.assertTrue(state.canServeDomainReads(BACKUP));
+        state.synchronizedWithMaster();
+        state.disconnectedFromMaster();
+        Assert.assertTrue(state.canServeDomainReads(SLAVE));
+        Assert.assertTrue(state.canServeDomainReads(BACKUP));
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        final DomainModelReplicaState state = new DomainModelReplicaState(0);
+        Assert.assertTrue(state.canServeDomainReads(MASTER));
+        // Never synchronized
+        Assert.assertFalse(state.canServeDomainReads(BACKUP));
+
+        state.synchronizedWithMaster();
+        Assert.assertEquals(0, state.getStaleness());
+        Assert.assertTrue(state.canServeDomainReads(BACKUP));
+        // Only a partial copy of the domain model
+        Assert.assertFalse(state.canServeDomainReads(SLAVE));
+
+        state.disconnectedFromMaster();
+        Thread.sleep(10);
+        Assert.assertTrue(state.getStaleness() > 0);
+        Assert.assertFalse(state.canServeDomainReads(BACKUP));
+        Assert.assertTrue(state.canServeDomainReads(MASTER));
+
+        state.synchronizedWithMaster();
+        Assert.assertTrue(state.canServeDomainReads(BACKUP));
+    }
+
+    @Test
+    public void testCopiedFromMaster() throws Exception {
+        final DomainModelReplicaState state = new DomainModelReplicaState(60000);
+        // An admin-only backup gets a copy of the domain model, which is not kept up to date
+        state.copiedFromMaster();
+        Thread.sleep(10);
+        Assert.assertTrue(state.getStaleness() >= 10);
+        Assert.assertTrue(state.canServeDomainReads(BACKUP));
+        Assert.assertFalse(state.canServeDomainReads(SLAVE));
+    }
+
+    @Test
+    public void testStalenessSinceDisconnect() throws Exception {
+        final DomainModelReplicaState state = new DomainModelReplicaState(60000);
+        state.synchronizedWithMaster();
+        Thread.sleep(10);
+        state.disconnectedFromMaster();
+        Assert.assertTrue(state.getStaleness() >= 0);
+        Assert.assertTrue(state.canServeDomainReads(BACKUP));
+        // A repeated notification does not reset the staleness
+        Thread.sleep(10);
+        state.disconnectedFromMaster();
+        Assert.assertTrue(state.getStaleness() >= 10);
+    }
+
+    private static class MockHostControllerInfo implements LocalHostControllerInfo {
+
+        private final boolean master;
+        private final boolean backup;
+
+        MockHostControllerInfo(final boolean master, final boolean backup) {
+            this.master = master;
+            this.backup = backup;
+        }
+
+        @Override
+        public String getLocalHostName() {
+            return "localhost";
+        }
+
+        @Override
+        public boolean isMasterDomainController() {
+            return master;
+        }
+
+        @Override
+        public boolean isBackupDc() {
+            return backup;
+        }
+
+        @Override
+        public String getNativeManagementInterface() {
+            return null;
+        }
+
+        @Override
+        public int getNativeManagementPort() {
+            return 0;
+        }
+
+        @Override
+        public String getNativeManagementSecurityRealm() {
+            return null;
+        }
+
+        @Override
+        public String getHttpManagementInterface() {
+            return null;
+        }
+
+        @Override
+        public int getHttpManagementPort() {
+            return 0;
+        }
+
+        @Override
+        public String getHttpManagementSecureInterface() {
+            return null;
+        }
+
+        @Override
+        public int getHttpManagementSecurePort() {
+            return 0;
+        }
+
+        @Override
+        public String getHttpManagementSecurityRealm() {
+            return null;
+        }
+
+        @Override
+        public String getRemoteDomainControllerUsername() {
+            return null;
+        }
+
+        @Override
+        public List<DiscoveryOption> getRemoteDomainControllerDiscoveryOptions() {
+            return null;
+        }
+
+        @Override
+        public ControlledProcessState.State getProcessState() {
+            return null;
+        }
+
+        @Override
+        public boolean isRemoteDomainControllerIgnoreUnaffectedConfiguration() {
+            return false;
+        }
+
+        @Override
+        public Collection<String> getAllowedOrigins() {
+            return Collections.emptyList();
+        }
+    }
+}
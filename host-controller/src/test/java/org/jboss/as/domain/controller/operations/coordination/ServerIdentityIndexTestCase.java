@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ProxyController;
+import org.jboss.as.controller.client.OperationAttachments;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link ServerIdentityIndex} resolves the same servers as {@link DomainServerUtils}.
+ */
+public class ServerIdentityIndexTestCase {
+
+    private static final String HOST_NAME = "primary";
+
+    @Test
+    public void testSameAsDomainServerUtils() {
+        final ModelNode domain = new ModelNode();
+        addGroup(domain, "main-server-group", "full", "full-sockets");
+        addGroup(domain, "other-server-group", "full", "standard-sockets");
+        addGroup(domain, "empty-server-group", "default", "standard-sockets");
+        final ModelNode host = domain.get(HOST, HOST_NAME);
+        addServer(host, "server-one", "main-server-group");
+        addServer(host, "server-two", "main-server-group");
+        addServer(host, "server-three", "other-server-group");
+        addServer(host, "server-four", "other-server-group");
+
+        final Map<String, ProxyController> proxies = new HashMap<String, ProxyController>();
+        proxies.put("server-one", new MockProxyController());
+        proxies.put("server-three", new MockProxyController());
+
+        final ServerIdentityIndex index = new ServerIdentityIndex(HOST_NAME, host);
+        Assert.assertTrue(index.isIndexOf(host));
+        Assert.assertFalse(index.isIndexOf(host.clone()));
+
+        Assert.assertEquals(DomainServerUtils.getAllRunningServers(host, HOST_NAME, proxies), index.getServersForGroup(null, proxies));
+        Assert.assertEquals(2, index.getServersForGroup(null, proxies).size());
+        for (String group : new String[] {"main-server-group", "other-server-group", "empty-server-group", "unknown"}) {
+            Assert.assertEquals(group, DomainServerUtils.getServersForGroup(group, host, HOST_NAME, proxies), index.getServersForGroup(group, proxies));
+        }
+        for (String profile : new String[] {"full", "default", "unknown"}) {
+            Assert.assertEquals(profile, DomainServerUtils.getServersForType(PROFILE, profile, domain, host, HOST_NAME, proxies),
+                    index.getServersForType(PROFILE, profile, domain, proxies));
+        }
+        for (String sockets : new String[] {"full-sockets", "standard-sockets"}) {
+            Assert.assertEquals(sockets, DomainServerUtils.getServersForType(SOCKET_BINDING_GROUP, sockets, domain, host, HOST_NAME, proxies),
+                    index.getServersForType(SOCKET_BINDING_GROUP, sockets, domain, proxies));
+        }
+
+        // Servers which start later are picked up
+        proxies.put("server-four", new MockProxyController());
+        Assert.assertEquals(2, index.getServersForGroup("other-server-group", proxies).size());
+    }
+
+    @Test
+    public void testNoServers() {
+        final ModelNode domain = new ModelNode();
+        addGroup(domain, "main-server-group", "full", "full-sockets");
+        final ModelNode host = domain.get(HOST, HOST_NAME);
+        final ServerIdentityIndex index = new ServerIdentityIndex(HOST_NAME, host);
+        final Map<String, ProxyController> proxies = new HashMap<String, ProxyController>();
+        Assert.assertTrue(index.getServersForGroup(null, proxies).isEmpty());
+        Assert.assertTrue(index.getServersForType(PROFILE, "full", domain, proxies).isEmpty());
+    }
+
+    private static void addGroup(final ModelNode domain, final String name, final String profile, final String sockets) {
+        final ModelNode group = domain.get(SERVER_GROUP, name);
+        group.get(PROFILE).set(profile);
+        group.get(SOCKET_BINDING_GROUP).set(sockets);
+    }
+
+    private static void addServer(final ModelNode host, final String name, final String group) {
+        host.get(SERVER_CONFIG, name, GROUP).set(group);
+    }
+
+    private static class MockProxyController implements ProxyController {
+
+        @Override
+        public PathAddress getProxyNodeAddress() {
+            return PathAddress.EMPTY_ADDRESS;
+        }
+
+        @Override
+        public void execute(ModelNode operation, OperationMessageHandler handler, ProxyOperationControl control, OperationAttachments attachments) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the per-target latency histogram recorded for domain operations.
+ */
+public class TargetLatencyHistogramTestCase {
+
+    @Test
+    public void testBuckets() {
+        Assert.assertEquals(0, TargetLatencyHistogram.bucketFor(0));
+        Assert.assertEquals(1, TargetLatencyHistogram.bucketFor(1));
+        Assert.assertEquals(2, TargetLatencyHistogram.bucketFor(2));
+        Assert.assertEquals(2, TargetLatencyHistogram.bucketFor(3));
+        Assert.assertEquals(11, TargetLatencyHistogram.bucketFor(1024));
+        Assert.assertEquals(TargetLatencyHistogram.BUCKETS - 1, TargetLatencyHistogram.bucketFor(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final TargetLatencyHistogram histogram = new TargetLatencyHistogram();
+        Assert.assertEquals(0, histogram.getPercentileUpperBound(0.5));
+        Assert.assertNull(histogram.getSlowestTarget());
+        for (int i = 0; i < 99; i++) {
+            histogram.record("host" + i, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        histogram.record("slow", TimeUnit.MILLISECONDS.toNanos(3000));
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(99, histogram.getBucketCount(TargetLatencyHistogram.bucketFor(10)));
+        Assert.assertEquals(16, histogram.getPercentileUpperBound(0.5));
+        Assert.assertEquals(16, histogram.getPercentileUpperBound(0.99));
+        Assert.assertEquals(4096, histogram.getPercentileUpperBound(1.0));
+        Assert.assertEquals("slow", histogram.getSlowestTarget());
+        Assert.assertEquals(3000, histogram.getLatency("slow"));
+        Assert.assertEquals(-1, histogram.getLatency("unknown"));
+    }
+
+    @Test
+    public void testTargetRecordedOnce() {
+        final TargetLatencyHistogram histogram = new TargetLatencyHistogram();
+        histogram.record("host", TimeUnit.MILLISECONDS.toNanos(5));
+        histogram.record("host", TimeUnit.MILLISECONDS.toNanos(7));
+        Assert.assertEquals(1, histogram.getCount());
+        Assert.assertEquals(7, histogram.getLatency("host"));
+    }
+}
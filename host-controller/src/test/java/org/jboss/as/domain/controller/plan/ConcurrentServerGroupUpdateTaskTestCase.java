@@ -0,0 +1,235 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the concurrency limits applied when rolling an operation out to the servers of a group.
+ */
+public class ConcurrentServerGroupUpdateTaskTestCase {
+
+    private static final String GROUP = "main-server-group";
+
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void before() {
+        scheduler = Executors.newScheduledThreadPool(4);
+    }
+
+    @After
+    public void after() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testUnbounded() {
+        final RecordingExecutor executor = rollout(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        Assert.assertEquals(12, executor.prepared.size());
+        Assert.assertEquals(12, executor.maxInFlight.get());
+    }
+
+    @Test
+    public void testGroupLimit() {
+        final RecordingExecutor executor = rollout(5, Integer.MAX_VALUE);
+        Assert.assertEquals(12, executor.prepared.size());
+        Assert.assertEquals(5, executor.maxInFlight.get());
+    }
+
+    @Test
+    public void testHostLimit() {
+        final RecordingExecutor executor = rollout(Integer.MAX_VALUE, 2);
+        Assert.assertEquals(12, executor.prepared.size());
+        Assert.assertEquals(6, executor.maxInFlight.get());
+        for (AtomicInteger max : executor.maxInFlightByHost.values()) {
+            Assert.assertEquals(2, max.get());
+        }
+    }
+
+    @Test
+    public void testInterruptedRollout() {
+        // The rollout is cancelled while the operation is being sent to the first server
+        final RecordingExecutor executor = new RecordingExecutor() {
+            @Override
+            protected boolean execute(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener,
+                                      final ServerIdentity identity, final ModelNode operation) throws OperationFailedException {
+                final boolean executed = super.execute(listener, identity, operation);
+                Thread.currentThread().interrupt();
+                return executed;
+            }
+        };
+        try {
+            rollout(executor, Integer.MAX_VALUE, Integer.MAX_VALUE);
+            Assert.assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        Assert.assertEquals(1, executor.executed.size());
+        Assert.assertEquals(executor.executed, executor.cancelled);
+    }
+
+    private RecordingExecutor rollout(final int maxPerGroup, final int maxPerHost) {
+        final RecordingExecutor executor = rollout(new RecordingExecutor(), maxPerGroup, maxPerHost);
+        Assert.assertEquals(0, executor.inFlight.get());
+        return executor;
+    }
+
+    private RecordingExecutor rollout(final RecordingExecutor executor, final int maxPerGroup, final int maxPerHost) {
+        // 3 hosts with 4 servers each
+        final Set<ServerIdentity> servers = new LinkedHashSet<ServerIdentity>();
+        for (int i = 0; i < 12; i++) {
+            servers.add(new ServerIdentity("host" + (i % 3), GROUP, "server" + i));
+        }
+        final ConcurrentGroupServerUpdatePolicy parent = new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton(GROUP));
+        final ServerUpdatePolicy policy = new ServerUpdatePolicy(parent, GROUP, servers);
+        final List<ServerUpdateTask> tasks = new ArrayList<ServerUpdateTask>();
+        for (ServerIdentity identity : servers) {
+            tasks.add(new RunningServerUpdateTask(identity, new ModelNode(), policy));
+        }
+        new ConcurrentServerGroupUpdateTask(tasks, policy, executor, null, maxPerGroup, maxPerHost).execute();
+        return executor;
+    }
+
+    /**
+     * Prepares each server asynchronously after a short delay, tracking how many servers were in flight.
+     */
+    private class RecordingExecutor extends ServerTaskExecutor {
+
+        private final List<ServerPreparedResponse> prepared;
+        private final List<ServerIdentity> executed = Collections.synchronizedList(new ArrayList<ServerIdentity>());
+        private final List<ServerIdentity> cancelled = Collections.synchronizedList(new ArrayList<ServerIdentity>());
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final Map<String, AtomicInteger> inFlightByHost = new ConcurrentHashMap<String, AtomicInteger>();
+        private final Map<String, AtomicInteger> maxInFlightByHost = new ConcurrentHashMap<String, AtomicInteger>();
+
+        RecordingExecutor() {
+            this(new ArrayList<ServerPreparedResponse>());
+        }
+
+        private RecordingExecutor(List<ServerPreparedResponse> prepared) {
+            super(null, new HashMap<ServerIdentity, ExecutedServerRequest>(), prepared);
+            this.prepared = prepared;
+        }
+
+        @Override
+        protected boolean execute(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener,
+                                  final ServerIdentity identity, final ModelNode operation) throws OperationFailedException {
+            executed.add(identity);
+            final String host = identity.getHostName();
+            track(inFlight.incrementAndGet(), maxInFlight);
+            inFlightByHost.putIfAbsent(host, new AtomicInteger());
+            maxInFlightByHost.putIfAbsent(host, new AtomicInteger());
+            track(inFlightByHost.get(host).incrementAndGet(), maxInFlightByHost.get(host));
+            final ServerOperation serverOperation = new ServerOperation(identity, operation, null, null, OperationResultTransformer.ORIGINAL_RESULT);
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    inFlightByHost.get(host).decrementAndGet();
+                    inFlight.decrementAndGet();
+                    listener.operationPrepared(new PreparedServerOperation(serverOperation));
+                }
+            }, 20, TimeUnit.MILLISECONDS);
+            return true;
+        }
+
+        @Override
+        public boolean cancelTask(final ServerIdentity toCancel) {
+            cancelled.add(toCancel);
+            return super.cancelTask(toCancel);
+        }
+
+        private void track(final int current, final AtomicInteger max) {
+            int previous;
+            while ((previous = max.get()) < current && !max.compareAndSet(previous, current)) {
+                //
+            }
+        }
+    }
+
+    private static class PreparedServerOperation implements TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> {
+
+        private final ServerTaskExecutor.ServerOperation operation;
+
+        private PreparedServerOperation(ServerTaskExecutor.ServerOperation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public ServerTaskExecutor.ServerOperation getOperation() {
+            return operation;
+        }
+
+        @Override
+        public ModelNode getPreparedResult() {
+            return new ModelNode();
+        }
+
+        @Override
+        public boolean isFailed() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public AsyncFuture<OperationResponse> getFinalResult() {
+            return null;
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void rollback() {
+        }
+    }
+}
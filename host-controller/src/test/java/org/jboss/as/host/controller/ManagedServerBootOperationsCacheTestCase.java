@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import java.util.Collections;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the reuse of server group boot operations across servers of the same group.
+ */
+public class ManagedServerBootOperationsCacheTestCase {
+
+    @Test
+    public void testReusedForUnchangedModel() {
+        final ModelNode domainModel = createDomainModel();
+        final ManagedServerBootOperationsCache cache = new ManagedServerBootOperationsCache();
+        Assert.assertNull(cache.get("main-server-group", domainModel, hostModel(domainModel)));
+        final ManagedServerBootOperationsCache.Entry entry = put(cache, domainModel);
+
+        // A different server of the same group, or another registration reading a fresh copy of the model
+        final ModelNode copy = createDomainModel();
+        Assert.assertSame(entry, cache.get("main-server-group", copy, hostModel(copy)));
+        Assert.assertNull(cache.get("other-server-group", copy, hostModel(copy)));
+    }
+
+    @Test
+    public void testServerConfigurationIgnored() {
+        final ModelNode domainModel = createDomainModel();
+        final ManagedServerBootOperationsCache cache = new ManagedServerBootOperationsCache();
+        final ManagedServerBootOperationsCache.Entry entry = put(cache, domainModel);
+
+        final ModelNode changed = createDomainModel();
+        hostModel(changed).get(SERVER_CONFIG, "server-two", GROUP).set("main-server-group");
+        changed.get(HOST, "other").get(SYSTEM_PROPERTY, "prop", VALUE).set("value");
+        Assert.assertSame(entry, cache.get("main-server-group", changed, hostModel(changed)));
+    }
+
+    @Test
+    public void testInvalidatedByModelChange() {
+        final ModelNode domainModel = createDomainModel();
+        final ManagedServerBootOperationsCache cache = new ManagedServerBootOperationsCache();
+        put(cache, domainModel);
+
+        final ModelNode domainChange = createDomainModel();
+        domainChange.get(PROFILE, "default", "subsystem", "logging").setEmptyObject();
+        Assert.assertNull(cache.get("main-server-group", domainChange, hostModel(domainChange)));
+
+        final ModelNode hostChange = createDomainModel();
+        hostModel(hostChange).get(SYSTEM_PROPERTY, "prop", VALUE).set("value");
+        Assert.assertNull(cache.get("main-server-group", hostChange, hostModel(hostChange)));
+    }
+
+    @Test
+    public void testSnapshotUnaffectedByLaterReads() {
+        final ModelNode domainModel = createDomainModel();
+        final ManagedServerBootOperationsCache cache = new ManagedServerBootOperationsCache();
+        final ManagedServerBootOperationsCache.Entry entry = put(cache, domainModel);
+        // Creating the boot operations may add undefined nodes to the model it reads
+        domainModel.get("namespaces");
+        hostModel(domainModel).get("core-service", "management");
+
+        final ModelNode copy = createDomainModel();
+        Assert.assertSame(entry, cache.get("main-server-group", copy, hostModel(copy)));
+    }
+
+    private static ManagedServerBootOperationsCache.Entry put(final ManagedServerBootOperationsCache cache, final ModelNode domainModel) {
+        final ManagedServerBootOperationsCache.Entry entry = new ManagedServerBootOperationsCache.Entry(
+                ManagedServerBootOperationsCache.snapshotDomainModel(domainModel),
+                ManagedServerBootOperationsCache.snapshotHostModel(hostModel(domainModel)),
+                Collections.<ModelNode>emptyList(), Collections.<ModelNode>emptyList(), Collections.<ModelNode>emptyList());
+        cache.put("main-server-group", entry);
+        return entry;
+    }
+
+    private static ModelNode hostModel(final ModelNode domainModel) {
+        return domainModel.get(HOST, "master");
+    }
+
+    private static ModelNode createDomainModel() {
+        final ModelNode model = new ModelNode();
+        model.get(PROFILE, "default", "subsystem", "jmx").setEmptyObject();
+        model.get(SERVER_GROUP, "main-server-group", PROFILE).set("default");
+        model.get(SERVER_GROUP, "other-server-group", PROFILE).set("default");
+        final ModelNode host = model.get(HOST, "master");
+        host.get(SERVER_CONFIG, "server-one", GROUP).set("main-server-group");
+        return model;
+    }
+}
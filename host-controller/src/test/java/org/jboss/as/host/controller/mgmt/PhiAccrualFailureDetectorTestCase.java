@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link PhiAccrualFailureDetector}.
+ */
+public class PhiAccrualFailureDetectorTestCase {
+
+    @Test
+    public void testNoRoundTrips() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 0);
+        assertEquals(0.0, detector.phi(100000), 0.0);
+        assertEquals(0, detector.getCount());
+        assertEquals(0.0, detector.getMean(), 0.0);
+    }
+
+    @Test
+    public void testStatistics() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(3, 0);
+        detector.recordRoundTrip(2);
+        detector.recordRoundTrip(4);
+        detector.recordRoundTrip(6);
+        assertEquals(4.0, detector.getMean(), 0.0001);
+        assertEquals(Math.sqrt(8.0 / 3), detector.getStandardDeviation(), 0.0001);
+
+        // The oldest round trip leaves the window, but is still counted in the totals
+        detector.recordRoundTrip(1000);
+        assertEquals(3, detector.getWindowSize());
+        assertEquals(4, detector.getCount());
+        assertEquals(1000, detector.getMax());
+        assertEquals(1010.0 / 3, detector.getMean(), 0.0001);
+
+        long[] buckets = detector.getBuckets();
+        assertEquals(1, buckets[PhiAccrualFailureDetector.bucketFor(2)]);
+        assertEquals(1, buckets[PhiAccrualFailureDetector.bucketFor(1000)]);
+    }
+
+    @Test
+    public void testBucketFor() {
+        assertEquals(0, PhiAccrualFailureDetector.bucketFor(0));
+        assertEquals(1, PhiAccrualFailureDetector.bucketFor(1));
+        assertEquals(2, PhiAccrualFailureDetector.bucketFor(2));
+        assertEquals(2, PhiAccrualFailureDetector.bucketFor(3));
+        assertEquals(11, PhiAccrualFailureDetector.bucketFor(1024));
+        assertEquals(PhiAccrualFailureDetector.BUCKETS - 1, PhiAccrualFailureDetector.bucketFor(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPhiGrowsWithElapsedTime() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 1000);
+        for (int i = 0; i < 10; i++) {
+            detector.recordRoundTrip(10);
+        }
+        double early = detector.phi(100);
+        double expected = detector.phi(1010);
+        double late = detector.phi(2000);
+        assertTrue(early < 0.1);
+        assertTrue(early < expected);
+        assertTrue(expected < late);
+        assertTrue(late > 8);
+    }
+}
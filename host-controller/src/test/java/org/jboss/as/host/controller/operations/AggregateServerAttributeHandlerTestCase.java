@@ -0,0 +1,242 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.controller.client.OperationAttachments;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.controller.transform.OperationTransformer;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
+import org.jboss.threads.JBossExecutors;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the reads and the aggregation of the server responses of {@link AggregateServerAttributeHandler}.
+ */
+public class AggregateServerAttributeHandlerTestCase {
+
+    @Test
+    public void testAggregate() {
+        final Map<String, ModelNode> responses = new LinkedHashMap<String, ModelNode>();
+        for (int i = 1; i <= 10; i++) {
+            responses.put("server-" + i, success(new ModelNode(i * 10L)));
+        }
+        responses.put("undefined", success(new ModelNode()));
+        responses.put("string", success(new ModelNode("text")));
+        responses.put("failed", failed("not found"));
+
+        final ModelNode result = AggregateServerAttributeHandler.aggregate(responses,
+                Arrays.asList(new ModelNode(50), new ModelNode(90), new ModelNode(100), new ModelNode(0)));
+        Assert.assertEquals(13, result.get(AggregateServerAttributeHandler.SERVERS).asInt());
+        Assert.assertEquals(10, result.get(AggregateServerAttributeHandler.COUNT).asInt());
+        Assert.assertEquals(550, result.get(AggregateServerAttributeHandler.SUM).asDouble(), 0.0);
+        Assert.assertEquals(10, result.get(AggregateServerAttributeHandler.MIN).asDouble(), 0.0);
+        Assert.assertEquals(100, result.get(AggregateServerAttributeHandler.MAX).asDouble(), 0.0);
+        Assert.assertEquals(55, result.get(AggregateServerAttributeHandler.AVERAGE).asDouble(), 0.0);
+        final ModelNode percentiles = result.get(AggregateServerAttributeHandler.PERCENTILES);
+        Assert.assertEquals(50, percentiles.get("50").asDouble(), 0.0);
+        Assert.assertEquals(90, percentiles.get("90").asDouble(), 0.0);
+        Assert.assertEquals(100, percentiles.get("100").asDouble(), 0.0);
+        Assert.assertEquals(10, percentiles.get("0").asDouble(), 0.0);
+        Assert.assertEquals("not found", result.get(FAILED, "failed").asString());
+    }
+
+    @Test
+    public void testNoValues() {
+        final ModelNode result = AggregateServerAttributeHandler.aggregate(Collections.<String, ModelNode>emptyMap(),
+                Collections.singletonList(new ModelNode(50)));
+        Assert.assertEquals(0, result.get(AggregateServerAttributeHandler.SERVERS).asInt());
+        Assert.assertEquals(0, result.get(AggregateServerAttributeHandler.COUNT).asInt());
+        Assert.assertFalse(result.hasDefined(AggregateServerAttributeHandler.SUM));
+        Assert.assertFalse(result.hasDefined(AggregateServerAttributeHandler.PERCENTILES));
+        Assert.assertFalse(result.hasDefined(FAILED));
+    }
+
+    @Test
+    public void testReadsDispatchedBeforeWaiting() {
+        // The servers only prepare once all of them received the read, which never happens when reading one at a time
+        final ServersClient client = new ServersClient(3);
+        final List<AggregateServerAttributeHandler.ServerRead> reads = reads(client, 3);
+        Assert.assertTrue(AggregateServerAttributeHandler.readAll(reads));
+        for (int i = 0; i < 3; i++) {
+            final ModelNode response = client.responses.get(i);
+            Assert.assertEquals(SUCCESS, response.get(OUTCOME).asString());
+            Assert.assertEquals(i, response.get(RESULT).asInt());
+        }
+        Assert.assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void testInterruptedReads() {
+        final ServersClient client = new ServersClient(Integer.MAX_VALUE);
+        final List<AggregateServerAttributeHandler.ServerRead> reads = reads(client, 3);
+        Thread.currentThread().interrupt();
+        try {
+            Assert.assertFalse(AggregateServerAttributeHandler.readAll(reads));
+        } finally {
+            Thread.interrupted();
+        }
+        Assert.assertEquals(3, client.futures.size());
+        for (AsyncFuture<OperationResponse> future : client.futures) {
+            Assert.assertEquals(AsyncFuture.Status.CANCELLED, future.getStatus());
+        }
+    }
+
+    private static List<AggregateServerAttributeHandler.ServerRead> reads(final ServersClient client, final int count) {
+        final List<AggregateServerAttributeHandler.ServerRead> reads = new ArrayList<AggregateServerAttributeHandler.ServerRead>();
+        for (int i = 0; i < count; i++) {
+            final ModelNode response = new ModelNode();
+            client.responses.add(response);
+            final ModelNode read = new ModelNode();
+            read.get("value").set(i);
+            reads.add(new AggregateServerAttributeHandler.ServerRead(client,
+                    new OperationTransformer.TransformedOperation(read, OperationResultTransformer.ORIGINAL_RESULT), response));
+        }
+        return reads;
+    }
+
+    /**
+     * Servers answering the read with the {@code value} of the operation, once {@code prepareAfter} reads were sent.
+     */
+    private static class ServersClient implements TransactionalProtocolClient {
+
+        private final int prepareAfter;
+        private final List<ModelNode> responses = new ArrayList<ModelNode>();
+        private final List<AsyncFuture<OperationResponse>> futures = new ArrayList<AsyncFuture<OperationResponse>>();
+        private final List<Runnable> prepares = new ArrayList<Runnable>();
+
+        private ServersClient(final int prepareAfter) {
+            this.prepareAfter = prepareAfter;
+        }
+
+        @Override
+        public AsyncFuture<OperationResponse> execute(final TransactionalOperationListener<Operation> listener, final ModelNode operation,
+                                                      final OperationMessageHandler messageHandler, final OperationAttachments attachments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T extends Operation> AsyncFuture<OperationResponse> execute(final TransactionalOperationListener<T> listener, final T operation) {
+            final ReadFuture future = new ReadFuture();
+            futures.add(future);
+            final ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(SUCCESS);
+            response.get(RESULT).set(operation.getOperation().get("value"));
+            prepares.add(new Runnable() {
+                @Override
+                public void run() {
+                    listener.operationPrepared(new PreparedOperation<T>() {
+                        @Override
+                        public T getOperation() {
+                            return operation;
+                        }
+
+                        @Override
+                        public ModelNode getPreparedResult() {
+                            return response;
+                        }
+
+                        @Override
+                        public boolean isFailed() {
+                            return false;
+                        }
+
+                        @Override
+                        public boolean isDone() {
+                            return future.getStatus() != AsyncFuture.Status.WAITING;
+                        }
+
+                        @Override
+                        public AsyncFuture<OperationResponse> getFinalResult() {
+                            return future;
+                        }
+
+                        @Override
+                        public void commit() {
+                            future.complete(response);
+                        }
+
+                        @Override
+                        public void rollback() {
+                            future.asyncCancel(false);
+                        }
+                    });
+                }
+            });
+            if (prepares.size() == prepareAfter) {
+                for (Runnable prepare : prepares) {
+                    prepare.run();
+                }
+            }
+            return future;
+        }
+    }
+
+    private static class ReadFuture extends AsyncFutureTask<OperationResponse> {
+
+        private ReadFuture() {
+            super(JBossExecutors.directExecutor());
+        }
+
+        private void complete(final ModelNode response) {
+            setResult(OperationResponse.Factory.createSimple(response));
+        }
+
+        @Override
+        public void asyncCancel(final boolean interruptionDesired) {
+            setCancelled();
+        }
+    }
+
+    private static ModelNode success(final ModelNode value) {
+        final ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        response.get(RESULT).set(value);
+        return response;
+    }
+
+    private static ModelNode failed(final String description) {
+        final ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(FAILED);
+        response.get(FAILURE_DESCRIPTION).set(description);
+        return response;
+    }
+}
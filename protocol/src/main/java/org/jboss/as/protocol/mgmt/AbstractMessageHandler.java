@@ -23,6 +23,7 @@
 package org.jboss.as.protocol.mgmt;
 
 import java.io.DataInput;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Map;
@@ -33,6 +34,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.logging.ProtocolLogger;
@@ -52,6 +54,8 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
     private final ExecutorService executorService;
     private final AtomicInteger requestID = new AtomicInteger();
     private final Map<Integer, ActiveRequest<?, ?>> requests = new ConcurrentHashMap<Integer, ActiveRequest<?, ?>>(16, 0.75f, Runtime.getRuntime().availableProcessors());
+    private final AtomicLong bytesSent = new AtomicLong();
+    private volatile int compressionThreshold = -1;
 
     protected AbstractMessageHandler(final ExecutorService executorService) {
         if(executorService == null) {
@@ -128,6 +132,47 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
         }
     }
 
+    /**
+     * Set the size above which messages written by this handler get compressed. The remote side needs to
+     * support compressed messages, see {@link ManagementCompressionRequest}.
+     *
+     * @param threshold the threshold in bytes, or {@code -1} to not compress messages
+     */
+    protected void setCompressionThreshold(final int threshold) {
+        this.compressionThreshold = threshold;
+    }
+
+    /**
+     * Get the size above which messages written by this handler get compressed.
+     *
+     * @return the threshold in bytes, or {@code -1} if messages are not compressed
+     */
+    protected int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Get the number of bytes of the request and response messages written by this handler.
+     *
+     * @return the number of bytes sent
+     */
+    protected long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    /**
+     * Open a message on the channel, compressing it if enabled.
+     *
+     * @param channel the channel
+     * @return the message output stream
+     * @throws IOException for any error
+     */
+    OutputStream openMessage(final Channel channel) throws IOException {
+        final OutputStream os = new CountingOutputStream(channel.writeMessage(), bytesSent);
+        final int threshold = compressionThreshold;
+        return threshold < 0 ? os : CompressedMessages.encode(os, threshold);
+    }
+
     /**
      * Execute a request.
      *
@@ -145,7 +190,7 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
         final ManagementRequestHeader header = new ManagementRequestHeader(ManagementProtocol.VERSION, requestId, support.getOperationId(), request.getOperationType());
         final ActiveOperation.ResultHandler<T> resultHandler = support.getResultHandler();
         try {
-            request.sendRequest(resultHandler, new ManagementRequestContextImpl<T, A>(support, channel, header, getExecutor()));
+            request.sendRequest(resultHandler, new ManagementRequestContextImpl<T, A>(this, support, channel, header, getExecutor()));
         } catch (Exception e) {
             resultHandler.failed(e);
             requests.remove(requestId);
@@ -198,7 +243,7 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
         final ActiveOperation.ResultHandler<T> resultHandler = support.getResultHandler();
         try {
             handler.handleRequest(message, resultHandler,
-                    new ManagementRequestContextImpl<T, A>(support, channel, header, getExecutor()));
+                    new ManagementRequestContextImpl<T, A>(this, support, channel, header, getExecutor()));
         } catch (Exception e) {
             resultHandler.failed(e);
             safeWriteErrorResponse(channel, header, e);
@@ -322,12 +367,14 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
     /** Standard {@code ManagementRequestContext} implementation. */
     private static class ManagementRequestContextImpl<T, A> implements ManagementRequestContext<A> {
 
+        private final AbstractMessageHandler handler;
         private final ActiveOperation<T, A> support;
         private final Channel channel;
         private final ManagementProtocolHeader header;
         private final Executor executor;
 
-        private ManagementRequestContextImpl(ActiveOperation<T, A> support, Channel channel, ManagementProtocolHeader header, Executor executor) {
+        private ManagementRequestContextImpl(AbstractMessageHandler handler, ActiveOperation<T, A> support, Channel channel, ManagementProtocolHeader header, Executor executor) {
+            this.handler = handler;
             this.support = support;
             this.channel = channel;
             this.header = header;
@@ -405,8 +452,29 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
 
         @Override
         public FlushableDataOutput writeMessage(final ManagementProtocolHeader header) throws IOException {
-            final MessageOutputStream os = channel.writeMessage();
-            return writeHeader(header, os);
+            return writeHeader(header, handler.openMessage(channel));
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private final AtomicLong count;
+
+        CountingOutputStream(final OutputStream out, final AtomicLong count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
         }
     }
 
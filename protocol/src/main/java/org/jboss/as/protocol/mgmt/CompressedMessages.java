@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Support for compressed management messages. A compressed message starts with the
+ * {@link ManagementProtocol#COMPRESSED_SIGNATURE} followed by the deflated message, which then starts with the
+ * regular protocol header.
+ *
+ * @see ManagementCompressionRequest
+ */
+final class CompressedMessages {
+
+    private static final int SIGNATURE_LENGTH = ManagementProtocol.COMPRESSED_SIGNATURE.length;
+
+    private CompressedMessages() {
+    }
+
+    /**
+     * Get the input stream to read a message from, which inflates the message if it was compressed.
+     *
+     * @param input the message input stream
+     * @return the stream to read the message from
+     * @throws IOException for any error
+     */
+    static InputStream decode(final InputStream input) throws IOException {
+        final PushbackInputStream pushback = new PushbackInputStream(input, SIGNATURE_LENGTH);
+        final byte[] signature = new byte[SIGNATURE_LENGTH];
+        int read = 0;
+        while (read < SIGNATURE_LENGTH) {
+            final int count = pushback.read(signature, read, SIGNATURE_LENGTH - read);
+            if (count == -1) {
+                break;
+            }
+            read += count;
+        }
+        if (read == SIGNATURE_LENGTH && Arrays.equals(ManagementProtocol.COMPRESSED_SIGNATURE, signature)) {
+            return new InflaterInputStream(pushback);
+        }
+        pushback.unread(signature, 0, read);
+        return pushback;
+    }
+
+    /**
+     * Get the output stream to write a message to, which compresses the message once more than {@code threshold}
+     * bytes were written.
+     *
+     * @param output the message output stream
+     * @param threshold the size above which the message gets compressed
+     * @return the stream to write the message to
+     */
+    static OutputStream encode(final OutputStream output, final int threshold) {
+        return new CompressingOutputStream(output, threshold);
+    }
+
+    /**
+     * Buffers the message until it exceeds the threshold, and sends it uncompressed if it is closed or flushed
+     * before that.
+     */
+    private static final class CompressingOutputStream extends OutputStream {
+
+        private final OutputStream output;
+        private final int threshold;
+        private ByteArrayOutputStream buffer;
+        private OutputStream delegate;
+        private Deflater deflater;
+        private boolean closed;
+
+        private CompressingOutputStream(final OutputStream output, final int threshold) {
+            this.output = output;
+            this.threshold = threshold;
+            this.buffer = new ByteArrayOutputStream(Math.min(Math.max(threshold, 32), 8192));
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (delegate == null) {
+                if (buffer.size() + len <= threshold) {
+                    buffer.write(b, off, len);
+                    return;
+                }
+                deflater = new Deflater();
+                output.write(ManagementProtocol.COMPRESSED_SIGNATURE);
+                delegate = new DeflaterOutputStream(output, deflater, 8192, true);
+                buffer.writeTo(delegate);
+                buffer = null;
+            }
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (delegate == null) {
+                // Streaming before the threshold was reached, send it uncompressed
+                buffer.writeTo(output);
+                buffer = null;
+                delegate = output;
+            }
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (delegate == null) {
+                    buffer.writeTo(output);
+                    buffer = null;
+                } else if (deflater != null) {
+                    ((DeflaterOutputStream) delegate).finish();
+                }
+                output.close();
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+        }
+    }
+}
@@ -84,6 +84,46 @@ public final class ManagementChannelHandler extends AbstractMessageHandler imple
         return receiver.getLastMessageTime();
     }
 
+    /**
+     * Compress the messages sent by this handler which are larger than the threshold. This must only be enabled
+     * once the remote side is known to support compressed messages, see {@link ManagementCompressionRequest}.
+     *
+     * @param threshold the size in bytes above which messages get compressed
+     */
+    public void enableCompression(final int threshold) {
+        setCompressionThreshold(Math.max(0, threshold));
+    }
+
+    /**
+     * Stop compressing the messages sent by this handler, e.g. when the channel gets replaced.
+     */
+    public void disableCompression() {
+        setCompressionThreshold(-1);
+    }
+
+    public boolean isCompressionEnabled() {
+        return getCompressionThreshold() >= 0;
+    }
+
+    /**
+     * Get the number of bytes sent by this handler, as written to the channel.
+     *
+     * @return the number of bytes sent
+     */
+    @Override
+    public long getBytesSent() {
+        return super.getBytesSent();
+    }
+
+    /**
+     * Get the number of bytes received by this handler, as read from the channel.
+     *
+     * @return the number of bytes received
+     */
+    public long getBytesReceived() {
+        return receiver.getBytesReceived();
+    }
+
     /** {@inheritDoc} */
     @Override
     public Channel getChannel() throws IOException {
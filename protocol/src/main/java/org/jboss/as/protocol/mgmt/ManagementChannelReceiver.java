@@ -24,9 +24,12 @@ package org.jboss.as.protocol.mgmt;
 
 import java.io.DataInput;
 import java.io.DataInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.logging.ProtocolLogger;
@@ -59,13 +62,16 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
     }
 
     private volatile long lastMessageTime;
+    private final AtomicLong bytesReceived = new AtomicLong();
 
     @Override
     public void handleMessage(final Channel channel, final MessageInputStream message) {
+        InputStream decoded = null;
         try {
             ProtocolLogger.ROOT_LOGGER.tracef("%s handling incoming data", this);
             lastMessageTime = System.currentTimeMillis();
-            final DataInput input = new DataInputStream(message);
+            decoded = CompressedMessages.decode(new CountingInputStream(message, bytesReceived));
+            final DataInput input = new DataInputStream(decoded);
             final ManagementProtocolHeader header = ManagementProtocolHeader.parse(input);
             final byte type = header.getType();
             try {
@@ -99,6 +105,7 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
         } catch (Exception e) {
             handleError(channel, new IOException(e));
         } finally {
+            StreamUtils.safeClose(decoded);
             StreamUtils.safeClose(message);
             ProtocolLogger.ROOT_LOGGER.tracef("%s done handling incoming data", this);
         }
@@ -112,6 +119,15 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
         return lastMessageTime;
     }
 
+    /**
+     * Get the number of bytes of the messages received, as sent over the channel.
+     *
+     * @return the number of bytes received
+     */
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
     /**
      * Get the next receiver.
      *
@@ -194,4 +210,39 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
         header.write(output);
     }
 
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(final InputStream in, final AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            if (b != -1) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = in.read(b, off, len);
+            if (read > 0) {
+                count.addAndGet(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = in.skip(n);
+            count.addAndGet(skipped);
+            return skipped;
+        }
+    }
+
 }
@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * {@link ManagementRequest} asking whether the remote side accepts compressed messages. It succeeds if the remote
+ * side has a {@link ManagementCompressionRequestHandler}; older versions fail the request, in which case messages
+ * must not be compressed.
+ */
+public class ManagementCompressionRequest extends AbstractManagementRequest<Void, Void> {
+
+    public static final ManagementCompressionRequest INSTANCE = new ManagementCompressionRequest();
+
+    @Override
+    public byte getOperationType() {
+        return ManagementProtocol.TYPE_COMPRESSION;
+    }
+
+    @Override
+    protected void sendRequest(ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+        // nothing besides the header
+    }
+
+    @Override
+    public void handleRequest(DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+        expectHeader(input, ManagementProtocol.TYPE_COMPRESSION);
+        expectHeader(input, ManagementProtocol.RESPONSE_END);
+        resultHandler.done(null);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import org.jboss.as.protocol.StreamUtils;
+
+/**
+ * {@link ManagementRequestHandlerFactory} for dealing with a {@link ManagementCompressionRequest}. Since the remote
+ * side then also accepts compressed messages, the channel handler starts compressing the messages it sends if a
+ * threshold was configured.
+ */
+public class ManagementCompressionRequestHandler implements ManagementRequestHandlerFactory, ManagementRequestHandler<Void, Void> {
+
+    private final ManagementChannelHandler channelHandler;
+    private final int threshold;
+
+    /**
+     * Create the handler.
+     *
+     * @param channelHandler the channel handler
+     * @param threshold the size in bytes above which messages sent by the channel handler get compressed, or
+     *                  {@code -1} to only accept compressed messages
+     */
+    public ManagementCompressionRequestHandler(final ManagementChannelHandler channelHandler, final int threshold) {
+        this.channelHandler = channelHandler;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public ManagementRequestHandler<?, ?> resolveHandler(RequestHandlerChain handlers, ManagementRequestHeader header) {
+        final byte operationId = header.getOperationId();
+        switch (operationId) {
+            case ManagementProtocol.TYPE_COMPRESSION:
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return this;
+        }
+        return handlers.resolveNext();
+    }
+
+    @Override
+    public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<Void> resultHandler,
+                              final ManagementRequestContext<Void> context) throws IOException {
+
+        final ManagementResponseHeader response = ManagementResponseHeader.create(context.getRequestHeader());
+
+        final FlushableDataOutput output = context.writeMessage(response);
+        try {
+            output.write(ManagementProtocol.TYPE_COMPRESSION);
+            output.writeByte(ManagementProtocol.RESPONSE_END);
+            output.close();
+        } finally {
+            StreamUtils.safeClose(output);
+        }
+        if (threshold >= 0) {
+            channelHandler.enableCompression(threshold);
+        }
+        resultHandler.done(null);
+    }
+}
@@ -28,6 +28,7 @@ package org.jboss.as.protocol.mgmt;
 public interface ManagementProtocol {
     // Headers
     byte[] SIGNATURE = {Byte.MAX_VALUE, Byte.MIN_VALUE, Byte.MAX_VALUE, Byte.MIN_VALUE};
+    byte[] COMPRESSED_SIGNATURE = {Byte.MIN_VALUE, Byte.MAX_VALUE, Byte.MIN_VALUE, Byte.MAX_VALUE};
     int VERSION_FIELD = 0x00; // The version field header
     int VERSION = 2; // The current protocol version
 
@@ -37,6 +38,7 @@ public interface ManagementProtocol {
     byte TYPE_BYE_BYE = 0x4;
     byte TYPE_PING = 0x5;
     byte TYPE_PONG = 0x6;
+    byte TYPE_COMPRESSION = 0x7;
 
     byte REQUEST_ID = 0x10;
     byte BATCH_ID = 0x11;
@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link CompressedMessages}.
+ */
+public class CompressedMessagesTestCase {
+
+    @Test
+    public void testBelowThresholdIsNotCompressed() throws IOException {
+        final byte[] message = message(100);
+        final byte[] sent = encode(message, 1024);
+        Assert.assertArrayEquals(message, sent);
+        Assert.assertArrayEquals(message, decode(sent));
+    }
+
+    @Test
+    public void testAboveThresholdIsCompressed() throws IOException {
+        final byte[] message = message(64 * 1024);
+        final byte[] sent = encode(message, 1024);
+        Assert.assertArrayEquals(ManagementProtocol.COMPRESSED_SIGNATURE, Arrays.copyOf(sent, ManagementProtocol.COMPRESSED_SIGNATURE.length));
+        Assert.assertTrue(sent.length < message.length);
+        Assert.assertArrayEquals(message, decode(sent));
+    }
+
+    @Test
+    public void testFlushBeforeThreshold() throws IOException {
+        final byte[] message = message(4096);
+        final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        final OutputStream os = CompressedMessages.encode(sent, 1024);
+        os.write(message, 0, 100);
+        os.flush();
+        os.write(message, 100, message.length - 100);
+        os.close();
+        Assert.assertArrayEquals(message, sent.toByteArray());
+    }
+
+    @Test
+    public void testShortMessage() throws IOException {
+        final byte[] message = { 1, 2 };
+        Assert.assertArrayEquals(message, decode(message));
+        Assert.assertArrayEquals(new byte[0], decode(new byte[0]));
+    }
+
+    private static byte[] message(final int length) {
+        final byte[] message = new byte[length];
+        System.arraycopy(ManagementProtocol.SIGNATURE, 0, message, 0, ManagementProtocol.SIGNATURE.length);
+        for (int i = ManagementProtocol.SIGNATURE.length; i < length; i++) {
+            message[i] = (byte) (i % 17);
+        }
+        return message;
+    }
+
+    private static byte[] encode(final byte[] message, final int threshold) throws IOException {
+        final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        final OutputStream os = CompressedMessages.encode(sent, threshold);
+        for (int i = 0; i < message.length; i += 1000) {
+            os.write(message, i, Math.min(1000, message.length - i));
+        }
+        os.close();
+        return sent.toByteArray();
+    }
+
+    private static byte[] decode(final byte[] sent) throws IOException {
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        try (InputStream is = CompressedMessages.decode(new ByteArrayInputStream(sent))) {
+            final byte[] buffer = new byte[512];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                received.write(buffer, 0, read);
+            }
+        }
+        return received.toByteArray();
+    }
+}
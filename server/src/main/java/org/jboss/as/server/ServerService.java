@@ -28,7 +28,9 @@ import java.io.File;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -46,6 +48,7 @@ import org.jboss.as.controller.DelegatingResourceDefinition;
 import org.jboss.as.controller.ManagementModel;
 import org.jboss.as.controller.ModelControllerServiceInitialization;
 import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.ResourceDefinition;
@@ -66,6 +69,7 @@ import org.jboss.as.platform.mbean.RootPlatformMBeanResource;
 import org.jboss.as.remoting.HttpListenerRegistryService;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.as.repository.ContentRepository;
+import org.jboss.as.repository.HashUtil;
 import org.jboss.as.server.controller.resources.ServerRootResourceDefinition;
 import org.jboss.as.server.controller.resources.VersionModelInitializer;
 import org.jboss.as.server.deployment.Attachments;
@@ -138,6 +142,9 @@ public final class ServerService extends AbstractControllerService {
     /** Service is not for general use, so the service name is not declared in the more visible {@code Services} */
     public static final ServiceName JBOSS_SERVER_SCHEDULED_EXECUTOR = Services.JBOSS_SERVER_EXECUTOR.append("scheduled");
 
+    /** Whether the content of the managed deployments is checked against its hash before the boot operations run */
+    private static final boolean VERIFY_DEPLOYMENT_CONTENT = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("jboss.server.deployment.verify-content", "false"));
+
     private final InjectedValue<DeploymentMountProvider> injectedDeploymentRepository = new InjectedValue<DeploymentMountProvider>();
     private final InjectedValue<ContentRepository> injectedContentRepository = new InjectedValue<ContentRepository>();
     private final InjectedValue<ServiceModuleLoader> injectedModuleLoader = new InjectedValue<ServiceModuleLoader>();
@@ -389,9 +396,40 @@ public final class ServerService extends AbstractControllerService {
     protected boolean boot(List<ModelNode> bootOperations, boolean rollbackOnRuntimeFailure) throws ConfigurationPersistenceException {
         final List<ModelNode> operations = new ArrayList<ModelNode>(bootOperations);
         operations.add(DeployerChainAddHandler.OPERATION);
+        if (VERIFY_DEPLOYMENT_CONTENT) {
+            verifyDeploymentContent(operations);
+        }
         return super.boot(operations, rollbackOnRuntimeFailure);
     }
 
+    /**
+     * Verifies the content of all the managed deployments added by the boot operations at once, so the content
+     * repository can hash it in parallel instead of each deployment being read as it gets deployed.
+     */
+    private void verifyDeploymentContent(final List<ModelNode> operations) {
+        final Map<String, String> deployments = new HashMap<String, String>();
+        final List<byte[]> hashes = new ArrayList<byte[]>();
+        for (ModelNode operation : operations) {
+            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+            if (address.size() == 1 && ModelDescriptionConstants.DEPLOYMENT.equals(address.getElement(0).getKey())
+                    && ModelDescriptionConstants.ADD.equals(operation.get(ModelDescriptionConstants.OP).asString())
+                    && operation.hasDefined(ModelDescriptionConstants.CONTENT)) {
+                for (ModelNode content : operation.get(ModelDescriptionConstants.CONTENT).asList()) {
+                    if (content.hasDefined(ModelDescriptionConstants.HASH)) {
+                        final byte[] hash = content.get(ModelDescriptionConstants.HASH).asBytes();
+                        deployments.put(HashUtil.bytesToHexString(hash), address.getElement(0).getValue());
+                        hashes.add(hash);
+                    }
+                }
+            }
+        }
+        if (!hashes.isEmpty()) {
+            for (String hash : injectedContentRepository.getValue().verifyContent(hashes)) {
+                ServerLogger.ROOT_LOGGER.deploymentContentCorrupted(deployments.get(hash), hash);
+            }
+        }
+    }
+
     public void stop(final StopContext context) {
         configuration.getExtensionRegistry().clear();
         configuration.getServerEnvironment().resetProvidedProperties();
@@ -46,6 +46,7 @@ import org.jboss.as.controller.ParameterCorrector;
 import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
@@ -53,6 +54,7 @@ import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.MinMaxValidator;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.ParameterValidator;
@@ -141,6 +143,16 @@ public class DeploymentAttributes {
             .setStorageRuntime()
             .build();
 
+    public static final SimpleAttributeDefinition PROCESSING_TIME = SimpleAttributeDefinitionBuilder.create("processing-time", ModelType.LONG, true)
+            .setStorageRuntime()
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    public static final AttributeDefinition PHASE_PROCESSING_TIMES = new SimpleMapAttributeDefinition.Builder("phase-processing-times", ModelType.LONG, true)
+            .setStorageRuntime()
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
     //Managed content value attributes
     public static final SimpleAttributeDefinition CONTENT_INPUT_STREAM_INDEX =
             createContentValueTypeAttribute(ModelDescriptionConstants.INPUT_STREAM_INDEX, ModelType.INT, new StringLengthValidator(1, true), false);
@@ -239,6 +251,23 @@ public class DeploymentAttributes {
     public static final OperationDefinition UNDEPLOY_DEFINITION = new SimpleOperationDefinition(ModelDescriptionConstants.UNDEPLOY, DEPLOYMENT_RESOLVER);
     public static final OperationDefinition REDEPLOY_DEFINITION = new SimpleOperationDefinition(ModelDescriptionConstants.REDEPLOY, DEPLOYMENT_RESOLVER);
 
+    public static final AttributeDefinition DORMANT_SERVICES = new PrimitiveListAttributeDefinition.Builder("dormant-services", ModelType.STRING)
+            .setAllowNull(true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition SLOWEST_PROCESSORS_COUNT = SimpleAttributeDefinitionBuilder.create("count", ModelType.INT, true)
+            .setDefaultValue(new ModelNode(10))
+            .setValidator(new IntRangeValidator(1, true))
+            .build();
+    public static final OperationDefinition READ_SLOWEST_PROCESSORS_DEFINITION = new SimpleOperationDefinitionBuilder("read-slowest-processors", DEPLOYMENT_RESOLVER)
+            .addParameter(SLOWEST_PROCESSORS_COUNT)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .setReplyType(ModelType.LIST)
+            .setReplyValueType(ModelType.OBJECT)
+            .build();
+
     /** Server add deployment definition */
     public static final OperationDefinition SERVER_DEPLOYMENT_ADD_DEFINITION = new SimpleOperationDefinitionBuilder(ModelDescriptionConstants.ADD, DEPLOYMENT_RESOLVER)
             .setParameters(SERVER_ADD_ATTRIBUTES)
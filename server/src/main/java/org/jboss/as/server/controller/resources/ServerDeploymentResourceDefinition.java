@@ -27,6 +27,8 @@ import org.jboss.as.controller.registry.OperationEntry.Flag;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.server.deployment.DeploymentAddHandler;
 import org.jboss.as.server.deployment.DeploymentDeployHandler;
+import org.jboss.as.server.deployment.DeploymentDormantServicesHandler;
+import org.jboss.as.server.deployment.DeploymentProcessingTimeHandler;
 import org.jboss.as.server.deployment.DeploymentRedeployHandler;
 import org.jboss.as.server.deployment.DeploymentRemoveHandler;
 import org.jboss.as.server.deployment.DeploymentUndeployHandler;
@@ -51,9 +53,18 @@ public class ServerDeploymentResourceDefinition extends DeploymentResourceDefini
                 new DeploymentRemoveHandler(contentRepository, vaultReader));
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(DeploymentAttributes.PROCESSING_TIME, DeploymentProcessingTimeHandler.INSTANCE);
+        resourceRegistration.registerMetric(DeploymentAttributes.PHASE_PROCESSING_TIMES, DeploymentProcessingTimeHandler.INSTANCE);
+        resourceRegistration.registerMetric(DeploymentAttributes.DORMANT_SERVICES, DeploymentDormantServicesHandler.INSTANCE);
+    }
+
     @Override
     public void registerOperations(ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(DeploymentAttributes.READ_SLOWEST_PROCESSORS_DEFINITION, DeploymentProcessingTimeHandler.READ_SLOWEST_PROCESSORS);
         resourceRegistration.registerOperationHandler(DeploymentAttributes.DEPLOY_DEFINITION, new DeploymentDeployHandler(vaultReader));
         resourceRegistration.registerOperationHandler(DeploymentAttributes.UNDEPLOY_DEFINITION, new DeploymentUndeployHandler(vaultReader));
         resourceRegistration.registerOperationHandler(DeploymentAttributes.REDEPLOY_DEFINITION, new DeploymentRedeployHandler(vaultReader));
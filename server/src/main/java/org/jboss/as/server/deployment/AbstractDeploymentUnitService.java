@@ -63,6 +63,7 @@ public abstract class AbstractDeploymentUnitService implements Service<Deploymen
         monitor.addController(context.getController());
         // Create the first phase deployer
         deploymentUnit = createAndInitializeDeploymentUnit(context.getController().getServiceContainer());
+        deploymentUnit.putAttachment(DeploymentProcessorTimings.ATTACHMENT_KEY, new DeploymentProcessorTimings(deploymentUnit.getName()));
 
         final String managementName = deploymentUnit.getAttachment(Attachments.MANAGEMENT_NAME);
         if (deploymentUnit.getParent()==null) {
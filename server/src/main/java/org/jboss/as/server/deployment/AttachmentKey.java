@@ -22,6 +22,8 @@
 
 package org.jboss.as.server.deployment;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * An immutable, type-safe object attachment key.  Such a key has no value outside of its object identity.
  *
@@ -29,6 +31,11 @@ package org.jboss.as.server.deployment;
  */
 public abstract class AttachmentKey<T> {
 
+    private static final AtomicInteger nextIndex = new AtomicInteger();
+
+    /** The slot of this key in the attachments of a {@link SimpleAttachable} */
+    final int index = nextIndex.getAndIncrement();
+
     AttachmentKey() {
     }
 
@@ -92,6 +92,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<VirtualFile> DEPLOYMENT_CONTENTS = AttachmentKey.create(VirtualFile.class);
 
+    /**
+     * The hash of the deployment contents, if they are managed by the content repository
+     */
+    public static final AttachmentKey<byte[]> DEPLOYMENT_CONTENTS_HASH = AttachmentKey.create(byte[].class);
+
     /**
      * <strong>Deprecated</strong>. The attached object does nothing; this key is only retained for
      * binary compatiblity. The management layer handles service verification internally, with no need
@@ -105,6 +110,23 @@ public final class Attachments {
 
     public static final AttachmentKey<Boolean> ALLOW_PHASE_RESTART = AttachmentKey.create(Boolean.class);
 
+    /**
+     * Whether the sub deployments of a top level deployment may go through the {@link Phase#FIRST_MODULE_USE},
+     * {@link Phase#POST_MODULE} and {@link Phase#INSTALL} phases independently of the top level deployment, rather
+     * than in step. A sub deployment then only waits for the sibling sub deployments its module depends on. Only
+     * safe if no processor of the top level deployment aggregates results of its sub deployments in those phases.
+     * Defaults to the value of the {@code jboss.server.deployment.independent-subdeployments} system property.
+     */
+    public static final AttachmentKey<Boolean> INDEPENDENT_SUB_DEPLOYMENTS = AttachmentKey.create(Boolean.class);
+
+    /**
+     * Whether services installed by the {@link Phase#INSTALL} processors of a top level deployment and its sub
+     * deployments without an explicit initial mode are installed {@link org.jboss.msc.service.ServiceController.Mode#ON_DEMAND ON_DEMAND},
+     * so they only start once a service depending on them does. Defaults to the value of the
+     * {@code jboss.server.deployment.lazy-services} system property.
+     */
+    public static final AttachmentKey<Boolean> LAZY_SERVICES = AttachmentKey.create(Boolean.class);
+
     /**
      * A builder used to install a deployment phase
      */
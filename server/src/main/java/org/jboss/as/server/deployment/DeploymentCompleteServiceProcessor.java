@@ -23,6 +23,7 @@
 package org.jboss.as.server.deployment;
 
 import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 
 /**
@@ -47,6 +48,7 @@ public class DeploymentCompleteServiceProcessor implements DeploymentUnitProcess
 
         phaseContext.getServiceTarget().addService(serviceName(deploymentUnit.getServiceName()), Service.NULL)
                 .addDependencies(deploymentUnit.getAttachmentList(Attachments.DEPLOYMENT_COMPLETE_SERVICES))
+                .setInitialMode(ServiceController.Mode.ACTIVE)
                 .install();
     }
 
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
+
+/**
+ * Reads the services a deployment installed {@link ServiceController.Mode#ON_DEMAND on demand} which have not been
+ * started yet.
+ *
+ * @see Attachments#LAZY_SERVICES
+ */
+public class DeploymentDormantServicesHandler implements OperationStepHandler {
+
+    public static final OperationStepHandler INSTANCE = new DeploymentDormantServicesHandler();
+
+    @Override
+    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String runtimeName = RUNTIME_NAME.resolveModelAttribute(context, context.readResource(PathAddress.EMPTY_ADDRESS).getModel()).asString();
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final ServiceRegistry registry = context.getServiceRegistry(false);
+                final ModelNode result = context.getResult().setEmptyList();
+                for (DeploymentUnit deploymentUnit : DeploymentUtils.getDeploymentUnits(context, runtimeName)) {
+                    for (ServiceName name : deploymentUnit.getAttachmentList(LazyServiceTarget.LAZY_SERVICE_NAMES)) {
+                        final ServiceController<?> controller = registry.getService(name);
+                        if (controller != null && controller.getState() == ServiceController.State.DOWN
+                                && controller.getMode() == ServiceController.Mode.ON_DEMAND) {
+                            result.add(name.getCanonicalName());
+                        }
+                    }
+                }
+            }
+        }, OperationContext.Stage.RUNTIME);
+    }
+}
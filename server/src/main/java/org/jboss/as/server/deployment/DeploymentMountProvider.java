@@ -33,6 +33,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 
+import org.jboss.as.server.deployment.module.MappedZipFileSystem;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -103,7 +104,7 @@ public interface DeploymentMountProvider {
                 assert contents != null : "null contents";
                 switch (type) {
                     case ZIP:
-                        return VFS.mountZip(contents, mountPoint, tempFileProvider);
+                        return MappedZipFileSystem.mountZip(contents, mountPoint, tempFileProvider);
                     case EXPANDED:
                         return VFS.mountZipExpanded(contents, mountPoint, tempFileProvider);
                     case REAL:
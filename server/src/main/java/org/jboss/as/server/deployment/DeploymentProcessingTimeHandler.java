@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PHASE_PROCESSING_TIMES;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSING_TIME;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.SLOWEST_PROCESSORS_COUNT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads the time the deployment unit processors took to process a deployment and its sub deployments.
+ */
+public class DeploymentProcessingTimeHandler implements OperationStepHandler {
+
+    static final String DEPLOYMENT_UNIT = "deployment-unit";
+    static final String PHASE = "phase";
+    static final String PROCESSOR = "processor";
+
+    public static final OperationStepHandler INSTANCE = new DeploymentProcessingTimeHandler();
+
+    public static final OperationStepHandler READ_SLOWEST_PROCESSORS = new OperationStepHandler() {
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final int count = SLOWEST_PROCESSORS_COUNT.resolveModelAttribute(context, operation).asInt();
+            final String runtimeName = RUNTIME_NAME.resolveModelAttribute(context, context.readResource(PathAddress.EMPTY_ADDRESS).getModel()).asString();
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                    final ModelNode result = context.getResult().setEmptyList();
+                    for (DeploymentProcessorTimings.ProcessorTiming timing : DeploymentProcessorTimings.getSlowest(getTimings(context, runtimeName), count)) {
+                        final ModelNode entry = new ModelNode();
+                        entry.get(DEPLOYMENT_UNIT).set(timing.deploymentUnitName);
+                        entry.get(PHASE).set(timing.phase.name());
+                        entry.get(PROCESSOR).set(timing.processorName);
+                        if (timing.subsystemName != null) {
+                            entry.get(ModelDescriptionConstants.SUBSYSTEM).set(timing.subsystemName);
+                        }
+                        entry.get(PROCESSING_TIME.getName()).set(TimeUnit.NANOSECONDS.toMicros(timing.nanos));
+                        result.add(entry);
+                    }
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+    };
+
+    @Override
+    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        final String runtimeName = RUNTIME_NAME.resolveModelAttribute(context, context.readResource(PathAddress.EMPTY_ADDRESS).getModel()).asString();
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final List<DeploymentProcessorTimings> timings = getTimings(context, runtimeName);
+                if (timings.isEmpty()) {
+                    return;
+                }
+                final ModelNode result = context.getResult();
+                if (PROCESSING_TIME.getName().equals(attributeName)) {
+                    result.set(TimeUnit.NANOSECONDS.toMillis(DeploymentProcessorTimings.getTotalTime(timings)));
+                } else if (PHASE_PROCESSING_TIMES.getName().equals(attributeName)) {
+                    result.setEmptyObject();
+                    for (Map.Entry<Phase, Long> phaseTime : DeploymentProcessorTimings.getPhaseTimes(timings).entrySet()) {
+                        result.get(phaseTime.getKey().name()).set(TimeUnit.NANOSECONDS.toMillis(phaseTime.getValue()));
+                    }
+                }
+            }
+        }, OperationContext.Stage.RUNTIME);
+    }
+
+    private static List<DeploymentProcessorTimings> getTimings(final OperationContext context, final String runtimeName) {
+        final List<DeploymentProcessorTimings> timings = new ArrayList<>();
+        for (DeploymentUnit deploymentUnit : DeploymentUtils.getDeploymentUnits(context, runtimeName)) {
+            final DeploymentProcessorTimings unitTimings = deploymentUnit.getAttachment(DeploymentProcessorTimings.ATTACHMENT_KEY);
+            if (unitTimings != null) {
+                timings.add(unitTimings);
+            }
+        }
+        return timings;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The time each deployment unit processor took to process a deployment unit, as last measured for each phase.
+ */
+final class DeploymentProcessorTimings {
+
+    static final AttachmentKey<DeploymentProcessorTimings> ATTACHMENT_KEY = AttachmentKey.create(DeploymentProcessorTimings.class);
+
+    private final String deploymentUnitName;
+    private final ConcurrentMap<String, ProcessorTiming> timings = new ConcurrentHashMap<>();
+
+    DeploymentProcessorTimings(final String deploymentUnitName) {
+        this.deploymentUnitName = deploymentUnitName;
+    }
+
+    /**
+     * Records the time a processor took, replacing the time recorded when the phase last ran.
+     *
+     * @param phase the phase the processor ran in
+     * @param processor the processor
+     * @param nanos the elapsed time in nanoseconds
+     */
+    void record(final Phase phase, final RegisteredDeploymentUnitProcessor processor, final long nanos) {
+        final String processorName = processor.getProcessor().getClass().getName();
+        timings.put(phase.name() + '/' + processor.getPriority() + '/' + processorName,
+                new ProcessorTiming(deploymentUnitName, phase, processorName, processor.getSubsystemName(), nanos));
+    }
+
+    /**
+     * Gets the total time of all recorded processors.
+     *
+     * @param all the timings of the deployment unit and its sub deployments
+     * @return the time in nanoseconds
+     */
+    static long getTotalTime(final Collection<DeploymentProcessorTimings> all) {
+        long total = 0;
+        for (DeploymentProcessorTimings timings : all) {
+            for (ProcessorTiming timing : timings.timings.values()) {
+                total += timing.nanos;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the total time of the recorded processors of each phase.
+     *
+     * @param all the timings of the deployment unit and its sub deployments
+     * @return the time in nanoseconds by phase, in phase order
+     */
+    static Map<Phase, Long> getPhaseTimes(final Collection<DeploymentProcessorTimings> all) {
+        final Map<Phase, Long> phaseTimes = new EnumMap<>(Phase.class);
+        for (DeploymentProcessorTimings timings : all) {
+            for (ProcessorTiming timing : timings.timings.values()) {
+                final Long time = phaseTimes.get(timing.phase);
+                phaseTimes.put(timing.phase, time == null ? timing.nanos : time + timing.nanos);
+            }
+        }
+        return phaseTimes;
+    }
+
+    /**
+     * Gets the slowest recorded processors.
+     *
+     * @param all the timings of the deployment unit and its sub deployments
+     * @param count the maximum number of processors to return
+     * @return the timings, slowest first
+     */
+    static List<ProcessorTiming> getSlowest(final Collection<DeploymentProcessorTimings> all, final int count) {
+        final List<ProcessorTiming> slowest = new ArrayList<>();
+        for (DeploymentProcessorTimings timings : all) {
+            slowest.addAll(timings.timings.values());
+        }
+        slowest.sort((t1, t2) -> Long.compare(t2.nanos, t1.nanos));
+        return slowest.size() > count ? new ArrayList<>(slowest.subList(0, count)) : slowest;
+    }
+
+    static final class ProcessorTiming {
+        final String deploymentUnitName;
+        final Phase phase;
+        final String processorName;
+        final String subsystemName;
+        final long nanos;
+
+        private ProcessorTiming(final String deploymentUnitName, final Phase phase, final String processorName,
+                                final String subsystemName, final long nanos) {
+            this.deploymentUnitName = deploymentUnitName;
+            this.phase = phase;
+            this.processorName = processorName;
+            this.subsystemName = subsystemName;
+            this.nanos = nanos;
+        }
+    }
+}
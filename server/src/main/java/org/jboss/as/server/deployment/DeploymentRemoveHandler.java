@@ -38,6 +38,9 @@ import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.repository.ContentRepository;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.ServerEnvironmentService;
+import org.jboss.as.server.deployment.module.ResourceLoaderPathIndex;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.services.security.AbstractVaultReader;
 import org.jboss.dmr.ModelNode;
@@ -84,6 +87,8 @@ public class DeploymentRemoveHandler implements OperationStepHandler {
                         runtimeName = null;
                     }
                     final ModelNode contentNode = CONTENT_ALL.resolveModelAttribute(context, model);
+                    final String indexedName = model.hasDefined(RUNTIME_NAME.getName()) ? RUNTIME_NAME.resolveModelAttribute(context, model).asString() : name;
+                    final ServerEnvironment environment = (ServerEnvironment) context.getServiceRegistry(false).getRequiredService(ServerEnvironmentService.SERVICE_NAME).getValue();
                     context.completeStep(new OperationContext.ResultHandler() {
                         @Override
                         public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
@@ -108,6 +113,7 @@ public class DeploymentRemoveHandler implements OperationStepHandler {
                                     newHash = DeploymentUtils.getDeploymentHexHash(context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel());
                                 } catch (Resource.NoSuchResourceException ex) {
                                     newHash = Collections.emptySet();
+                                    ResourceLoaderPathIndex.remove(environment.getServerDataDir(), indexedName);
                                 }
                                 for (byte[] hash : removedHashes) {
                                     try {
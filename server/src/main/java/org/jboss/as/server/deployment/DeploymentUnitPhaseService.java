@@ -23,13 +23,19 @@
 package org.jboss.as.server.deployment;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.jboss.as.server.deployment.module.ModuleDependency;
+import org.jboss.as.server.deployment.module.ModuleSpecification;
 import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.modules.ModuleIdentifier;
 import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.DelegatingServiceRegistry;
 import org.jboss.msc.service.Service;
@@ -43,6 +49,7 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A service which executes a particular phase of deployment.
@@ -53,6 +60,23 @@ import org.jboss.msc.value.InjectedValue;
  */
 final class DeploymentUnitPhaseService<T> implements Service<T> {
 
+    static final String INDEPENDENT_SUB_DEPLOYMENTS_PROPERTY = "jboss.server.deployment.independent-subdeployments";
+
+    private static final boolean INDEPENDENT_SUB_DEPLOYMENTS = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged(INDEPENDENT_SUB_DEPLOYMENTS_PROPERTY, "false"));
+
+    static final String LAZY_SERVICES_PROPERTY = "jboss.server.deployment.lazy-services";
+
+    private static final boolean LAZY_SERVICES = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged(LAZY_SERVICES_PROPERTY, "false"));
+
+    /**
+     * The phases a top level deployment may start before its sub deployments finished the previous phase. Up to
+     * {@link Phase#CONFIGURE_MODULE} sub deployments read each other's structure and module specifications. In these
+     * phases a sub deployment only waits for the sub deployments its module depends on.
+     */
+    private static final Set<Phase> INDEPENDENT_SUB_DEPLOYMENT_PHASES = EnumSet.of(Phase.POST_MODULE, Phase.INSTALL);
+
     private static final AttachmentKey<AttachmentList<DeploymentUnit>> UNVISITED_DEFERRED_MODULES = AttachmentKey.createList(DeploymentUnit.class);
 
     private final InjectedValue<DeployerChains> deployerChainsInjector = new InjectedValue<DeployerChains>();
@@ -123,7 +147,12 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         final DeploymentUnit parent = deploymentUnit.getParent();
 
         final List<DeploymentUnitPhaseDependency> dependencies = new LinkedList<>();
-        final DeploymentPhaseContext processorContext = new DeploymentPhaseContextImpl(serviceTarget, new DelegatingServiceRegistry(container), dependencies, deploymentUnit, phase);
+        if (phase == Phase.INSTALL) {
+            // The services of a previous run of this phase were removed when it stopped
+            deploymentUnit.removeAttachment(LazyServiceTarget.LAZY_SERVICE_NAMES);
+        }
+        final ServiceTarget processorTarget = phase == Phase.INSTALL && lazyServices() ? new LazyServiceTarget(serviceTarget, deploymentUnit) : serviceTarget;
+        final DeploymentPhaseContext processorContext = new DeploymentPhaseContextImpl(processorTarget, new DelegatingServiceRegistry(container), dependencies, deploymentUnit, phase);
 
         // attach any injected values from the last phase
         for (AttachedDependency attachedDependency : injectedAttachedDependencies) {
@@ -140,11 +169,16 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
+        final DeploymentProcessorTimings timings = deploymentUnit.getAttachment(DeploymentProcessorTimings.ATTACHMENT_KEY);
         while (iterator.hasNext()) {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
                 if (shouldRun(deploymentUnit, processor)) {
+                    final long start = System.nanoTime();
                     processor.getProcessor().deploy(processorContext);
+                    if (timings != null) {
+                        timings.record(phase, processor, System.nanoTime() - start);
+                    }
                 }
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
@@ -184,15 +218,27 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 }
             }
 
+            final boolean independentPhase = INDEPENDENT_SUB_DEPLOYMENT_PHASES.contains(nextPhase) && independentSubDeployments();
+
             // Add a dependency on the parent's next phase
             if (parent != null) {
                 phaseServiceBuilder.addDependencies(Services.deploymentUnitName(parent.getName(), nextPhase));
+                if (independentPhase) {
+                    // In place of the parent's barrier below, wait for the sub deployments we depend on. Depending on
+                    // their current phase, like the barrier does, cannot create a cycle even if they depend on us.
+                    for (DeploymentUnit sibling : getSiblingDependencies(deploymentUnit)) {
+                        phaseServiceBuilder.addDependencies(sibling.getServiceName().append(phase.name()));
+                    }
+                }
             }
 
-            // Make sure all sub deployments have finished this phase before moving to the next one
-            List<DeploymentUnit> subDeployments = deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS);
-            for (DeploymentUnit du : subDeployments) {
-                phaseServiceBuilder.addDependencies(du.getServiceName().append(phase.name()));
+            // Make sure all sub deployments have finished this phase before moving to the next one, unless they
+            // are allowed to proceed independently
+            if (!independentPhase) {
+                List<DeploymentUnit> subDeployments = deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS);
+                for (DeploymentUnit du : subDeployments) {
+                    phaseServiceBuilder.addDependencies(du.getServiceName().append(phase.name()));
+                }
             }
 
             // Defer the {@link Phase.FIRST_MODULE_USE} phase
@@ -209,6 +255,40 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
     }
 
+    private boolean lazyServices() {
+        final Boolean lazy = DeploymentUtils.getTopDeploymentUnit(deploymentUnit).getAttachment(Attachments.LAZY_SERVICES);
+        return lazy == null ? LAZY_SERVICES : lazy;
+    }
+
+    private boolean independentSubDeployments() {
+        final Boolean independent = DeploymentUtils.getTopDeploymentUnit(deploymentUnit).getAttachment(Attachments.INDEPENDENT_SUB_DEPLOYMENTS);
+        return independent == null ? INDEPENDENT_SUB_DEPLOYMENTS : independent;
+    }
+
+    /**
+     * Get the sibling sub deployments whose modules the module of a sub deployment depends on.
+     *
+     * @param subDeployment the sub deployment
+     * @return the sibling sub deployments, in deployment order
+     */
+    static List<DeploymentUnit> getSiblingDependencies(final DeploymentUnit subDeployment) {
+        final ModuleSpecification moduleSpec = subDeployment.getAttachment(Attachments.MODULE_SPECIFICATION);
+        if (moduleSpec == null) {
+            return Collections.emptyList();
+        }
+        final Set<ModuleIdentifier> dependencies = new HashSet<ModuleIdentifier>();
+        for (ModuleDependency dependency : moduleSpec.getAllDependencies()) {
+            dependencies.add(dependency.getIdentifier());
+        }
+        final List<DeploymentUnit> siblings = new ArrayList<DeploymentUnit>();
+        for (DeploymentUnit sibling : subDeployment.getParent().getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+            if (sibling != subDeployment && dependencies.contains(sibling.getAttachment(Attachments.MODULE_IDENTIFIER))) {
+                siblings.add(sibling);
+            }
+        }
+        return siblings;
+    }
+
     private Boolean restartAllowed() {
         final DeploymentUnit parent;
         if (deploymentUnit.getParent() == null) {
@@ -27,6 +27,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HAS
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -34,12 +35,15 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.jboss.as.controller.HashUtil;
 
+import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.controller.resources.DeploymentAttributes;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceTarget;
 
 /**
  * Helper class with static methods related to deployment
@@ -114,6 +118,40 @@ public final class DeploymentUtils {
         return topUnit.getAttachmentList(Attachments.DEFERRED_MODULES);
     }
 
+    /**
+     * Gets the service target of a deployment phase, for services that must start with the deployment even if it
+     * installs its services on demand, e.g. the services of user code.
+     *
+     * @param phaseContext the deployment phase context
+     * @return the service target
+     */
+    public static ServiceTarget getEagerServiceTarget(DeploymentPhaseContext phaseContext) {
+        final ServiceTarget serviceTarget = phaseContext.getServiceTarget();
+        return serviceTarget instanceof LazyServiceTarget ? ((LazyServiceTarget) serviceTarget).getDelegate() : serviceTarget;
+    }
+
+    /**
+     * Gets a running top level deployment unit and its sub deployments.
+     *
+     * @param context the operation context
+     * @param runtimeName the runtime name of the deployment
+     * @return the deployment units, empty if the deployment is not running
+     */
+    static List<DeploymentUnit> getDeploymentUnits(OperationContext context, String runtimeName) {
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.deploymentUnitName(runtimeName));
+        if (controller == null || controller.getState() != ServiceController.State.UP) {
+            return Collections.emptyList();
+        }
+        final DeploymentUnit deploymentUnit = ((AbstractDeploymentUnitService) controller.getService()).getValue();
+        if (deploymentUnit == null) {
+            return Collections.emptyList();
+        }
+        final List<DeploymentUnit> deploymentUnits = new ArrayList<DeploymentUnit>();
+        deploymentUnits.add(deploymentUnit);
+        deploymentUnits.addAll(deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS));
+        return deploymentUnits;
+    }
+
     public static List<byte[]> getDeploymentHash(Resource deployment) {
         return getDeploymentHash(deployment.getModel());
     }
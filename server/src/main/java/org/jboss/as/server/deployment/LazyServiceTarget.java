@@ -0,0 +1,385 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.BatchServiceTarget;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceListener;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistryException;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StabilityMonitor;
+import org.jboss.msc.value.ImmediateValue;
+import org.jboss.msc.value.Value;
+
+/**
+ * Service target that installs services which do not ask for a particular initial mode as
+ * {@link ServiceController.Mode#ON_DEMAND}, so they only start once something depending on them does. The names of
+ * those services are recorded on the deployment unit.
+ */
+class LazyServiceTarget implements ServiceTarget {
+
+    static final AttachmentKey<AttachmentList<ServiceName>> LAZY_SERVICE_NAMES = AttachmentKey.createList(ServiceName.class);
+
+    private final ServiceTarget delegate;
+    private final DeploymentUnit deploymentUnit;
+
+    LazyServiceTarget(final ServiceTarget delegate, final DeploymentUnit deploymentUnit) {
+        this.delegate = delegate;
+        this.deploymentUnit = deploymentUnit;
+    }
+
+    /**
+     * Get the target this target installs its services with.
+     *
+     * @return the target, whose services keep their default initial mode
+     */
+    ServiceTarget getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public <T> ServiceBuilder<T> addServiceValue(final ServiceName name, final Value<? extends Service<T>> value) {
+        return new LazyServiceBuilder<T>(delegate.addServiceValue(name, value), name);
+    }
+
+    @Override
+    public <T> ServiceBuilder<T> addService(final ServiceName name, final Service<T> service) {
+        return addServiceValue(name, new ImmediateValue<Service<T>>(service));
+    }
+
+    @Override
+    public ServiceTarget addMonitor(final StabilityMonitor monitor) {
+        delegate.addMonitor(monitor);
+        return this;
+    }
+
+    @Override
+    public ServiceTarget addMonitors(final StabilityMonitor... monitors) {
+        delegate.addMonitors(monitors);
+        return this;
+    }
+
+    @Override
+    public ServiceTarget removeMonitor(final StabilityMonitor monitor) {
+        delegate.removeMonitor(monitor);
+        return this;
+    }
+
+    @Override
+    public Set<StabilityMonitor> getMonitors() {
+        return delegate.getMonitors();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public ServiceTarget addListener(final ServiceListener<Object> listener) {
+        delegate.addListener(listener);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings({"deprecation", "unchecked"})
+    public ServiceTarget addListener(final ServiceListener<Object>... listeners) {
+        delegate.addListener(listeners);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public ServiceTarget addListener(final Collection<ServiceListener<Object>> listeners) {
+        delegate.addListener(listeners);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public ServiceTarget removeListener(final ServiceListener<Object> listener) {
+        delegate.removeListener(listener);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public Set<ServiceListener<Object>> getListeners() {
+        return delegate.getListeners();
+    }
+
+    @Override
+    public ServiceTarget addDependency(final ServiceName dependency) {
+        delegate.addDependency(dependency);
+        return this;
+    }
+
+    @Override
+    public ServiceTarget addDependency(final ServiceName... dependencies) {
+        delegate.addDependency(dependencies);
+        return this;
+    }
+
+    @Override
+    public ServiceTarget addDependency(final Collection<ServiceName> dependencies) {
+        delegate.addDependency(dependencies);
+        return this;
+    }
+
+    @Override
+    public ServiceTarget removeDependency(final ServiceName dependency) {
+        delegate.removeDependency(dependency);
+        return this;
+    }
+
+    @Override
+    public Set<ServiceName> getDependencies() {
+        return delegate.getDependencies();
+    }
+
+    @Override
+    public ServiceTarget subTarget() {
+        return new LazyServiceTarget(delegate.subTarget(), deploymentUnit);
+    }
+
+    @Override
+    public BatchServiceTarget batchTarget() {
+        return new LazyBatchServiceTarget(delegate.batchTarget(), deploymentUnit);
+    }
+
+    private static final class LazyBatchServiceTarget extends LazyServiceTarget implements BatchServiceTarget {
+
+        private final BatchServiceTarget delegate;
+
+        LazyBatchServiceTarget(final BatchServiceTarget delegate, final DeploymentUnit deploymentUnit) {
+            super(delegate, deploymentUnit);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void removeServices() {
+            delegate.removeServices();
+        }
+
+        @Override
+        public BatchServiceTarget addMonitor(final StabilityMonitor monitor) {
+            super.addMonitor(monitor);
+            return this;
+        }
+
+        @Override
+        public BatchServiceTarget addMonitors(final StabilityMonitor... monitors) {
+            super.addMonitors(monitors);
+            return this;
+        }
+
+        @Override
+        public BatchServiceTarget removeMonitor(final StabilityMonitor monitor) {
+            super.removeMonitor(monitor);
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public BatchServiceTarget addListener(final ServiceListener<Object> listener) {
+            super.addListener(listener);
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings({"deprecation", "unchecked"})
+        public BatchServiceTarget addListener(final ServiceListener<Object>... listeners) {
+            super.addListener(listeners);
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public BatchServiceTarget addListener(final Collection<ServiceListener<Object>> listeners) {
+            super.addListener(listeners);
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public BatchServiceTarget removeListener(final ServiceListener<Object> listener) {
+            super.removeListener(listener);
+            return this;
+        }
+
+        @Override
+        public BatchServiceTarget addDependency(final ServiceName dependency) {
+            super.addDependency(dependency);
+            return this;
+        }
+
+        @Override
+        public BatchServiceTarget addDependency(final ServiceName... dependencies) {
+            super.addDependency(dependencies);
+            return this;
+        }
+
+        @Override
+        public BatchServiceTarget addDependency(final Collection<ServiceName> dependencies) {
+            super.addDependency(dependencies);
+            return this;
+        }
+
+        @Override
+        public BatchServiceTarget removeDependency(final ServiceName dependency) {
+            super.removeDependency(dependency);
+            return this;
+        }
+    }
+
+    private final class LazyServiceBuilder<T> implements ServiceBuilder<T> {
+
+        private final ServiceBuilder<T> realBuilder;
+        private final ServiceName name;
+        private boolean modeSet;
+
+        LazyServiceBuilder(final ServiceBuilder<T> realBuilder, final ServiceName name) {
+            this.realBuilder = realBuilder;
+            this.name = name;
+        }
+
+        public ServiceBuilder<T> addAliases(final ServiceName... aliases) {
+            realBuilder.addAliases(aliases);
+            return this;
+        }
+
+        public ServiceBuilder<T> setInitialMode(final ServiceController.Mode mode) {
+            realBuilder.setInitialMode(mode);
+            modeSet = true;
+            return this;
+        }
+
+        public ServiceBuilder<T> addDependencies(final ServiceName... dependencies) {
+            realBuilder.addDependencies(dependencies);
+            return this;
+        }
+
+        public ServiceBuilder<T> addDependencies(final DependencyType dependencyType, final ServiceName... dependencies) {
+            realBuilder.addDependencies(dependencyType, dependencies);
+            return this;
+        }
+
+        public ServiceBuilder<T> addDependencies(final Iterable<ServiceName> dependencies) {
+            realBuilder.addDependencies(dependencies);
+            return this;
+        }
+
+        public ServiceBuilder<T> addDependencies(final DependencyType dependencyType, final Iterable<ServiceName> dependencies) {
+            realBuilder.addDependencies(dependencyType, dependencies);
+            return this;
+        }
+
+        public ServiceBuilder<T> addDependency(final ServiceName dependency) {
+            realBuilder.addDependency(dependency);
+            return this;
+        }
+
+        public ServiceBuilder<T> addDependency(final DependencyType dependencyType, final ServiceName dependency) {
+            realBuilder.addDependency(dependencyType, dependency);
+            return this;
+        }
+
+        public ServiceBuilder<T> addDependency(final ServiceName dependency, final Injector<Object> target) {
+            realBuilder.addDependency(dependency, target);
+            return this;
+        }
+
+        public ServiceBuilder<T> addDependency(final DependencyType dependencyType, final ServiceName dependency, final Injector<Object> target) {
+            realBuilder.addDependency(dependencyType, dependency, target);
+            return this;
+        }
+
+        public <I> ServiceBuilder<T> addDependency(final ServiceName dependency, final Class<I> type, final Injector<I> target) {
+            realBuilder.addDependency(dependency, type, target);
+            return this;
+        }
+
+        public <I> ServiceBuilder<T> addDependency(final DependencyType dependencyType, final ServiceName dependency, final Class<I> type, final Injector<I> target) {
+            realBuilder.addDependency(dependencyType, dependency, type, target);
+            return this;
+        }
+
+        public <I> ServiceBuilder<T> addInjection(final Injector<? super I> target, final I value) {
+            realBuilder.addInjection(target, value);
+            return this;
+        }
+
+        public <I> ServiceBuilder<T> addInjectionValue(final Injector<? super I> target, final Value<I> value) {
+            realBuilder.addInjectionValue(target, value);
+            return this;
+        }
+
+        public ServiceBuilder<T> addInjection(final Injector<? super T> target) {
+            realBuilder.addInjection(target);
+            return this;
+        }
+
+        public ServiceBuilder<T> addMonitor(final StabilityMonitor monitor) {
+            realBuilder.addMonitor(monitor);
+            return this;
+        }
+
+        public ServiceBuilder<T> addMonitors(final StabilityMonitor... monitors) {
+            realBuilder.addMonitors(monitors);
+            return this;
+        }
+
+        @SuppressWarnings("deprecation")
+        public ServiceBuilder<T> addListener(final ServiceListener<? super T> listener) {
+            realBuilder.addListener(listener);
+            return this;
+        }
+
+        @SafeVarargs
+        @SuppressWarnings("deprecation")
+        public final ServiceBuilder<T> addListener(final ServiceListener<? super T>... listeners) {
+            realBuilder.addListener(listeners);
+            return this;
+        }
+
+        @SuppressWarnings("deprecation")
+        public ServiceBuilder<T> addListener(final Collection<? extends ServiceListener<? super T>> listeners) {
+            realBuilder.addListener(listeners);
+            return this;
+        }
+
+        public ServiceController<T> install() throws ServiceRegistryException, IllegalStateException {
+            if (!modeSet) {
+                realBuilder.setInitialMode(ServiceController.Mode.ON_DEMAND);
+            }
+            final ServiceController<T> controller = realBuilder.install();
+            if (!modeSet) {
+                deploymentUnit.addToAttachmentList(LAZY_SERVICE_NAMES, name);
+            }
+            return controller;
+        }
+    }
+}
@@ -24,45 +24,113 @@ package org.jboss.as.server.deployment;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.jboss.as.server.logging.ServerLogger;
 
 /**
  * A simple implementation of {@link Attachable} which may be used as a base class or on a standalone basis.
  * <p>
- * This class is thread safe, as all methods are synchronized.
+ * Each {@link AttachmentKey} is assigned a fixed slot when it is created, and attachments are stored in an
+ * array indexed by that slot.  Reads do not take a lock; modifications are synchronized and grow the array
+ * as needed, so this class is thread safe.  Keys are expected to be constants, so slots are only used for the
+ * first {@link #MAX_SLOTS} keys created; attachments of later keys are kept in a concurrent map, so that keys
+ * created over and over again cannot make every attachable allocate ever larger arrays.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public class SimpleAttachable implements Attachable {
-    private final Map<AttachmentKey<?>, Object> attachments = new HashMap<AttachmentKey<?>, Object>();
+
+    /** The number of keys whose attachments are stored in slots */
+    static final int MAX_SLOTS = 1024;
+
+    private static final AtomicReferenceArray<Object> EMPTY = new AtomicReferenceArray<Object>(0);
+
+    /** Marks a slot holding an explicit {@code null} attachment, as opposed to an empty slot */
+    private static final Object NULL_VALUE = new Object();
+
+    private volatile AtomicReferenceArray<Object> slots = EMPTY;
+    private AttachmentKey<?>[] keys = new AttachmentKey<?>[0];
+    /** The attachments of the keys beyond {@link #MAX_SLOTS}, created on first use */
+    private volatile Map<AttachmentKey<?>, Object> overflow;
+
+    private Object get(final AttachmentKey<?> key) {
+        final int index = key.index;
+        if (index >= MAX_SLOTS) {
+            final Map<AttachmentKey<?>, Object> overflow = this.overflow;
+            return overflow == null ? null : overflow.get(key);
+        }
+        final AtomicReferenceArray<Object> slots = this.slots;
+        return index < slots.length() ? slots.get(index) : null;
+    }
+
+    private static Object unmask(final Object value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    /**
+     * Stores a value in the slot of the given key.  Must be called with the lock held.
+     *
+     * @return the previous (masked) contents of the slot
+     */
+    private Object set(final AttachmentKey<?> key, final Object value) {
+        final int index = key.index;
+        if (index >= MAX_SLOTS) {
+            Map<AttachmentKey<?>, Object> overflow = this.overflow;
+            if (overflow == null) {
+                if (value == null) {
+                    return null;
+                }
+                this.overflow = overflow = new ConcurrentHashMap<AttachmentKey<?>, Object>();
+            }
+            return value == null ? overflow.remove(key) : overflow.put(key, value);
+        }
+        AtomicReferenceArray<Object> slots = this.slots;
+        if (index >= slots.length()) {
+            if (value == null) {
+                return null;
+            }
+            final int newLength = Math.min(MAX_SLOTS, Math.max(index + 1, slots.length() + (slots.length() >> 1)));
+            final AtomicReferenceArray<Object> newSlots = new AtomicReferenceArray<Object>(newLength);
+            for (int i = 0; i < slots.length(); i++) {
+                newSlots.lazySet(i, slots.get(i));
+            }
+            final AttachmentKey<?>[] newKeys = new AttachmentKey<?>[newLength];
+            System.arraycopy(keys, 0, newKeys, 0, keys.length);
+            keys = newKeys;
+            this.slots = slots = newSlots;
+        }
+        keys[index] = value == null ? null : key;
+        return slots.getAndSet(index, value);
+    }
 
     /** {@inheritDoc} */
-    public synchronized boolean hasAttachment(AttachmentKey<?> key) {
+    public boolean hasAttachment(AttachmentKey<?> key) {
         if (key == null) {
             return false;
         }
-        return attachments.containsKey(key);
+        return get(key) != null;
     }
 
     /** {@inheritDoc} */
-    public synchronized <T> T getAttachment(final AttachmentKey<T> key) {
+    public <T> T getAttachment(final AttachmentKey<T> key) {
         if (key == null) {
             return null;
         }
-        return key.cast(attachments.get(key));
+        return key.cast(unmask(get(key)));
     }
 
     /** {@inheritDoc} */
-    public synchronized <T> List<T> getAttachmentList(AttachmentKey<? extends List<T>> key) {
+    public <T> List<T> getAttachmentList(AttachmentKey<? extends List<T>> key) {
         if (key == null) {
             return null;
         }
-        List<T> list = key.cast(attachments.get(key));
+        List<T> list = key.cast(unmask(get(key)));
         if (list == null) {
             return Collections.emptyList();
         }
@@ -74,7 +142,8 @@ public class SimpleAttachable implements Attachable {
         if (key == null) {
             throw ServerLogger.ROOT_LOGGER.nullAttachmentKey();
         }
-        return key.cast(attachments.put(key, key.cast(value)));
+        final T checked = key.cast(value);
+        return key.cast(unmask(set(key, checked == null ? NULL_VALUE : checked)));
     }
 
     /** {@inheritDoc} */
@@ -82,18 +151,17 @@ public class SimpleAttachable implements Attachable {
         if (key == null) {
             return null;
         }
-        return key.cast(attachments.remove(key));
+        return key.cast(unmask(set(key, null)));
     }
 
     /** {@inheritDoc} */
     public synchronized <T> void addToAttachmentList(final AttachmentKey<AttachmentList<T>> key, final T value) {
         if (key != null) {
-            final Map<AttachmentKey<?>, Object> attachments = this.attachments;
-            final AttachmentList<T> list = key.cast(attachments.get(key));
+            final AttachmentList<T> list = key.cast(unmask(get(key)));
             if (list == null) {
                 final AttachmentList<T> newList = new AttachmentList<T>(((ListAttachmentKey<T>) key).getValueClass());
-                attachments.put(key, newList);
                 newList.add(value);
+                set(key, newList);
             } else {
                 list.add(value);
             }
@@ -101,6 +169,15 @@ public class SimpleAttachable implements Attachable {
     }
 
     public synchronized Collection<AttachmentKey<?>> attachmentKeys() {
-        return new HashSet<AttachmentKey<?>>(attachments.keySet());
+        final Set<AttachmentKey<?>> result = new HashSet<AttachmentKey<?>>();
+        for (AttachmentKey<?> key : keys) {
+            if (key != null) {
+                result.add(key);
+            }
+        }
+        if (overflow != null) {
+            result.addAll(overflow.keySet());
+        }
+        return result;
     }
 }
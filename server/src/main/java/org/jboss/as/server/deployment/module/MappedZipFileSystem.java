@@ -0,0 +1,567 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSigner;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.FileSystem;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Read-only VFS file system over a memory-mapped zip archive. The central directory is indexed once when the archive
+ * is mounted and entries are read straight from the mapped bytes. An archive nested in a mapped archive without
+ * compression is mounted over its bytes in the outer archive instead of being extracted to a temporary file first.
+ * <p>
+ * Signed and zip64 archives, and nested archives that are compressed, are mounted with {@link VFS#mountZip} as usual.
+ * Mapping is enabled with the {@value #MAPPED_ARCHIVES} system property.
+ */
+public final class MappedZipFileSystem implements FileSystem {
+
+    public static final String MAPPED_ARCHIVES = "jboss.server.deployment.mapped-archives";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(MAPPED_ARCHIVES, "false"));
+
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_HEADER = 0x02014b50;
+    private static final int LOCAL_FILE_HEADER = 0x04034b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    /** The mapped file systems by mount point, used to find the archive containing a nested archive */
+    private static final ConcurrentMap<VirtualFile, MappedZipFileSystem> mounts = new ConcurrentHashMap<>();
+
+    private final ByteBuffer archive;
+    private final File mountSource;
+    private final String location;
+    private final TempDir tempDir;
+    private final Map<String, Entry> entries;
+    private final Map<String, List<String>> directories;
+    private final ConcurrentMap<String, File> extracted = new ConcurrentHashMap<>();
+    private volatile VirtualFile mountPoint;
+
+    private MappedZipFileSystem(final ByteBuffer archive, final File mountSource, final String location, final TempDir tempDir,
+                                final Map<String, Entry> entries, final Map<String, List<String>> directories) {
+        this.archive = archive;
+        this.mountSource = mountSource;
+        this.location = location;
+        this.tempDir = tempDir;
+        this.entries = entries;
+        this.directories = directories;
+    }
+
+    /**
+     * Mounts a zip archive, memory-mapped if enabled and possible, and otherwise with {@link VFS#mountZip}.
+     *
+     * @param zipFile the archive
+     * @param mountPoint the mount point
+     * @param tempFileProvider provider of the directory to extract entries to when their physical file is requested
+     * @return the handle to close the mount
+     * @throws IOException if the archive cannot be mounted
+     */
+    public static Closeable mountZip(final VirtualFile zipFile, final VirtualFile mountPoint, final TempFileProvider tempFileProvider) throws IOException {
+        if (ENABLED) {
+            try {
+                final MappedZipFileSystem fileSystem = create(zipFile, tempFileProvider);
+                if (fileSystem != null) {
+                    return fileSystem.mount(mountPoint);
+                }
+            } catch (IOException e) {
+                ServerLogger.ROOT_LOGGER.debugf(e, "Cannot map %s, mounting it as a zip file", zipFile);
+            }
+        }
+        return VFS.mountZip(zipFile, mountPoint, tempFileProvider);
+    }
+
+    /**
+     * Maps an archive and indexes its central directory.
+     *
+     * @return the file system, or {@code null} if the archive is of a kind this file system does not handle
+     * @throws IOException if the archive cannot be read or is corrupt
+     */
+    static MappedZipFileSystem create(final VirtualFile zipFile, final TempFileProvider tempFileProvider) throws IOException {
+        final ByteBuffer archive;
+        final File mountSource;
+        final String location;
+        final MappedZipFileSystem outer = findMount(zipFile);
+        if (outer != null) {
+            final String path = outer.getPath(zipFile);
+            final Entry entry = outer.entries.get(path);
+            if (entry == null || entry.method != STORED) {
+                return null;
+            }
+            archive = outer.read(entry);
+            mountSource = null;
+            location = outer.location + path + "!/";
+        } else {
+            final File file = zipFile.getPhysicalFile();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    return null;
+                }
+                archive = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            mountSource = file;
+            location = file.toURI() + "!/";
+        }
+        archive.order(ByteOrder.LITTLE_ENDIAN);
+        final Map<String, Entry> entries = new HashMap<>();
+        final Map<String, Set<String>> children = new HashMap<>();
+        if (!readCentralDirectory(archive, entries, children)) {
+            return null;
+        }
+        final Map<String, List<String>> directories = new HashMap<>();
+        for (Map.Entry<String, Set<String>> directory : children.entrySet()) {
+            directories.put(directory.getKey(), Collections.unmodifiableList(new ArrayList<>(directory.getValue())));
+        }
+        return new MappedZipFileSystem(archive, mountSource, location, tempFileProvider.createTempDir(zipFile.getName()), entries, directories);
+    }
+
+    private static MappedZipFileSystem findMount(final VirtualFile file) {
+        for (VirtualFile parent = file.getParent(); parent != null; parent = parent.getParent()) {
+            final MappedZipFileSystem fileSystem = mounts.get(parent);
+            if (fileSystem != null) {
+                return fileSystem;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indexes the central directory of the archive.
+     *
+     * @return {@code false} if the archive is of a kind this file system does not handle
+     */
+    private static boolean readCentralDirectory(final ByteBuffer archive, final Map<String, Entry> entries,
+                                                final Map<String, Set<String>> children) throws IOException {
+        final int end = findEndOfCentralDirectory(archive);
+        final int count = archive.getShort(end + 10) & 0xffff;
+        final long directoryOffset = archive.getInt(end + 16) & 0xffffffffL;
+        if (count == 0xffff || directoryOffset == 0xffffffffL) {
+            // zip64
+            return false;
+        }
+        children.put("", new LinkedHashSet<String>());
+        int position = (int) directoryOffset;
+        for (int i = 0; i < count; i++) {
+            if (position < 0 || position > archive.capacity() - CENTRAL_DIRECTORY_HEADER_SIZE
+                    || archive.getInt(position) != CENTRAL_DIRECTORY_HEADER) {
+                throw ServerLogger.ROOT_LOGGER.invalidCentralDirectoryHeader(position);
+            }
+            final int flags = archive.getShort(position + 8) & 0xffff;
+            final int method = archive.getShort(position + 10) & 0xffff;
+            final int time = archive.getShort(position + 12) & 0xffff;
+            final int date = archive.getShort(position + 14) & 0xffff;
+            final long compressedSize = archive.getInt(position + 20) & 0xffffffffL;
+            final long size = archive.getInt(position + 24) & 0xffffffffL;
+            final int nameLength = archive.getShort(position + 28) & 0xffff;
+            final int extraLength = archive.getShort(position + 30) & 0xffff;
+            final int commentLength = archive.getShort(position + 32) & 0xffff;
+            final long localHeaderOffset = archive.getInt(position + 42) & 0xffffffffL;
+            if (position + CENTRAL_DIRECTORY_HEADER_SIZE + nameLength > archive.capacity()) {
+                throw ServerLogger.ROOT_LOGGER.invalidCentralDirectoryHeader(position);
+            }
+            final byte[] nameBytes = new byte[nameLength];
+            final ByteBuffer nameBuffer = archive.duplicate();
+            nameBuffer.position(position + CENTRAL_DIRECTORY_HEADER_SIZE);
+            nameBuffer.get(nameBytes);
+            position += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+            if ((flags & 1) != 0 || (method != STORED && method != DEFLATED) || compressedSize == 0xffffffffL
+                    || size == 0xffffffffL || localHeaderOffset == 0xffffffffL) {
+                // Encrypted, unsupported compression or zip64
+                return false;
+            }
+            if (isSignatureFile(name)) {
+                // Leave verification of signed jars to the JDK
+                return false;
+            }
+            if (!isSafeName(name)) {
+                // Could resolve outside the directory entries are extracted to
+                return false;
+            }
+            final boolean directory = name.endsWith("/");
+            if (directory) {
+                name = name.substring(0, name.length() - 1);
+            }
+            if (name.isEmpty()) {
+                continue;
+            }
+            final long lastModified = toJavaTime(date, time);
+            if (directory) {
+                addDirectory(name, lastModified, entries, children);
+            } else {
+                if (localHeaderOffset > archive.capacity() - LOCAL_FILE_HEADER_SIZE
+                        || archive.getInt((int) localHeaderOffset) != LOCAL_FILE_HEADER) {
+                    throw ServerLogger.ROOT_LOGGER.invalidLocalFileHeader(name);
+                }
+                final int localNameLength = archive.getShort((int) localHeaderOffset + 26) & 0xffff;
+                final int localExtraLength = archive.getShort((int) localHeaderOffset + 28) & 0xffff;
+                final long dataOffset = localHeaderOffset + LOCAL_FILE_HEADER_SIZE + localNameLength + localExtraLength;
+                if (dataOffset + compressedSize > archive.capacity()) {
+                    throw ServerLogger.ROOT_LOGGER.truncatedZipEntry(name);
+                }
+                entries.put(name, new Entry(false, method, (int) dataOffset, (int) compressedSize, size, lastModified));
+                addToParent(name, lastModified, entries, children);
+            }
+        }
+        return true;
+    }
+
+    private static int findEndOfCentralDirectory(final ByteBuffer archive) throws ZipException {
+        final int last = archive.capacity() - END_OF_CENTRAL_DIRECTORY_SIZE;
+        final int first = Math.max(0, last - 0xffff);
+        for (int position = last; position >= first; position--) {
+            if (archive.getInt(position) == END_OF_CENTRAL_DIRECTORY) {
+                return position;
+            }
+        }
+        throw ServerLogger.ROOT_LOGGER.endOfCentralDirectoryNotFound();
+    }
+
+    /**
+     * Checks an entry name is a relative path without {@code ..} segments, so that extracting the entry cannot write
+     * outside the temp directory.
+     */
+    private static boolean isSafeName(final String name) {
+        if (name.startsWith("/") || name.indexOf('\\') >= 0) {
+            return false;
+        }
+        for (String segment : name.split("/")) {
+            if ("..".equals(segment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSignatureFile(final String name) {
+        final String upper = name.toUpperCase(Locale.ENGLISH);
+        return upper.startsWith("META-INF/") && upper.indexOf('/', 9) < 0
+                && (upper.endsWith(".SF") || upper.endsWith(".RSA") || upper.endsWith(".DSA") || upper.endsWith(".EC"));
+    }
+
+    private static void addDirectory(final String name, final long lastModified, final Map<String, Entry> entries,
+                                     final Map<String, Set<String>> children) {
+        final Entry existing = entries.get(name);
+        if (existing == null || existing.lastModified == 0) {
+            entries.put(name, new Entry(true, STORED, 0, 0, 0, lastModified));
+        }
+        if (!children.containsKey(name)) {
+            children.put(name, new LinkedHashSet<String>());
+            addToParent(name, lastModified, entries, children);
+        }
+    }
+
+    private static void addToParent(final String name, final long lastModified, final Map<String, Entry> entries,
+                                    final Map<String, Set<String>> children) {
+        final int slash = name.lastIndexOf('/');
+        final String parent = slash < 0 ? "" : name.substring(0, slash);
+        if (!parent.isEmpty() && !children.containsKey(parent)) {
+            // Directory without an entry of its own
+            entries.put(parent, new Entry(true, STORED, 0, 0, 0, 0));
+            children.put(parent, new LinkedHashSet<String>());
+            addToParent(parent, lastModified, entries, children);
+        }
+        children.get(parent).add(name.substring(slash + 1));
+    }
+
+    private static long toJavaTime(final int date, final int time) {
+        final Calendar calendar = new GregorianCalendar(((date >> 9) & 0x7f) + 1980, ((date >> 5) & 0x0f) - 1, date & 0x1f,
+                (time >> 11) & 0x1f, (time >> 5) & 0x3f, (time << 1) & 0x3e);
+        return calendar.getTimeInMillis();
+    }
+
+    Closeable mount(final VirtualFile mountPoint) throws IOException {
+        this.mountPoint = mountPoint;
+        final Closeable handle;
+        try {
+            handle = VFS.mount(mountPoint, this);
+        } catch (IOException e) {
+            tempDir.close();
+            throw e;
+        }
+        mounts.put(mountPoint, this);
+        return handle;
+    }
+
+    private String getPath(final VirtualFile target) {
+        return target.equals(mountPoint) ? "" : target.getPathNameRelativeTo(mountPoint);
+    }
+
+    private Entry getEntry(final VirtualFile mountPoint, final VirtualFile target) {
+        return target.equals(mountPoint) ? null : entries.get(target.getPathNameRelativeTo(mountPoint));
+    }
+
+    /**
+     * Gets the stored bytes of an entry, without copying them.
+     */
+    private ByteBuffer read(final Entry entry) {
+        final ByteBuffer data = archive.duplicate();
+        data.limit(entry.offset + entry.compressedSize);
+        data.position(entry.offset);
+        return data.slice();
+    }
+
+    @Override
+    public File getFile(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final String path = target.equals(mountPoint) ? "" : target.getPathNameRelativeTo(mountPoint);
+        File file = extracted.get(path);
+        if (file == null) {
+            file = extract(path);
+            final File existing = extracted.putIfAbsent(path, file);
+            if (existing != null) {
+                file = existing;
+            }
+        }
+        return file;
+    }
+
+    private File extract(final String path) throws IOException {
+        final List<String> children = directories.get(path);
+        if (children != null) {
+            final File directory = path.isEmpty() ? tempDir.getRoot() : tempDir.getFile(path);
+            directory.mkdirs();
+            for (String child : children) {
+                final String childPath = path.isEmpty() ? child : path + '/' + child;
+                if (!extracted.containsKey(childPath)) {
+                    extracted.putIfAbsent(childPath, extract(childPath));
+                }
+            }
+            return directory;
+        }
+        final Entry entry = entries.get(path);
+        if (entry == null) {
+            return tempDir.getFile(path);
+        }
+        try (InputStream in = openStream(entry)) {
+            return tempDir.createFile(path, in);
+        }
+    }
+
+    @Override
+    public InputStream openInputStream(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final Entry entry = getEntry(mountPoint, target);
+        if (entry == null || entry.directory) {
+            throw ServerLogger.ROOT_LOGGER.notAFile(target);
+        }
+        return openStream(entry);
+    }
+
+    private InputStream openStream(final Entry entry) {
+        if (entry.method == STORED) {
+            return new ByteBufferInputStream(read(entry), false);
+        }
+        // An inflater without zlib header may need an extra dummy byte after the compressed data
+        return new InflaterInputStream(new ByteBufferInputStream(read(entry), true), new Inflater(true)) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    inf.end();
+                    super.close();
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean delete(final VirtualFile mountPoint, final VirtualFile target) {
+        return false;
+    }
+
+    @Override
+    public long getSize(final VirtualFile mountPoint, final VirtualFile target) {
+        final Entry entry = getEntry(mountPoint, target);
+        return entry == null ? 0L : entry.size;
+    }
+
+    @Override
+    public long getLastModified(final VirtualFile mountPoint, final VirtualFile target) {
+        final Entry entry = getEntry(mountPoint, target);
+        return entry == null ? 0L : entry.lastModified;
+    }
+
+    @Override
+    public boolean exists(final VirtualFile mountPoint, final VirtualFile target) {
+        return target.equals(mountPoint) || getEntry(mountPoint, target) != null;
+    }
+
+    @Override
+    public boolean isFile(final VirtualFile mountPoint, final VirtualFile target) {
+        final Entry entry = getEntry(mountPoint, target);
+        return entry != null && !entry.directory;
+    }
+
+    @Override
+    public boolean isDirectory(final VirtualFile mountPoint, final VirtualFile target) {
+        if (target.equals(mountPoint)) {
+            return true;
+        }
+        final Entry entry = getEntry(mountPoint, target);
+        return entry != null && entry.directory;
+    }
+
+    @Override
+    public List<String> getDirectoryEntries(final VirtualFile mountPoint, final VirtualFile target) {
+        final List<String> children = directories.get(target.equals(mountPoint) ? "" : target.getPathNameRelativeTo(mountPoint));
+        return children == null ? Collections.<String>emptyList() : children;
+    }
+
+    @Override
+    public CodeSigner[] getCodeSigners(final VirtualFile mountPoint, final VirtualFile target) {
+        // Signed archives are not mapped
+        return null;
+    }
+
+    @Override
+    public File getMountSource() {
+        return mountSource;
+    }
+
+    @Override
+    public URI getRootURI() throws URISyntaxException {
+        return new URI("jar:" + location);
+    }
+
+    @Override
+    public void close() throws IOException {
+        final VirtualFile mountPoint = this.mountPoint;
+        if (mountPoint != null) {
+            mounts.remove(mountPoint, this);
+        }
+        tempDir.close();
+    }
+
+    private static final class Entry {
+        private final boolean directory;
+        private final int method;
+        private final int offset;
+        private final int compressedSize;
+        private final long size;
+        private final long lastModified;
+
+        private Entry(final boolean directory, final int method, final int offset, final int compressedSize, final long size,
+                      final long lastModified) {
+            this.directory = directory;
+            this.method = method;
+            this.offset = offset;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+        private boolean dummyByte;
+
+        private ByteBufferInputStream(final ByteBuffer buffer, final boolean dummyByte) {
+            this.buffer = buffer;
+            this.dummyByte = dummyByte;
+        }
+
+        @Override
+        public int read() {
+            if (buffer.hasRemaining()) {
+                return buffer.get() & 0xff;
+            }
+            if (dummyByte) {
+                dummyByte = false;
+                return 0;
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                final int dummy = read();
+                if (dummy < 0) {
+                    return -1;
+                }
+                b[off] = (byte) dummy;
+                return 1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
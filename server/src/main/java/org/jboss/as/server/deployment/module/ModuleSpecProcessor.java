@@ -222,10 +222,12 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
             specBuilder.addResourceRoot(resourceLoaderSpec);
         }
 
+        final ResourceLoaderPathIndex pathIndex = ResourceLoaderPathIndex.load(deploymentUnit, moduleIdentifier);
         for (final ResourceRoot resourceRoot : resourceRoots) {
             logger.debug("Adding resource " + resourceRoot.getRoot() + " to module " + moduleIdentifier);
-            addResourceRoot(specBuilder, resourceRoot, permFactories);
+            addResourceRoot(specBuilder, resourceRoot, permFactories, pathIndex);
         }
+        pathIndex.store();
 
         createDependencies(specBuilder, dependencies, false);
         createDependencies(specBuilder, userDependencies, false);
@@ -330,20 +332,21 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         }
     }
 
-    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final List<PermissionFactory> permFactories)
-            throws DeploymentUnitProcessingException {
+    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final List<PermissionFactory> permFactories,
+                                 final ResourceLoaderPathIndex pathIndex) throws DeploymentUnitProcessingException {
         try {
             final VirtualFile root = resource.getRoot();
+            final VFSResourceLoader loader = new VFSResourceLoader(resource.getRootName(), root, resource.isUsePhysicalCodeSource(),
+                    pathIndex.getPaths(root));
+            pathIndex.addLoader(root, loader);
             if (resource.getExportFilters().isEmpty()) {
-                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource())));
+                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(loader));
             } else {
                 final MultiplePathFilterBuilder filterBuilder = PathFilters.multiplePathFilterBuilder(true);
                 for (final FilterSpecification filter : resource.getExportFilters()) {
                     filterBuilder.addFilter(filter.getPathFilter(), filter.isInclude());
                 }
-                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource()), filterBuilder.create()));
+                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(loader, filterBuilder.create()));
             }
             // start with the root
             permFactories.add(new ImmediatePermissionFactory(
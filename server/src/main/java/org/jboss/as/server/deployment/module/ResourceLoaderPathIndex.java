@@ -0,0 +1,274 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.repository.HashUtil;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deploymentoverlay.DeploymentOverlayIndex;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Persisted index of the paths held by each resource root of a deployment module, so that the resource loaders of a
+ * module do not walk all of their roots again each time the same content is deployed.
+ * <p>
+ * The index is kept under the server data directory and keyed by the hash of the deployment content together with the
+ * hashes of any overlays applied to it. Content that is not managed by the content repository is never indexed, and
+ * roots outside of the deployment are always walked.
+ */
+public final class ResourceLoaderPathIndex {
+
+    static final String INDEX_DIR = "module-index";
+
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".index";
+
+    private final File file;
+    private final String moduleName;
+    private final VirtualFile deploymentRoot;
+    private final Map<String, List<String>> stored;
+    private final Map<String, VFSResourceLoader> loaders = new LinkedHashMap<>();
+    private boolean changed;
+
+    private ResourceLoaderPathIndex(final File file, final String moduleName, final VirtualFile deploymentRoot, final Map<String, List<String>> stored) {
+        this.file = file;
+        this.moduleName = moduleName;
+        this.deploymentRoot = deploymentRoot;
+        this.stored = stored;
+    }
+
+    /**
+     * Loads the index of a deployment module, if its content can be indexed.
+     *
+     * @param deploymentUnit the deployment unit the module belongs to
+     * @param moduleIdentifier the module
+     * @return the index, empty if there is none stored yet or the content cannot be indexed
+     */
+    static ResourceLoaderPathIndex load(final DeploymentUnit deploymentUnit, final ModuleIdentifier moduleIdentifier) {
+        final DeploymentUnit topLevelDeployment = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        final String moduleName = moduleIdentifier.toString();
+        final byte[] hash = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_CONTENTS_HASH);
+        final PathManager pathManager = topLevelDeployment.getAttachment(Attachments.PATH_MANAGER);
+        final ResourceRoot deploymentRoot = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        if (hash == null || pathManager == null || deploymentRoot == null) {
+            return new ResourceLoaderPathIndex(null, moduleName, null, Collections.<String, List<String>>emptyMap());
+        }
+        final DeploymentOverlayIndex overlays = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX);
+        final Map<String, byte[]> overlayContents = overlays == null ? Collections.<String, byte[]>emptyMap()
+                : overlays.getOverlays(topLevelDeployment.getName());
+        final File indexDir = new File(pathManager.getPathEntry(ServerEnvironment.SERVER_DATA_DIR).resolvePath(), INDEX_DIR);
+        final File deploymentDir = new File(indexDir, toFileName(topLevelDeployment.getName()));
+        final File keyDir = new File(deploymentDir, HashUtil.bytesToHexString(key(hash, overlayContents)));
+        final File file = new File(keyDir, toFileName(moduleName) + SUFFIX);
+        return new ResourceLoaderPathIndex(file, moduleName, deploymentRoot.getRoot(), read(file, moduleName));
+    }
+
+    /**
+     * Gets the stored paths of a resource root.
+     *
+     * @param root the resource root
+     * @return the paths, or {@code null} if they are not indexed
+     */
+    Collection<String> getPaths(final VirtualFile root) {
+        final String key = getKey(root);
+        return key == null ? null : stored.get(key);
+    }
+
+    /**
+     * Records the loader of a resource root of the module, so that its paths get stored if they were not indexed yet.
+     *
+     * @param root the resource root
+     * @param loader the loader of the root
+     */
+    void addLoader(final VirtualFile root, final VFSResourceLoader loader) {
+        final String key = getKey(root);
+        if (key != null) {
+            loaders.put(key, loader);
+            changed |= !stored.containsKey(key);
+        }
+    }
+
+    /**
+     * Stores the paths of all recorded resource roots if any of them was not indexed yet, and removes the indexes of
+     * content previously deployed under the same name.
+     */
+    void store() {
+        if (file == null || !changed) {
+            return;
+        }
+        final Map<String, Collection<String>> paths = new LinkedHashMap<>();
+        for (Map.Entry<String, VFSResourceLoader> entry : loaders.entrySet()) {
+            paths.put(entry.getKey(), entry.getValue().getPaths());
+        }
+        final File keyDir = file.getParentFile();
+        try {
+            final File[] previous = keyDir.getParentFile().listFiles();
+            if (previous != null) {
+                for (File dir : previous) {
+                    if (!dir.equals(keyDir)) {
+                        deleteRecursively(dir);
+                    }
+                }
+            }
+            if (!keyDir.mkdirs() && !keyDir.isDirectory()) {
+                throw new IOException(keyDir.getAbsolutePath());
+            }
+            final File tmp = File.createTempFile(file.getName(), ".tmp", keyDir);
+            try {
+                write(tmp, moduleName, paths);
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                tmp.delete();
+            }
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Cannot store the resource root index of %s", moduleName);
+        }
+    }
+
+    /**
+     * Removes the stored indexes of a deployment, once it is no longer deployed.
+     *
+     * @param serverDataDir the server data directory
+     * @param deploymentName the runtime name of the deployment
+     */
+    public static void remove(final File serverDataDir, final String deploymentName) {
+        deleteRecursively(new File(new File(serverDataDir, INDEX_DIR), toFileName(deploymentName)));
+    }
+
+    private String getKey(final VirtualFile root) {
+        if (deploymentRoot == null) {
+            return null;
+        }
+        if (root.equals(deploymentRoot)) {
+            return "";
+        }
+        try {
+            return root.getPathNameRelativeTo(deploymentRoot);
+        } catch (IllegalArgumentException e) {
+            // Not part of the deployment
+            return null;
+        }
+    }
+
+    static Map<String, List<String>> read(final File file, final String moduleName) {
+        if (!file.isFile()) {
+            return Collections.emptyMap();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != VERSION || !moduleName.equals(in.readUTF())) {
+                return Collections.emptyMap();
+            }
+            final int roots = in.readInt();
+            final Map<String, List<String>> index = new HashMap<>();
+            for (int i = 0; i < roots; i++) {
+                final String root = in.readUTF();
+                final int count = in.readInt();
+                final List<String> paths = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    paths.add(in.readUTF());
+                }
+                index.put(root, Collections.unmodifiableList(paths));
+            }
+            return index;
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Cannot read the resource root index of %s", moduleName);
+            return Collections.emptyMap();
+        }
+    }
+
+    static void write(final File file, final String moduleName, final Map<String, ? extends Collection<String>> index) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(VERSION);
+            out.writeUTF(moduleName);
+            out.writeInt(index.size());
+            for (Map.Entry<String, ? extends Collection<String>> entry : index.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (String path : entry.getValue()) {
+                    out.writeUTF(path);
+                }
+            }
+        }
+    }
+
+    private static byte[] key(final byte[] hash, final Map<String, byte[]> overlays) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(hash);
+        for (Map.Entry<String, byte[]> overlay : new TreeMap<>(overlays).entrySet()) {
+            digest.update(overlay.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(overlay.getValue());
+        }
+        return digest.digest();
+    }
+
+    private static String toFileName(final String name) {
+        final StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            builder.append(Character.isLetterOrDigit(c) || c == '.' || c == '-' ? c : '_');
+        }
+        return builder.toString();
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
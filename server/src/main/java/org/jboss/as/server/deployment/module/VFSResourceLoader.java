@@ -38,10 +38,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.jar.Manifest;
 
 import org.jboss.as.server.logging.ServerLogger;
@@ -77,8 +77,8 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
     private final Manifest manifest;
     private final URL rootUrl;
 
-    // protected by {@code this}
-    private final Map<CodeSigners, CodeSource> codeSources = new HashMap<>();
+    private final ConcurrentMap<CodeSigners, CodeSource> codeSources = new ConcurrentHashMap<>();
+    private volatile Collection<String> paths;
 
     /**
      * Construct new instance.
@@ -100,6 +100,19 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
      * @throws IOException if the manifest could not be read or the root URL is invalid
      */
     public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource) throws IOException {
+        this(rootName, root, usePhysicalCodeSource, null);
+    }
+
+    /**
+     * Construct new instance.
+     *
+     * @param rootName The module root name
+     * @param root The root virtual file
+     * @param usePhysicalCodeSource {@code true} to use the physical root URL for code sources, {@code false} to use the VFS URL
+     * @param paths the paths of the root if already known, or {@code null} to find them when first requested
+     * @throws IOException if the manifest could not be read or the root URL is invalid
+     */
+    public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource, final Collection<String> paths) throws IOException {
         final SecurityManager sm = System.getSecurityManager();
         final boolean checking = WildFlySecurityManager.isChecking();
         if (checking) {
@@ -123,6 +136,7 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
             }
         }
         rootUrl = usePhysicalCodeSource ? VFSUtils.getRootURL(root) : root.asFileURL();
+        this.paths = paths;
     }
 
     /** {@inheritDoc} */
@@ -135,37 +149,32 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
                         return null;
                     }
                     final long size = file.getSize();
+                    if (size > Integer.MAX_VALUE) {
+                        throw ServerLogger.ROOT_LOGGER.resourceTooLarge();
+                    }
+                    // Entries are read without holding a lock on the loader, so that classes can be defined from one
+                    // archive by several threads at once; the zip file and jar verifier are safe for concurrent use
                     final ClassSpec spec = new ClassSpec();
-                    synchronized (VFSResourceLoader.this) {
-                        final InputStream is = file.openStream();
-                        try {
-                            if (size <= Integer.MAX_VALUE) {
-                                final int castSize = (int) size;
-                                byte[] bytes = new byte[castSize];
-                                int a = 0, res;
-                                while ((res = is.read(bytes, a, castSize - a)) > 0) {
-                                    a += res;
-                                }
-                                // consume remainder so that cert check doesn't fail in case of wonky JARs
-                                while (is.read() != -1) {}
-                                // done
-                                is.close();
-                                spec.setBytes(bytes);
-                                final CodeSigner[] entryCodeSigners = file.getCodeSigners();
-                                final CodeSigners codeSigners = entryCodeSigners == null || entryCodeSigners.length == 0 ? EMPTY_CODE_SIGNERS : new CodeSigners(entryCodeSigners);
-                                CodeSource codeSource = codeSources.get(codeSigners);
-                                if (codeSource == null) {
-                                    codeSources.put(codeSigners, codeSource = new CodeSource(rootUrl, entryCodeSigners));
-                                }
-                                spec.setCodeSource(codeSource);
-                                return spec;
-                            } else {
-                                throw ServerLogger.ROOT_LOGGER.resourceTooLarge();
-                            }
-                        } finally {
-                            VFSUtils.safeClose(is);
+                    final InputStream is = file.openStream();
+                    try {
+                        final int castSize = (int) size;
+                        byte[] bytes = new byte[castSize];
+                        int a = 0, res;
+                        while ((res = is.read(bytes, a, castSize - a)) > 0) {
+                            a += res;
                         }
+                        // consume remainder so that cert check doesn't fail in case of wonky JARs
+                        while (is.read() != -1) {}
+                        // done
+                        is.close();
+                        spec.setBytes(bytes);
+                    } finally {
+                        VFSUtils.safeClose(is);
                     }
+                    final CodeSigner[] entryCodeSigners = file.getCodeSigners();
+                    final CodeSigners codeSigners = entryCodeSigners == null || entryCodeSigners.length == 0 ? EMPTY_CODE_SIGNERS : new CodeSigners(entryCodeSigners);
+                    spec.setCodeSource(codeSources.computeIfAbsent(codeSigners, signers -> new CodeSource(rootUrl, entryCodeSigners)));
+                    return spec;
                 }
             });
         } catch (PrivilegedActionException pe) {
@@ -219,6 +228,14 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
 
     /** {@inheritDoc} */
     public Collection<String> getPaths() {
+        Collection<String> paths = this.paths;
+        if (paths == null) {
+            this.paths = paths = Collections.unmodifiableList(findPaths());
+        }
+        return paths;
+    }
+
+    private List<String> findPaths() {
         final List<String> index = new ArrayList<String>();
         // First check for an index file
         final VirtualFile indexFile = VFS.getChild(root.getPathName() + ".index");
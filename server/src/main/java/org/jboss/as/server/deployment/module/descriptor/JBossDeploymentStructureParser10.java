@@ -44,6 +44,7 @@ import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.MountedDeploymentOverlay;
 import org.jboss.as.server.deployment.jbossallxml.JBossAllXMLParser;
 import org.jboss.as.server.deployment.module.FilterSpecification;
+import org.jboss.as.server.deployment.module.MappedZipFileSystem;
 import org.jboss.as.server.deployment.module.ModuleDependency;
 import org.jboss.as.server.deployment.module.MountHandle;
 import org.jboss.as.server.deployment.module.ResourceRoot;
@@ -53,7 +54,6 @@ import org.jboss.modules.ModuleLoader;
 import org.jboss.modules.filter.PathFilters;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLExtendedStreamReader;
-import org.jboss.vfs.VFS;
 import org.jboss.vfs.VirtualFile;
 
 /**
@@ -523,7 +523,7 @@ public class JBossDeploymentStructureParser10 implements XMLElementReader<ParseR
                             if(overlay != null) {
                                 overlay.remountAsZip(false);
                             } else if(child.isFile()) {
-                                closable = VFS.mountZip(child, child, TempFileProviderService.provider());
+                                closable = MappedZipFileSystem.mountZip(child, child, TempFileProviderService.provider());
                             }
                             final MountHandle mountHandle = new MountHandle(closable);
                             ResourceRoot resourceRoot = new ResourceRoot(name, child, mountHandle);
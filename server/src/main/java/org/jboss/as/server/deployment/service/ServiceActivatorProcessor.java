@@ -27,6 +27,7 @@ import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.ServicesAttachment;
 import org.jboss.modules.Module;
 import org.jboss.msc.service.ServiceActivator;
@@ -64,7 +65,8 @@ public class ServiceActivatorProcessor implements DeploymentUnitProcessor {
             //if a security manager is present we use a version that has permission checks
             serviceRegistry = new SecuredServiceRegistry(serviceRegistry);
         }
-        final ServiceActivatorContext serviceActivatorContext = new ServiceActivatorContextImpl(phaseContext.getServiceTarget(), serviceRegistry);
+        // User services are not installed on demand, nothing in the deployment would start them
+        final ServiceActivatorContext serviceActivatorContext = new ServiceActivatorContextImpl(DeploymentUtils.getEagerServiceTarget(phaseContext), serviceRegistry);
 
         final ClassLoader current = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
         try {
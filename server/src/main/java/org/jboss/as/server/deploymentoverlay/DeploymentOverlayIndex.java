@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import static org.jboss.as.controller.PathElement.pathElement;
@@ -41,27 +42,47 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEP
 
 /**
  * Service that aggregates all available deployment overrides
+ * <p>
+ * The index is built once per operation, as overlays cannot change once the operation has reached the runtime stage
+ * where deployments are installed. Wildcard patterns are compiled when the index is built, and the overlays resolved
+ * for a deployment name are remembered, so deploying many deployments at boot does not match every deployment
+ * against every overlay.
  *
  * @author Stuart Douglas
  */
 public class DeploymentOverlayIndex {
 
+    private static final OperationContext.AttachmentKey<DeploymentOverlayIndex> ATTACHMENT_KEY = OperationContext.AttachmentKey.create(DeploymentOverlayIndex.class);
+
     private final Map<String, Map<String, byte[]>> exactMatches;
-    private final Map<String, Map<String, byte[]>> wildcards;
+    private final Map<Pattern, Map<String, byte[]>> wildcards;
+    private final Map<String, Map<String, byte[]>> resolved = new ConcurrentHashMap<String, Map<String, byte[]>>();
 
     private DeploymentOverlayIndex(Map<String, Map<String, byte[]>> exactMatches, Map<String, Map<String, byte[]>> wildcards) {
         this.exactMatches = exactMatches;
-        this.wildcards = wildcards;
+        this.wildcards = new LinkedHashMap<Pattern, Map<String, byte[]>>();
+        for (Map.Entry<String, Map<String, byte[]>> entry : wildcards.entrySet()) {
+            this.wildcards.put(getPattern(entry.getKey()), entry.getValue());
+        }
     }
 
     public Map<String, byte[]> getOverlays(final String deployment) {
+        Map<String, byte[]> overlays = resolved.get(deployment);
+        if (overlays == null) {
+            overlays = resolveOverlays(deployment);
+            resolved.put(deployment, overlays);
+        }
+        return new HashMap<String, byte[]>(overlays);
+    }
+
+    private Map<String, byte[]> resolveOverlays(final String deployment) {
         Map<String, byte[]> ret = new HashMap<String, byte[]>();
         Map<String, byte[]> exact = exactMatches.get(deployment);
         if(exact != null) {
             ret.putAll(exact);
         }
-        for(Map.Entry<String, Map<String, byte[]>> entry : wildcards.entrySet()) {
-            if(getPattern(entry.getKey()).matcher(deployment).matches()) {
+        for(Map.Entry<Pattern, Map<String, byte[]>> entry : wildcards.entrySet()) {
+            if(entry.getKey().matcher(deployment).matches()) {
                 for(Map.Entry<String, byte[]> e : entry.getValue().entrySet()) {
                     if(!ret.containsKey(e.getKey())) {
                         ret.put(e.getKey(), e.getValue());
@@ -72,7 +93,22 @@ public class DeploymentOverlayIndex {
         return ret;
     }
 
+    /**
+     * Gets the index of the overlays of the current model, building it on the first call of the operation.
+     *
+     * @param context the operation context. Must be in the runtime stage, after all model changes were made
+     * @return the index. Will not be {@code null}
+     */
     public static DeploymentOverlayIndex createDeploymentOverlayIndex(OperationContext context) {
+        DeploymentOverlayIndex index = context.getAttachment(ATTACHMENT_KEY);
+        if (index == null) {
+            index = buildDeploymentOverlayIndex(context);
+            context.attach(ATTACHMENT_KEY, index);
+        }
+        return index;
+    }
+
+    private static DeploymentOverlayIndex buildDeploymentOverlayIndex(OperationContext context) {
         final Map<String, Map<String, byte[]>> exactMatches = new HashMap<String, Map<String, byte[]>>();
         final Map<String, Map<String, byte[]>> wildcards = new LinkedHashMap<String, Map<String, byte[]>>();
         Set<String> overlayNames = context.readResourceFromRoot(PathAddress.pathAddress(pathElement(DEPLOYMENT_OVERLAY))).getChildrenNames(DEPLOYMENT_OVERLAY);
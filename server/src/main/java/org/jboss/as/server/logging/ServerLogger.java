@@ -37,6 +37,7 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
 import java.util.jar.Attributes;
+import java.util.zip.ZipException;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.Location;
@@ -1173,4 +1174,29 @@ public interface ServerLogger extends BasicLogger {
     @Message(id = 235, value = "Security Manager is enabled")
     void securityManagerEnabled();
 
+    /**
+     * Logs an error message indicating the content of a deployment does not match its hash.
+     *
+     * @param deploymentName the name of the deployment.
+     * @param hash the hex hash of the content.
+     */
+    @LogMessage(level = ERROR)
+    @Message(id = 236, value = "The content of deployment \"%s\" does not match its hash %s")
+    void deploymentContentCorrupted(String deploymentName, String hash);
+
+    @Message(id = 237, value = "Invalid zip central directory header at offset %d")
+    ZipException invalidCentralDirectoryHeader(long offset);
+
+    @Message(id = 238, value = "Invalid zip local file header for entry %s")
+    ZipException invalidLocalFileHeader(String entryName);
+
+    @Message(id = 239, value = "Zip entry %s extends beyond the end of the archive")
+    ZipException truncatedZipEntry(String entryName);
+
+    @Message(id = 240, value = "Zip end of central directory record not found")
+    ZipException endOfCentralDirectoryNotFound();
+
+    @Message(id = 241, value = "%s is not a file")
+    IOException notAFile(VirtualFile file);
+
 }
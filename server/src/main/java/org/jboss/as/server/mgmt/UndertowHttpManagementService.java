@@ -24,6 +24,7 @@ package org.jboss.as.server.mgmt;
 import io.undertow.server.ListenerRegistry;
 import io.undertow.server.handlers.ChannelUpgradeHandler;
 
+import java.io.File;
 import java.net.BindException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -85,6 +86,7 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
     private final InjectedValue<Collection<String>> allowedOriginsValue = new InjectedValue<Collection<String>>();
     private final ConsoleMode consoleMode;
     private final String consoleSlot;
+    private final File tempDir;
     private ManagementHttpServer serverManagement;
     private SocketBindingManager socketBindingManager;
     private boolean useUnmanagedBindings = false;
@@ -153,9 +155,15 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
         }
     };
 
-    public UndertowHttpManagementService(ConsoleMode consoleMode, String consoleSlot) {
+    /**
+     * @param consoleMode the console mode
+     * @param consoleSlot the slot of the console module
+     * @param tempDir the temp directory of the process, where uploads split over several requests are staged
+     */
+    public UndertowHttpManagementService(ConsoleMode consoleMode, String consoleSlot, File tempDir) {
         this.consoleMode = consoleMode;
         this.consoleSlot = consoleSlot;
+        this.tempDir = tempDir;
     }
 
     /**
@@ -230,7 +238,7 @@ public class UndertowHttpManagementService implements Service<HttpManagement> {
 
             serverManagement = ManagementHttpServer.create(bindAddress, secureBindAddress, 50, modelController,
                     securityRealmService, controlledProcessStateService, consoleMode, consoleSlot, upgradeHandler,
-                    requestProcessor, allowedOriginsValue.getOptionalValue());
+                    requestProcessor, allowedOriginsValue.getOptionalValue(), tempDir);
 
             serverManagement.start();
 
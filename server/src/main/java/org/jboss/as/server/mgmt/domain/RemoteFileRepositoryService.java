@@ -24,6 +24,7 @@ package org.jboss.as.server.mgmt.domain;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -110,6 +111,11 @@ public class RemoteFileRepositoryService implements CompositeContentRepository,
         return contentRepository.hasContent(hash);
     }
 
+    @Override
+    public Set<String> verifyContent(Collection<byte[]> hashes) {
+        return contentRepository.verifyContent(hashes);
+    }
+
     @Override
     public void removeContent(ContentReference reference) {
         contentRepository.removeContent(reference);
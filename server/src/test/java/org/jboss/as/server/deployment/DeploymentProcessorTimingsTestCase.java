@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests aggregating the processor timings of a deployment and its sub deployments.
+ */
+public class DeploymentProcessorTimingsTestCase {
+
+    @Test
+    public void testAggregation() {
+        final RegisteredDeploymentUnitProcessor parse = processor(new ParseProcessor(), 0x0100);
+        final RegisteredDeploymentUnitProcessor install = processor(new InstallProcessor(), 0x0200);
+
+        final DeploymentProcessorTimings ear = new DeploymentProcessorTimings("test.ear");
+        ear.record(Phase.PARSE, parse, 5000000L);
+        ear.record(Phase.INSTALL, install, 1000000L);
+        final DeploymentProcessorTimings war = new DeploymentProcessorTimings("web.war");
+        war.record(Phase.PARSE, parse, 2000000L);
+        war.record(Phase.INSTALL, install, 7000000L);
+        // A restarted phase replaces the previous measurement
+        war.record(Phase.INSTALL, install, 3000000L);
+
+        final List<DeploymentProcessorTimings> all = Arrays.asList(ear, war);
+        assertEquals(11000000L, DeploymentProcessorTimings.getTotalTime(all));
+
+        final Map<Phase, Long> phaseTimes = DeploymentProcessorTimings.getPhaseTimes(all);
+        assertEquals(2, phaseTimes.size());
+        assertEquals(Long.valueOf(7000000L), phaseTimes.get(Phase.PARSE));
+        assertEquals(Long.valueOf(4000000L), phaseTimes.get(Phase.INSTALL));
+
+        final List<DeploymentProcessorTimings.ProcessorTiming> slowest = DeploymentProcessorTimings.getSlowest(all, 2);
+        assertEquals(2, slowest.size());
+        assertEquals("test.ear", slowest.get(0).deploymentUnitName);
+        assertEquals(Phase.PARSE, slowest.get(0).phase);
+        assertEquals(ParseProcessor.class.getName(), slowest.get(0).processorName);
+        assertEquals("test", slowest.get(0).subsystemName);
+        assertEquals("web.war", slowest.get(1).deploymentUnitName);
+        assertEquals(Phase.INSTALL, slowest.get(1).phase);
+        assertEquals(4, DeploymentProcessorTimings.getSlowest(all, 10).size());
+    }
+
+    private static RegisteredDeploymentUnitProcessor processor(final DeploymentUnitProcessor processor, final int priority) {
+        return new RegisteredDeploymentUnitProcessor(priority, processor, "test");
+    }
+
+    private static class ParseProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(final DeploymentPhaseContext phaseContext) {
+        }
+
+        @Override
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+
+    private static class InstallProcessor extends ParseProcessor {
+    }
+}
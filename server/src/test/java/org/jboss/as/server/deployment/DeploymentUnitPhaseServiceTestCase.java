@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.as.server.deployment.module.ModuleDependency;
+import org.jboss.as.server.deployment.module.ModuleSpecification;
+import org.jboss.modules.ModuleIdentifier;
+import org.junit.Test;
+
+/**
+ * Tests how sub deployments are ordered when they go through the module phases independently.
+ */
+public class DeploymentUnitPhaseServiceTestCase {
+
+    @Test
+    public void testSiblingDependencies() {
+        final DeploymentUnit ear = new DeploymentUnitImpl(null, "app.ear", null);
+        ear.putAttachment(Attachments.MODULE_IDENTIFIER, ModuleIdentifier.create("deployment.app.ear"));
+        final DeploymentUnit web = createSubDeployment(ear, "web.war");
+        final DeploymentUnit ejb = createSubDeployment(ear, "ejb.jar");
+        final DeploymentUnit lib = createSubDeployment(ear, "lib.jar");
+        final DeploymentUnit other = createSubDeployment(ear, "other.jar");
+
+        // web.war uses ejb.jar, which uses lib.jar; all of them can see the ear; other.jar is isolated
+        addDependency(web, ejb);
+        addDependency(ejb, lib);
+        addDependency(web, ear);
+        addDependency(ejb, ear);
+        addDependency(lib, ear);
+        addDependency(other, ear);
+        // A circular dependency is reported on both sides
+        addDependency(lib, ejb);
+
+        assertEquals(Collections.singletonList(ejb), DeploymentUnitPhaseService.getSiblingDependencies(web));
+        assertEquals(Collections.singletonList(lib), DeploymentUnitPhaseService.getSiblingDependencies(ejb));
+        assertEquals(Collections.singletonList(ejb), DeploymentUnitPhaseService.getSiblingDependencies(lib));
+        assertEquals(Collections.emptyList(), DeploymentUnitPhaseService.getSiblingDependencies(other));
+
+        // Sub deployments which can see all others, as in a non isolated ear
+        addDependency(other, web);
+        addDependency(other, ejb);
+        addDependency(other, lib);
+        assertEquals(Arrays.asList(web, ejb, lib), DeploymentUnitPhaseService.getSiblingDependencies(other));
+    }
+
+    @Test
+    public void testNoModule() {
+        final DeploymentUnit ear = new DeploymentUnitImpl(null, "app.ear", null);
+        final DeploymentUnit sub = new DeploymentUnitImpl(ear, "sub.jar", null);
+        ear.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, sub);
+        assertEquals(Collections.emptyList(), DeploymentUnitPhaseService.getSiblingDependencies(sub));
+    }
+
+    private static DeploymentUnit createSubDeployment(final DeploymentUnit parent, final String name) {
+        final DeploymentUnit subDeployment = new DeploymentUnitImpl(parent, name, null);
+        subDeployment.putAttachment(Attachments.MODULE_IDENTIFIER, ModuleIdentifier.create("deployment." + parent.getName() + "." + name));
+        subDeployment.putAttachment(Attachments.MODULE_SPECIFICATION, new ModuleSpecification());
+        parent.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, subDeployment);
+        return subDeployment;
+    }
+
+    private static void addDependency(final DeploymentUnit from, final DeploymentUnit to) {
+        final ModuleIdentifier identifier = to.getAttachment(Attachments.MODULE_IDENTIFIER);
+        from.getAttachment(Attachments.MODULE_SPECIFICATION).addLocalDependency(new ModuleDependency(null, identifier, false, false, true, false));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.jboss.msc.service.BatchServiceTarget;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StabilityMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that services installed through a {@link LazyServiceTarget} only start when demanded.
+ */
+public class LazyServiceTargetTestCase {
+
+    private static final ServiceName LAZY = ServiceName.of("test", "lazy");
+    private static final ServiceName EAGER = ServiceName.of("test", "eager");
+    private static final ServiceName DEPENDENT = ServiceName.of("test", "dependent");
+
+    private ServiceContainer container;
+
+    @Before
+    public void setUp() {
+        container = ServiceContainer.Factory.create("test");
+    }
+
+    @After
+    public void tearDown() {
+        container.shutdown();
+        container.awaitTerminationInterruptibly();
+    }
+
+    @Test
+    public void testOnDemandUntilUsed() throws Exception {
+        final DeploymentUnit deploymentUnit = new DeploymentUnitImpl(null, "test.war", container);
+        final StabilityMonitor monitor = new StabilityMonitor();
+        final ServiceTarget target = new LazyServiceTarget(container.subTarget(), deploymentUnit);
+        target.addMonitor(monitor);
+
+        final ServiceController<?> lazy = target.addService(LAZY, Service.NULL).install();
+        final ServiceController<?> eager = target.addService(EAGER, Service.NULL).setInitialMode(ServiceController.Mode.ACTIVE).install();
+        monitor.awaitStability();
+
+        assertEquals(ServiceController.Mode.ON_DEMAND, lazy.getMode());
+        assertEquals(ServiceController.State.DOWN, lazy.getState());
+        assertEquals(ServiceController.State.UP, eager.getState());
+        assertEquals(Collections.singletonList(LAZY), deploymentUnit.getAttachmentList(LazyServiceTarget.LAZY_SERVICE_NAMES));
+
+        target.addService(DEPENDENT, Service.NULL).addDependency(LAZY).setInitialMode(ServiceController.Mode.ACTIVE).install();
+        monitor.awaitStability();
+        assertEquals(ServiceController.State.UP, lazy.getState());
+    }
+
+    @Test
+    public void testBatchTarget() throws Exception {
+        final DeploymentUnit deploymentUnit = new DeploymentUnitImpl(null, "test.war", container);
+        final StabilityMonitor monitor = new StabilityMonitor();
+        final BatchServiceTarget target = new LazyServiceTarget(container.subTarget(), deploymentUnit).batchTarget();
+        target.addMonitor(monitor);
+
+        final ServiceController<?> lazy = target.addService(LAZY, Service.NULL).install();
+        monitor.awaitStability();
+        assertEquals(ServiceController.Mode.ON_DEMAND, lazy.getMode());
+        assertEquals(Collections.singletonList(LAZY), deploymentUnit.getAttachmentList(LazyServiceTarget.LAZY_SERVICE_NAMES));
+
+        target.removeServices();
+        monitor.awaitStability();
+        assertEquals(ServiceController.State.REMOVED, lazy.getState());
+    }
+
+    @Test
+    public void testEagerServiceTarget() throws Exception {
+        final DeploymentUnit deploymentUnit = new DeploymentUnitImpl(null, "test.war", container);
+        final StabilityMonitor monitor = new StabilityMonitor();
+        final ServiceTarget lazyTarget = new LazyServiceTarget(container.subTarget(), deploymentUnit);
+        final DeploymentPhaseContext phaseContext = new DeploymentPhaseContextImpl(lazyTarget, null, null, deploymentUnit, Phase.INSTALL);
+        final ServiceTarget target = DeploymentUtils.getEagerServiceTarget(phaseContext);
+        target.addMonitor(monitor);
+
+        final ServiceController<?> eager = target.addService(EAGER, Service.NULL).install();
+        monitor.awaitStability();
+        assertEquals(ServiceController.State.UP, eager.getState());
+        assertTrue(deploymentUnit.getAttachmentList(LazyServiceTarget.LAZY_SERVICE_NAMES).isEmpty());
+    }
+}
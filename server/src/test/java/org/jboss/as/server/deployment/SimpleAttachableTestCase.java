@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+/**
+ * Tests the slot based attachment storage of {@link SimpleAttachable}.
+ */
+public class SimpleAttachableTestCase {
+
+    private static final AttachmentKey<String> NAME = AttachmentKey.create(String.class);
+    private static final AttachmentKey<Integer> COUNT = AttachmentKey.create(Integer.class);
+    private static final AttachmentKey<AttachmentList<String>> NAMES = AttachmentKey.createList(String.class);
+
+    @Test
+    public void testAttachments() {
+        final SimpleAttachable attachable = new SimpleAttachable();
+        assertFalse(attachable.hasAttachment(NAME));
+        assertNull(attachable.getAttachment(NAME));
+        assertNull(attachable.removeAttachment(NAME));
+        assertNull(attachable.getAttachment(null));
+
+        assertNull(attachable.putAttachment(NAME, "a"));
+        assertEquals("a", attachable.putAttachment(NAME, "b"));
+        assertEquals("b", attachable.getAttachment(NAME));
+        assertTrue(attachable.hasAttachment(NAME));
+
+        // A null value is still an attachment
+        assertNull(attachable.putAttachment(COUNT, null));
+        assertTrue(attachable.hasAttachment(COUNT));
+        assertNull(attachable.getAttachment(COUNT));
+        assertEquals(new HashSet<AttachmentKey<?>>(Arrays.asList(NAME, COUNT)), attachable.attachmentKeys());
+
+        assertNull(attachable.removeAttachment(COUNT));
+        assertFalse(attachable.hasAttachment(COUNT));
+        assertEquals("b", attachable.removeAttachment(NAME));
+        assertFalse(attachable.hasAttachment(NAME));
+        assertTrue(attachable.attachmentKeys().isEmpty());
+    }
+
+    @Test
+    public void testAttachmentList() {
+        final SimpleAttachable attachable = new SimpleAttachable();
+        assertEquals(Collections.emptyList(), attachable.getAttachmentList(NAMES));
+        attachable.addToAttachmentList(NAMES, "a");
+        attachable.addToAttachmentList(NAMES, "b");
+        assertEquals(Arrays.asList("a", "b"), attachable.getAttachmentList(NAMES));
+        assertEquals(Collections.singleton(NAMES), attachable.attachmentKeys());
+    }
+
+    @Test
+    public void testKeysCreatedLater() {
+        final SimpleAttachable attachable = new SimpleAttachable();
+        attachable.putAttachment(NAME, "a");
+        // Keys created after the slots were first allocated must grow the slots without losing attachments
+        final AttachmentKey<?>[] keys = new AttachmentKey<?>[100];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = AttachmentKey.create(Integer.class);
+            attachable.putAttachment(cast(keys[i]), i);
+        }
+        assertEquals("a", attachable.getAttachment(NAME));
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(Integer.valueOf(i), attachable.getAttachment(keys[i]));
+        }
+        assertEquals(keys.length + 1, attachable.attachmentKeys().size());
+    }
+
+    @Test
+    public void testKeysBeyondSlots() {
+        final SimpleAttachable attachable = new SimpleAttachable();
+        attachable.putAttachment(NAME, "a");
+        // Make sure some keys are past the slots, whatever number of keys other tests created
+        final AttachmentKey<?>[] keys = new AttachmentKey<?>[SimpleAttachable.MAX_SLOTS + 10];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = AttachmentKey.create(Integer.class);
+        }
+        final AttachmentKey<Integer> last = cast(keys[keys.length - 1]);
+        assertTrue(last.index >= SimpleAttachable.MAX_SLOTS);
+        assertFalse(attachable.hasAttachment(last));
+        assertNull(attachable.removeAttachment(last));
+
+        assertNull(attachable.putAttachment(last, 1));
+        assertEquals(Integer.valueOf(1), attachable.putAttachment(last, 2));
+        assertEquals(Integer.valueOf(2), attachable.getAttachment(last));
+        assertNull(attachable.putAttachment(cast(keys[keys.length - 2]), null));
+        assertTrue(attachable.hasAttachment(keys[keys.length - 2]));
+        assertEquals(new HashSet<AttachmentKey<?>>(Arrays.asList(NAME, last, keys[keys.length - 2])), attachable.attachmentKeys());
+
+        assertEquals(Integer.valueOf(2), attachable.removeAttachment(last));
+        assertFalse(attachable.hasAttachment(last));
+        assertEquals("a", attachable.getAttachment(NAME));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final SimpleAttachable attachable = new SimpleAttachable();
+        final AttachmentKey<?>[] keys = new AttachmentKey<?>[64];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = AttachmentKey.create(Integer.class);
+        }
+        final Thread[] threads = new Thread[4];
+        final Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = offset; i < keys.length; i += threads.length) {
+                        attachable.putAttachment(cast(keys[i]), i);
+                        assertEquals(Integer.valueOf(i), attachable.getAttachment(keys[i]));
+                    }
+                } catch (Throwable e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        synchronized (failure) {
+            assertNull(failure[0]);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(Integer.valueOf(i), attachable.getAttachment(keys[i]));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AttachmentKey<Integer> cast(final AttachmentKey<?> key) {
+        return (AttachmentKey<Integer>) key;
+    }
+}
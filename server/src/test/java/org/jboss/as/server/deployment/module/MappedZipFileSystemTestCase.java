@@ -0,0 +1,378 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link MappedZipFileSystem}, reading archives written by {@link ZipOutputStream} and archives whose
+ * headers have been altered afterwards.
+ */
+public class MappedZipFileSystemTestCase {
+
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_HEADER = 0x02014b50;
+
+    private static final byte[] TEXT = "The quick brown fox jumps over the lazy dog.\n".getBytes(StandardCharsets.UTF_8);
+
+    private final List<Closeable> mounts = new ArrayList<>();
+    private final List<File> files = new ArrayList<>();
+    private ScheduledExecutorService tempFileExecutor;
+    private TempFileProvider tempFileProvider;
+
+    @Before
+    public void setUp() throws Exception {
+        tempFileExecutor = Executors.newSingleThreadScheduledExecutor();
+        tempFileProvider = TempFileProvider.create("test", tempFileExecutor, true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (int i = mounts.size() - 1; i >= 0; i--) {
+            VFSUtils.safeClose(mounts.get(i));
+        }
+        VFSUtils.safeClose(tempFileProvider);
+        tempFileExecutor.shutdownNow();
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testStoredAndDeflatedEntries() throws Exception {
+        final byte[] large = repeat(TEXT, 1000);
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            putStored(out, "stored.txt", TEXT);
+            putDeflated(out, "deflated.txt", large);
+            putStored(out, "empty.txt", new byte[0]);
+        }
+        final VirtualFile root = mount(zip);
+
+        assertTrue(root.isDirectory());
+        assertEquals(new HashSet<>(Arrays.asList("stored.txt", "deflated.txt", "empty.txt")), new HashSet<>(names(root)));
+        final VirtualFile stored = root.getChild("stored.txt");
+        assertTrue(stored.isFile());
+        assertEquals(TEXT.length, stored.getSize());
+        assertArrayEquals(TEXT, read(stored));
+        final VirtualFile deflated = root.getChild("deflated.txt");
+        assertEquals(large.length, deflated.getSize());
+        assertArrayEquals(large, read(deflated));
+        assertArrayEquals(large, Files.readAllBytes(deflated.getPhysicalFile().toPath()));
+        assertArrayEquals(new byte[0], read(root.getChild("empty.txt")));
+        assertFalse(root.getChild("missing.txt").exists());
+    }
+
+    @Test
+    public void testDirectories() throws Exception {
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("META-INF/"));
+            out.closeEntry();
+            putDeflated(out, "META-INF/MANIFEST.MF", TEXT);
+            // No entries for the parent directories
+            putDeflated(out, "org/example/Test.class", TEXT);
+            putStored(out, "org/example/other/Other.class", TEXT);
+        }
+        final VirtualFile root = mount(zip);
+
+        assertEquals(new HashSet<>(Arrays.asList("META-INF", "org")), new HashSet<>(names(root)));
+        assertTrue(root.getChild("META-INF").isDirectory());
+        assertEquals(Arrays.asList("MANIFEST.MF"), names(root.getChild("META-INF")));
+        final VirtualFile example = root.getChild("org/example");
+        assertTrue(example.isDirectory());
+        assertFalse(example.isFile());
+        assertEquals(new HashSet<>(Arrays.asList("Test.class", "other")), new HashSet<>(names(example)));
+        assertTrue(root.getChild("org/example/other").isDirectory());
+        assertArrayEquals(TEXT, read(root.getChild("org/example/other/Other.class")));
+
+        final File physical = example.getPhysicalFile();
+        assertTrue(physical.isDirectory());
+        assertArrayEquals(TEXT, Files.readAllBytes(new File(physical, "Test.class").toPath()));
+    }
+
+    @Test
+    public void testCommentsAndExtraFields() throws Exception {
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            out.setComment("An archive comment");
+            final ZipEntry stored = storedEntry("stored.txt", TEXT);
+            stored.setComment("An entry comment");
+            stored.setExtra(new byte[] {(byte) 0xca, (byte) 0xfe, 4, 0, 1, 2, 3, 4});
+            out.putNextEntry(stored);
+            out.write(TEXT);
+            out.closeEntry();
+            final ZipEntry deflated = new ZipEntry("deflated.txt");
+            deflated.setComment("Another entry comment");
+            deflated.setExtra(new byte[] {(byte) 0xca, (byte) 0xfe, 2, 0, 5, 6});
+            out.putNextEntry(deflated);
+            out.write(TEXT);
+            out.closeEntry();
+        }
+        final VirtualFile root = mount(zip);
+
+        assertArrayEquals(TEXT, read(root.getChild("stored.txt")));
+        assertArrayEquals(TEXT, read(root.getChild("deflated.txt")));
+    }
+
+    @Test
+    public void testZip64NotMapped() throws Exception {
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            // More entries than the end of central directory record can count
+            for (int i = 0; i <= 0xffff; i++) {
+                putStored(out, Integer.toString(i), new byte[0]);
+            }
+        }
+        assertNull(MappedZipFileSystem.create(VFS.getChild(zip.getAbsolutePath()), tempFileProvider));
+    }
+
+    @Test
+    public void testEncryptedEntryNotMapped() throws Exception {
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            putStored(out, "stored.txt", TEXT);
+        }
+        final byte[] bytes = Files.readAllBytes(zip.toPath());
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        final int header = find(bytes, CENTRAL_DIRECTORY_HEADER);
+        // Set the encrypted bit of the general purpose flags
+        buffer.putShort(header + 8, (short) (buffer.getShort(header + 8) | 1));
+        Files.write(zip.toPath(), bytes);
+
+        assertNull(MappedZipFileSystem.create(VFS.getChild(zip.getAbsolutePath()), tempFileProvider));
+    }
+
+    @Test
+    public void testPathTraversalNotMapped() throws Exception {
+        for (String name : Arrays.asList("../../evil.txt", "lib/../../evil.txt", "/evil.txt", "lib\\..\\evil.txt", "../")) {
+            final File zip = newFile();
+            try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+                putStored(out, "safe.txt", TEXT);
+                putStored(out, name, TEXT);
+            }
+            assertNull(name, MappedZipFileSystem.create(VFS.getChild(zip.getAbsolutePath()), tempFileProvider));
+        }
+    }
+
+    @Test(expected = ZipException.class)
+    public void testTruncatedArchive() throws Exception {
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            putDeflated(out, "deflated.txt", repeat(TEXT, 100));
+        }
+        final byte[] bytes = Files.readAllBytes(zip.toPath());
+        Files.write(zip.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+        MappedZipFileSystem.create(VFS.getChild(zip.getAbsolutePath()), tempFileProvider);
+    }
+
+    @Test(expected = ZipException.class)
+    public void testCentralDirectoryBeyondEnd() throws Exception {
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            putStored(out, "stored.txt", TEXT);
+        }
+        final byte[] bytes = Files.readAllBytes(zip.toPath());
+        final int end = find(bytes, END_OF_CENTRAL_DIRECTORY);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(end + 16, bytes.length + 100);
+        Files.write(zip.toPath(), bytes);
+
+        MappedZipFileSystem.create(VFS.getChild(zip.getAbsolutePath()), tempFileProvider);
+    }
+
+    @Test(expected = ZipException.class)
+    public void testCorruptCentralDirectory() throws Exception {
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            putStored(out, "stored.txt", TEXT);
+        }
+        final byte[] bytes = Files.readAllBytes(zip.toPath());
+        final int end = find(bytes, END_OF_CENTRAL_DIRECTORY);
+        // Point the central directory at the local file header
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(end + 16, 0);
+        Files.write(zip.toPath(), bytes);
+
+        MappedZipFileSystem.create(VFS.getChild(zip.getAbsolutePath()), tempFileProvider);
+    }
+
+    @Test(expected = ZipException.class)
+    public void testCorruptLocalFileHeader() throws Exception {
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            putStored(out, "stored.txt", TEXT);
+        }
+        final byte[] bytes = Files.readAllBytes(zip.toPath());
+        bytes[0] = 0;
+        Files.write(zip.toPath(), bytes);
+
+        MappedZipFileSystem.create(VFS.getChild(zip.getAbsolutePath()), tempFileProvider);
+    }
+
+    @Test(expected = ZipException.class)
+    public void testEntryBeyondEnd() throws Exception {
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            putStored(out, "stored.txt", TEXT);
+        }
+        final byte[] bytes = Files.readAllBytes(zip.toPath());
+        final int header = find(bytes, CENTRAL_DIRECTORY_HEADER);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(header + 20, bytes.length);
+        Files.write(zip.toPath(), bytes);
+
+        MappedZipFileSystem.create(VFS.getChild(zip.getAbsolutePath()), tempFileProvider);
+    }
+
+    @Test
+    public void testNestedArchives() throws Exception {
+        final ByteArrayOutputStream inner = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(inner)) {
+            putDeflated(out, "inner.txt", TEXT);
+        }
+        final File zip = newFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            putStored(out, "lib/stored.jar", inner.toByteArray());
+            putDeflated(out, "lib/deflated.jar", inner.toByteArray());
+        }
+        final VirtualFile root = mount(zip);
+
+        // A stored archive is mounted over its bytes in the outer archive
+        final VirtualFile stored = root.getChild("lib/stored.jar");
+        final MappedZipFileSystem nested = MappedZipFileSystem.create(stored, tempFileProvider);
+        assertNotNull(nested);
+        mounts.add(nested.mount(stored));
+        assertTrue(stored.isDirectory());
+        assertArrayEquals(TEXT, read(stored.getChild("inner.txt")));
+
+        // A compressed one is left to VFS.mountZip
+        assertNull(MappedZipFileSystem.create(root.getChild("lib/deflated.jar"), tempFileProvider));
+    }
+
+    private VirtualFile mount(final File zip) throws IOException {
+        final MappedZipFileSystem fileSystem = MappedZipFileSystem.create(VFS.getChild(zip.getAbsolutePath()), tempFileProvider);
+        assertNotNull(fileSystem);
+        final VirtualFile mountPoint = VFS.getChild("mapped").getChild(zip.getName());
+        mounts.add(fileSystem.mount(mountPoint));
+        return mountPoint;
+    }
+
+    private File newFile() throws IOException {
+        final File file = File.createTempFile("mapped-zip", ".jar");
+        files.add(file);
+        return file;
+    }
+
+    private static ZipEntry storedEntry(final String name, final byte[] content) {
+        final ZipEntry entry = new ZipEntry(name);
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        return entry;
+    }
+
+    private static void putStored(final ZipOutputStream out, final String name, final byte[] content) throws IOException {
+        out.putNextEntry(storedEntry(name, content));
+        out.write(content);
+        out.closeEntry();
+    }
+
+    private static void putDeflated(final ZipOutputStream out, final String name, final byte[] content) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.closeEntry();
+    }
+
+    private static byte[] read(final VirtualFile file) throws IOException {
+        try (InputStream in = file.openStream()) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            VFSUtils.copyStream(in, out);
+            return out.toByteArray();
+        }
+    }
+
+    private static List<String> names(final VirtualFile directory) {
+        final List<String> names = new ArrayList<>();
+        for (VirtualFile child : directory.getChildren()) {
+            names.add(child.getName());
+        }
+        return names;
+    }
+
+    private static byte[] repeat(final byte[] bytes, final int count) {
+        final byte[] result = new byte[bytes.length * count];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(bytes, 0, result, i * bytes.length, bytes.length);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the last occurrence of a header signature.
+     */
+    private static int find(final byte[] bytes, final int signature) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int position = bytes.length - 4; position >= 0; position--) {
+            if (buffer.getInt(position) == signature) {
+                return position;
+            }
+        }
+        throw new IllegalArgumentException(Integer.toHexString(signature));
+    }
+}
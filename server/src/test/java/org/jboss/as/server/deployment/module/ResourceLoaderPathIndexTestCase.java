@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests reading back stored resource root indexes.
+ */
+public class ResourceLoaderPathIndexTestCase {
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("module", ".index");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testReadStoredIndex() throws Exception {
+        final Map<String, Collection<String>> index = new LinkedHashMap<>();
+        index.put("", Arrays.asList("", "WEB-INF", "WEB-INF/classes", "WEB-INF/classes/org/jboss/test"));
+        index.put("WEB-INF/lib/library.jar", Arrays.asList("", "META-INF", "org/jboss/library"));
+        index.put("WEB-INF/lib/empty.jar", Collections.<String>emptyList());
+        ResourceLoaderPathIndex.write(file, "deployment.test.war:main", index);
+
+        final Map<String, List<String>> read = ResourceLoaderPathIndex.read(file, "deployment.test.war:main");
+        assertEquals(index, read);
+    }
+
+    @Test
+    public void testIndexOfOtherModuleIgnored() throws Exception {
+        ResourceLoaderPathIndex.write(file, "deployment.test.war:main",
+                Collections.singletonMap("", Collections.singletonList("org/jboss/test")));
+        assertTrue(ResourceLoaderPathIndex.read(file, "deployment.other.war:main").isEmpty());
+    }
+
+    @Test
+    public void testCorruptIndexIgnored() throws Exception {
+        ResourceLoaderPathIndex.write(file, "deployment.test.war:main",
+                Collections.singletonMap("", Collections.singletonList("org/jboss/test")));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 4);
+        }
+        assertTrue(ResourceLoaderPathIndex.read(file, "deployment.test.war:main").isEmpty());
+        assertTrue(ResourceLoaderPathIndex.read(new File(file.getParentFile(), "missing.index"), "deployment.test.war:main").isEmpty());
+    }
+
+    @Test
+    public void testRemoveDeploymentIndexes() throws Exception {
+        final File dataDir = Files.createTempDirectory("data").toFile();
+        try {
+            final File indexDir = new File(dataDir, ResourceLoaderPathIndex.INDEX_DIR);
+            final File keyDir = new File(new File(indexDir, "test.war"), "0123456789abcdef");
+            final File otherDir = new File(new File(indexDir, "other.war"), "0123456789abcdef");
+            assertTrue(keyDir.mkdirs());
+            assertTrue(otherDir.mkdirs());
+            ResourceLoaderPathIndex.write(new File(keyDir, "deployment.test.war_main.index"), "deployment.test.war:main",
+                    Collections.singletonMap("", Collections.singletonList("org/jboss/test")));
+
+            ResourceLoaderPathIndex.remove(dataDir, "test.war");
+            assertFalse(new File(indexDir, "test.war").exists());
+            assertTrue(otherDir.isDirectory());
+        } finally {
+            ResourceLoaderPathIndex.remove(dataDir, "other.war");
+            new File(dataDir, ResourceLoaderPathIndex.INDEX_DIR).delete();
+            dataDir.delete();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.jboss.modules.ClassSpec;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Loads classes of one jar with several threads at once, checking each thread gets the right bytes and that all
+ * classes share one code source.
+ */
+public class VFSResourceLoaderTestCase {
+
+    private static final int CLASS_COUNT = 500;
+    private static final int THREADS = 8;
+    private static final int LOADS_PER_THREAD = 100;
+
+    private final byte[][] classBytes = new byte[CLASS_COUNT][];
+    private File jar;
+    private ScheduledExecutorService tempFileExecutor;
+    private TempFileProvider tempFileProvider;
+    private Closeable mount;
+    private VirtualFile root;
+
+    @Before
+    public void setUp() throws Exception {
+        final Random random = new Random(42);
+        jar = File.createTempFile("vfs-resource-loader", ".jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (int i = 0; i < CLASS_COUNT; i++) {
+                classBytes[i] = new byte[1024 + random.nextInt(8192)];
+                random.nextBytes(classBytes[i]);
+                out.putNextEntry(new ZipEntry(className(i)));
+                out.write(classBytes[i]);
+                out.closeEntry();
+            }
+        }
+        tempFileExecutor = Executors.newSingleThreadScheduledExecutor();
+        tempFileProvider = TempFileProvider.create("test", tempFileExecutor, true);
+        root = VFS.getChild("test.jar");
+        mount = VFS.mountZip(jar, root, tempFileProvider);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        VFSUtils.safeClose(mount, tempFileProvider);
+        tempFileExecutor.shutdownNow();
+        jar.delete();
+    }
+
+    @Test
+    public void testConcurrentClassLoading() throws Exception {
+        final VFSResourceLoader loader = new VFSResourceLoader("test.jar", root);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<ClassSpec>> results = new ArrayList<>();
+            for (int i = 0; i < CLASS_COUNT; i++) {
+                final String name = className(i);
+                results.add(executor.submit(new Callable<ClassSpec>() {
+                    @Override
+                    public ClassSpec call() throws Exception {
+                        return loader.getClassSpec(name);
+                    }
+                }));
+            }
+            ClassSpec first = null;
+            for (int i = 0; i < CLASS_COUNT; i++) {
+                final ClassSpec spec = results.get(i).get(1, TimeUnit.MINUTES);
+                assertNotNull(spec);
+                assertArrayEquals(classBytes[i], spec.getBytes());
+                if (first == null) {
+                    first = spec;
+                } else {
+                    // Unsigned entries all share one code source
+                    assertSame(first.getCodeSource(), spec.getCodeSource());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNull(loader.getClassSpec("org/jboss/test/Missing.class"));
+    }
+
+    @Test
+    public void testConcurrentLoadsOfOneClass() throws Exception {
+        final VFSResourceLoader loader = new VFSResourceLoader("test.jar", root);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<ClassSpec>>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(new Callable<List<ClassSpec>>() {
+                    @Override
+                    public List<ClassSpec> call() throws Exception {
+                        start.await();
+                        final List<ClassSpec> specs = new ArrayList<>();
+                        for (int j = 0; j < LOADS_PER_THREAD; j++) {
+                            specs.add(loader.getClassSpec(className(0)));
+                        }
+                        return specs;
+                    }
+                }));
+            }
+            start.countDown();
+            CodeSource codeSource = null;
+            for (Future<List<ClassSpec>> result : results) {
+                for (ClassSpec spec : result.get(1, TimeUnit.MINUTES)) {
+                    assertNotNull(spec);
+                    assertArrayEquals(classBytes[0], spec.getBytes());
+                    if (codeSource == null) {
+                        codeSource = spec.getCodeSource();
+                        assertNotNull(codeSource);
+                    } else {
+                        assertSame(codeSource, spec.getCodeSource());
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String className(int i) {
+        return "org/jboss/test/Class" + i + ".class";
+    }
+}